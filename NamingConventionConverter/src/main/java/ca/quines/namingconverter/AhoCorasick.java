@@ -0,0 +1,153 @@
+package ca.quines.namingconverter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Finds many literal strings in one scan.  Matches are leftmost-longest: the match that starts first wins, and of the
+ * matches that start at the same place the longest wins.  {@link ReplacementRules} uses it for its literal rules.
+ */
+final class AhoCorasick {
+
+    // The trie, one entry per state.  State 0 is the root.  Each state's transitions are sorted by character.
+    private final char[][] keys;
+    private final int[][] targets;
+    private final int[] failure;
+    private final int[] depth;
+    /** The pattern that ends at this state, or -1. */
+    private final int[] pattern;
+    /** The nearest state on the failure chain that ends a pattern, or -1. */
+    private final int[] outputLink;
+
+    private final int[] patternLengths;
+
+    /** {@code patterns} must be non-empty; a repeated pattern keeps its first index. */
+    AhoCorasick(List<String> patterns) {
+        List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+        List<Integer> depths = new ArrayList<>();
+        List<Integer> ends = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        depths.add(0);
+        ends.add(-1);
+
+        patternLengths = new int[patterns.size()];
+        for (int p = 0; p < patterns.size(); p++) {
+            String text = patterns.get(p);
+            if (text.isEmpty()) throw new IllegalArgumentException("Empty patterns can't be matched.");
+            patternLengths[p] = text.length();
+            int state = 0;
+            for (int i = 0; i < text.length(); i++) {
+                Integer next = trie.get(state).get(text.charAt(i));
+                if (next == null) {
+                    next = trie.size();
+                    trie.add(new TreeMap<>());
+                    depths.add(i + 1);
+                    ends.add(-1);
+                    trie.get(state).put(text.charAt(i), next);
+                }
+                state = next;
+            }
+            if (ends.get(state) == -1) ends.set(state, p);
+        }
+
+        int states = trie.size();
+        keys = new char[states][];
+        targets = new int[states][];
+        depth = new int[states];
+        pattern = new int[states];
+        for (int s = 0; s < states; s++) {
+            TreeMap<Character, Integer> edges = trie.get(s);
+            keys[s] = new char[edges.size()];
+            targets[s] = new int[edges.size()];
+            int i = 0;
+            for (var edge : edges.entrySet()) {
+                keys[s][i] = edge.getKey();
+                targets[s][i] = edge.getValue();
+                i++;
+            }
+            depth[s] = depths.get(s);
+            pattern[s] = ends.get(s);
+        }
+
+        // Breadth first, so every state's failure state is finished before the state itself.
+        failure = new int[states];
+        outputLink = new int[states];
+        outputLink[0] = -1;
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int child : targets[0]) {
+            outputLink[child] = -1;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int s = queue.poll();
+            for (int i = 0; i < keys[s].length; i++) {
+                int child = targets[s][i];
+                int f = failure[s];
+                int next;
+                while ((next = step(f, keys[s][i])) < 0 && f != 0) f = failure[f];
+                failure[child] = next < 0 ? 0 : next;
+                int fail = failure[child];
+                outputLink[child] = pattern[fail] >= 0 ? fail : outputLink[fail];
+                queue.add(child);
+            }
+        }
+    }
+
+    /**
+     * The first match at or after {@code from} and before {@code to}, packed as {@code (start << 32) | patternIndex},
+     * or -1 if there is none.
+     */
+    long find(CharSequence text, int from, int to) {
+        int state = 0;
+        int bestStart = Integer.MAX_VALUE;
+        int bestPattern = -1;
+        for (int i = from; i < to; i++) {
+            state = next(state, text.charAt(i));
+
+            // The longest pattern ending here is the one that starts first.
+            int s = pattern[state] >= 0 ? state : outputLink[state];
+            if (s >= 0) {
+                int start = i + 1 - patternLengths[pattern[s]];
+                // A later end at the same start is a longer match, so it replaces the earlier one.
+                if (start <= bestStart) {
+                    bestStart = start;
+                    bestPattern = pattern[s];
+                }
+            }
+            // Every match that ends later starts at or after i + 1 - depth, so nothing can beat the best one now.
+            if (bestPattern >= 0 && i + 1 - depth[state] > bestStart) break;
+        }
+        return bestPattern < 0 ? -1 : ((long) bestStart << 32) | bestPattern;
+    }
+
+    int patternLength(int patternIndex) {
+        return patternLengths[patternIndex];
+    }
+
+    private int next(int state, char c) {
+        while (true) {
+            int next = step(state, c);
+            if (next >= 0) return next;
+            if (state == 0) return 0;
+            state = failure[state];
+        }
+    }
+
+    private int step(int state, char c) {
+        char[] k = keys[state];
+        int i = k.length < 8 ? linearSearch(k, c) : Arrays.binarySearch(k, c);
+        return i < 0 ? -1 : targets[state][i];
+    }
+
+    private static int linearSearch(char[] k, char c) {
+        for (int i = 0; i < k.length; i++) {
+            if (k[i] == c) return i;
+        }
+        return -1;
+    }
+
+}
@@ -0,0 +1,25 @@
+package ca.quines.namingconverter;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Lets the long scans stop part way through when the thread running them is interrupted, as the GUI's Cancel button
+ * does.  The scans check once per word, token or line, or every {@code 64K} characters in the loops that go one
+ * character at a time.
+ */
+final class Cancellation {
+
+    private Cancellation() {
+    }
+
+    /** Throws {@link CancellationException} if this thread has been interrupted. */
+    static void check() {
+        if (Thread.currentThread().isInterrupted()) throw new CancellationException();
+    }
+
+    /** {@link #check()} when {@code index} is a multiple of {@code 64K}, for loops that step one character at a time. */
+    static void check(int index) {
+        if ((index & 0xFFFF) == 0) check();
+    }
+
+}
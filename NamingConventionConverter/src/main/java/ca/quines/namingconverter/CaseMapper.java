@@ -0,0 +1,149 @@
+package ca.quines.namingconverter;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Upper- and lowercasing that gives the same answer on every machine.  {@link String#toUpperCase()} uses the default
+ * locale, so on a Turkish desktop "id" becomes "İD", which is no use for identifiers.  These methods map like
+ * {@code toUpperCase(Locale.ROOT)}, but flip ASCII letters eight at a time in a {@code long} and only hand the
+ * stretches of text that have non-ASCII characters in them to the JDK.
+ * <p>
+ * In a build made with {@code -Pvector}, started with {@code -Dncc.vectorCase=true} and
+ * {@code --add-modules jdk.incubator.vector}, the ASCII pass uses the vector API instead.  Otherwise the flag is
+ * ignored.
+ */
+public final class CaseMapper {
+
+    /**
+     * Maps the ASCII letters in a range in place, and stops at the first byte that might not be ASCII: a negative
+     * byte, or a '?', which is what {@link String#getBytes} writes for characters outside ISO-8859-1.
+     */
+    @FunctionalInterface
+    interface Kernel {
+        int map(byte[] bytes, int from, int to, boolean upper);
+    }
+
+    private static final long ONES = 0x0101010101010101L;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+    private static final long QUESTION_MARKS = '?' * ONES;
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private static final Kernel VECTOR_KERNEL = loadKernel();
+    private static final Kernel KERNEL = VECTOR_KERNEL != null ? VECTOR_KERNEL : CaseMapper::mapAsciiWords;
+
+    private CaseMapper() {
+    }
+
+    /** {@code input.toUpperCase(Locale.ROOT)}, or "" for null. */
+    public static String toUpperCase(String input) {
+        return map(input, true);
+    }
+
+    /** {@code input.toLowerCase(Locale.ROOT)}, or "" for null. */
+    public static String toLowerCase(String input) {
+        return map(input, false);
+    }
+
+    /** Whether the vector kernel was loaded. */
+    public static boolean isVectorized() {
+        return VECTOR_KERNEL != null;
+    }
+
+    private static String map(String input, boolean upper) {
+        if (input == null) return "";
+        int length = input.length();
+        // Just a copy when the JDK stores the string one byte per character, as it does any ASCII text.
+        byte[] bytes = input.getBytes(StandardCharsets.ISO_8859_1);
+        if (bytes.length != length) {
+            // A surrogate pair became a single '?', so the indexes no longer line up.  Rare enough to not bother.
+            return upper ? input.toUpperCase(Locale.ROOT) : input.toLowerCase(Locale.ROOT);
+        }
+        int i = nextNonAscii(input, bytes, 0, upper);
+        if (i == length) return new String(bytes, StandardCharsets.ISO_8859_1);
+
+        StringBuilder sb = new StringBuilder(length + 16);
+        int done = 0;
+        while (i < length) {
+            // Final sigma is the only mapping in the root locale that depends on its neighbours, and it never looks
+            // past whitespace, so the whole whitespace-delimited word around a non-ASCII character goes to the JDK.
+            int runStart = i;
+            while (runStart > done && !isBoundary(input.charAt(runStart - 1))) runStart--;
+            int runEnd = i + 1;
+            while (runEnd < length && !isBoundary(input.charAt(runEnd))) runEnd++;
+            sb.append(new String(bytes, done, runStart - done, StandardCharsets.ISO_8859_1));
+            String run = input.substring(runStart, runEnd);
+            sb.append(upper ? run.toUpperCase(Locale.ROOT) : run.toLowerCase(Locale.ROOT));
+            done = runEnd;
+            i = nextNonAscii(input, bytes, runEnd, upper);
+        }
+        sb.append(new String(bytes, done, length - done, StandardCharsets.ISO_8859_1));
+        return sb.toString();
+    }
+
+    /** Maps from {@code from} up to the first character that isn't ASCII, and returns its index. */
+    private static int nextNonAscii(String input, byte[] bytes, int from, boolean upper) {
+        int i = KERNEL.map(bytes, from, bytes.length, upper);
+        while (i < bytes.length && input.charAt(i) == '?') {
+            i = KERNEL.map(bytes, i + 1, bytes.length, upper);
+        }
+        return i;
+    }
+
+    private static boolean isBoundary(char c) {
+        return c <= ' ';
+    }
+
+    /**
+     * The default kernel: eight bytes at a time, as long as none of them has its high bit set or is a '?'.  A byte
+     * {@code b} below 0x80 is in {@code first..first + 25} when {@code b + 0x80 - first} has its high bit set and
+     * {@code b + 0x80 - first - 26} hasn't; neither sum carries into the next byte.
+     */
+    static int mapAsciiWords(byte[] bytes, int from, int to, boolean upper) {
+        int first = upper ? 'a' : 'A';
+        long fromFirst = (0x80 - first) * ONES;
+        long pastLast = (0x80 - first - 26) * ONES;
+        int i = from;
+        for (; i <= to - Long.BYTES; i += Long.BYTES) {
+            long word = (long) LONGS.get(bytes, i);
+            // A zero byte in q is a '?'.
+            long q = word ^ QUESTION_MARKS;
+            if (((word | ((q - ONES) & ~q)) & HIGH_BITS) != 0) break;
+            long letters = (word + fromFirst) & ~(word + pastLast) & HIGH_BITS;
+            LONGS.set(bytes, i, word ^ (letters >>> 2));
+        }
+        return mapAscii(bytes, i, to, upper);
+    }
+
+    /** The plain loop, which is the tail of both kernels. */
+    static int mapAscii(byte[] bytes, int from, int to, boolean upper) {
+        int first = upper ? 'a' : 'A';
+        for (int i = from; i < to; i++) {
+            byte b = bytes[i];
+            if (b < 0 || b == '?') return i;
+            // One unsigned compare for first <= b <= first + 25; the two cases differ only in bit 5.
+            if ((char) (b - first) < 26) bytes[i] = (byte) (b ^ 0x20);
+        }
+        return to;
+    }
+
+    /**
+     * Loaded reflectively, because the vector classes only link when the incubator module was added, and are only
+     * there at all in a {@code -Pvector} build.
+     */
+    static Kernel loadKernel() {
+        if (Boolean.getBoolean("ncc.vectorCase")) {
+            try {
+                return (Kernel) Class.forName("ca.quines.namingconverter.VectorCaseKernel")
+                        .getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // Built without -Pvector, or started without --add-modules jdk.incubator.vector.
+            }
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,222 @@
+package ca.quines.namingconverter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * The words that Title Case, All Initial Capitals and camelCase don't simply capitalize: minor words that stay lower
+ * case inside a title, acronyms such as URL that stay in capitals, and forced spellings such as iPhone.
+ * <p>
+ * The words are compiled into a trie keyed on lower case characters, so a word in the text is looked up by walking
+ * its characters in place, without making a {@code String} of it, and a word that matches nothing usually fails on
+ * its first or second character.
+ * <p>
+ * Dictionary files have one entry per line: {@code minor}, {@code acronym} or {@code spelling}, whitespace, and the
+ * word.  Acronyms are written in capitals however they are entered; a forced spelling is kept exactly, even at the
+ * start of a title or in the middle of camelCase.  Blank lines and lines starting with '#' are ignored.  A file adds
+ * to the built-in minor words, and a later entry for the same word replaces an earlier one.  The dictionary in effect
+ * is read from the file named by {@code -Dncc.dictionary}, or else from
+ * ~/.naming-convention-converter/casing.dictionary if it exists.
+ */
+public final class CasingDictionary {
+
+    public enum Kind { MINOR, ACRONYM, SPELLING }
+
+    /** One word and what to do with it. */
+    public record Entry(Kind kind, String word) {
+
+        public Entry {
+            if (kind == null) throw new IllegalArgumentException("An entry needs a kind.");
+            if (word == null || word.isEmpty() || word.chars().anyMatch(c -> c <= ' ')) {
+                throw new IllegalArgumentException("An entry must be one word: '" + word + "'");
+            }
+        }
+
+    }
+
+    // The main words that should remain lower case in Title Case.
+    private static final List<String> MINOR_WORDS = List.of(
+        "a", "an", "and", "as", "at", "but", "by", "for", "in", "nor", "of", "on", "or", "so", "the", "to", "up", "yet"
+    );
+
+    /** The built-in minor words and nothing else, which gives the same results as before there were dictionaries. */
+    public static final CasingDictionary DEFAULT = new CasingDictionary(List.of());
+
+    private static volatile CasingDictionary current = loadDefault();
+
+    // The trie, one entry per state as in AhoCorasick.  State 0 is the root.  Transitions are sorted by character.
+    private final char[][] keys;
+    private final int[][] targets;
+    /** The kind of the word that ends at this state, or null. */
+    private final Kind[] kinds;
+    /** The spelling of an acronym or forced spelling that ends at this state. */
+    private final String[] spellings;
+
+    private final List<Entry> entries;
+    private final boolean hasSpellings;
+
+    /** The built-in minor words plus {@code entries}. */
+    public CasingDictionary(List<Entry> entries) {
+        List<Entry> all = new ArrayList<>();
+        for (String word : MINOR_WORDS) {
+            all.add(new Entry(Kind.MINOR, word));
+        }
+        all.addAll(entries);
+        this.entries = List.copyOf(entries);
+
+        List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+        List<Entry> ends = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        ends.add(null);
+        for (Entry entry : all) {
+            String word = entry.word();
+            int state = 0;
+            for (int i = 0; i < word.length(); i++) {
+                char c = Character.toLowerCase(word.charAt(i));
+                Integer next = trie.get(state).get(c);
+                if (next == null) {
+                    next = trie.size();
+                    trie.add(new TreeMap<>());
+                    ends.add(null);
+                    trie.get(state).put(c, next);
+                }
+                state = next;
+            }
+            ends.set(state, entry);
+        }
+
+        int states = trie.size();
+        keys = new char[states][];
+        targets = new int[states][];
+        kinds = new Kind[states];
+        spellings = new String[states];
+        boolean anySpelling = false;
+        for (int s = 0; s < states; s++) {
+            TreeMap<Character, Integer> edges = trie.get(s);
+            keys[s] = new char[edges.size()];
+            targets[s] = new int[edges.size()];
+            int i = 0;
+            for (var edge : edges.entrySet()) {
+                keys[s][i] = edge.getKey();
+                targets[s][i] = edge.getValue();
+                i++;
+            }
+            Entry end = ends.get(s);
+            if (end != null) {
+                kinds[s] = end.kind();
+                if (end.kind() != Kind.MINOR) {
+                    spellings[s] = end.kind() == Kind.ACRONYM ? CaseMapper.toUpperCase(end.word()) : end.word();
+                    anySpelling = true;
+                }
+            }
+        }
+        hasSpellings = anySpelling;
+    }
+
+    /** The dictionary the operations use. */
+    public static CasingDictionary current() {
+        return current;
+    }
+
+    public static void setCurrent(CasingDictionary dictionary) {
+        current = dictionary == null ? DEFAULT : dictionary;
+    }
+
+    /** Reads a dictionary file. */
+    public static CasingDictionary load(Path file) throws IOException {
+        return parse(Files.readAllLines(file, StandardCharsets.UTF_8));
+    }
+
+    /** Parses the lines of a dictionary file. */
+    public static CasingDictionary parse(List<String> lines) {
+        List<Entry> entries = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            String[] fields = line.split("\\s+");
+            Kind kind = fields.length == 2 ? kindNamed(fields[0]) : null;
+            if (kind == null) {
+                throw new IllegalArgumentException("Line " + (i + 1)
+                        + ": expected minor, acronym or spelling followed by one word: " + line);
+            }
+            entries.add(new Entry(kind, fields[1]));
+        }
+        return new CasingDictionary(entries);
+    }
+
+    private static Kind kindNamed(String name) {
+        return Arrays.stream(Kind.values()).filter(k -> k.name().equalsIgnoreCase(name)).findFirst().orElse(null);
+    }
+
+    /** Where the file in {@code -Dncc.dictionary} or the default file is, or null if there is none. */
+    static Path defaultFile() {
+        String property = System.getProperty("ncc.dictionary");
+        if (property != null) return Path.of(property);
+        Path file = Path.of(System.getProperty("user.home"), ".naming-convention-converter", "casing.dictionary");
+        return Files.isRegularFile(file) ? file : null;
+    }
+
+    private static CasingDictionary loadDefault() {
+        Path file = defaultFile();
+        if (file == null) return DEFAULT;
+        try {
+            return load(file);
+        } catch (IOException | IllegalArgumentException e) {
+            // Casing still works without it, so this mustn't stop the converter from starting.
+            System.err.println("Ignoring the casing dictionary " + file + ": " + e.getMessage());
+            return DEFAULT;
+        }
+    }
+
+    /** The entries added to the built-in minor words. */
+    public List<Entry> entries() {
+        return entries;
+    }
+
+    /** Whether any word has a spelling of its own, i.e. there are acronyms or forced spellings. */
+    boolean hasSpellings() {
+        return hasSpellings;
+    }
+
+    /**
+     * Looks up the word {@code text[from, to)}, ignoring case.
+     *
+     * @return a match for {@link #kind(int)} and {@link #spelling(int)}, or -1 if the word isn't in the dictionary
+     */
+    int find(CharSequence text, int from, int to) {
+        int state = 0;
+        for (int i = from; i < to && state >= 0; i++) {
+            state = step(state, Character.toLowerCase(text.charAt(i)));
+        }
+        return state > 0 && kinds[state] != null ? state : -1;
+    }
+
+    Kind kind(int match) {
+        return kinds[match];
+    }
+
+    /** The spelling of an acronym or forced spelling, or null for a minor word. */
+    String spelling(int match) {
+        return spellings[match];
+    }
+
+    private int step(int state, char c) {
+        char[] k = keys[state];
+        int i = k.length < 8 ? linearSearch(k, c) : Arrays.binarySearch(k, c);
+        return i < 0 ? -1 : targets[state][i];
+    }
+
+    private static int linearSearch(char[] k, char c) {
+        for (int i = 0; i < k.length; i++) {
+            if (k[i] == c) return i;
+        }
+        return -1;
+    }
+
+}
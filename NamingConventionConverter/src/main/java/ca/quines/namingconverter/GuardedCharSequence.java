@@ -0,0 +1,72 @@
+package ca.quines.namingconverter;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Wraps the text a regex runs against and stops the match when a deadline passes or the thread is interrupted.
+ * <p>
+ * {@link java.util.regex.Matcher} reads its input through {@link #charAt(int)}, including while it backtracks, so
+ * checking there catches runaway patterns such as {@code (a+)+b} that would otherwise never return.  The clock is only
+ * read every few thousand characters to keep the overhead small.
+ */
+public final class GuardedCharSequence implements CharSequence {
+
+    private static final int CHECK_INTERVAL = 4096;
+
+    private final CharSequence text;
+    private final long deadlineNanos;
+    private final long timeoutMillis;
+    private int untilCheck = CHECK_INTERVAL;
+
+    public GuardedCharSequence(CharSequence text, long timeoutMillis) {
+        this(text, System.nanoTime() + timeoutMillis * 1_000_000, timeoutMillis);
+    }
+
+    private GuardedCharSequence(CharSequence text, long deadlineNanos, long timeoutMillis) {
+        this.text = text;
+        this.deadlineNanos = deadlineNanos;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (--untilCheck == 0) {
+            untilCheck = CHECK_INTERVAL;
+            if (Thread.currentThread().isInterrupted()) {
+                throw new CancellationException("Regex cancelled");
+            }
+            if (System.nanoTime() - deadlineNanos > 0) {
+                throw new RegexTimeoutException("The regex was stopped after " + timeoutMillis
+                        + " ms.  It probably backtracks too much; try making it more specific.");
+            }
+        }
+        return text.charAt(index);
+    }
+
+    @Override
+    public int length() {
+        return text.length();
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return new GuardedCharSequence(text.subSequence(start, end), deadlineNanos, timeoutMillis);
+    }
+
+    @Override
+    public String toString() {
+        return text.toString();
+    }
+
+    /** Thrown when a regex runs past its deadline. */
+    public static class RegexTimeoutException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        public RegexTimeoutException(String message) {
+            super(message);
+        }
+
+    }
+
+}
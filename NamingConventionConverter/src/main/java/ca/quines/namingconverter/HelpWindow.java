@@ -0,0 +1,61 @@
+package ca.quines.namingconverter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+import org.eclipse.swt.*;
+import org.eclipse.swt.browser.Browser;
+import org.eclipse.swt.layout.*;
+import org.eclipse.swt.widgets.*;
+
+/**
+ * The documentation window.  A class of its own, with the page in help.html, so that the SWT Browser, which is slow
+ * to load on GTK, stays off the startup path until Help is clicked.
+ */
+final class HelpWindow {
+
+    private Shell helpShell;
+
+    /** Opens the window, or brings it to the front if it is already open. */
+    void open(Display display) {
+        if (helpShell != null && !helpShell.isDisposed()) {
+            helpShell.setActive();
+            return;
+        }
+        helpShell = new Shell(display, SWT.SHELL_TRIM);
+        helpShell.setText("Documentation");
+        helpShell.setLayout(new FillLayout());
+        helpShell.setSize(800, 400);
+
+        String html = loadHtml();
+        try {
+            Browser browser = new Browser(helpShell, SWT.NONE);
+            browser.setText(html);
+        } catch (SWTError e) {
+            Text fallback = new Text(helpShell, SWT.MULTI | SWT.WRAP | SWT.V_SCROLL);
+            fallback.setText(toPlainText(html));
+            fallback.setEditable(false);
+        }
+        helpShell.open();
+    }
+
+    static String loadHtml() {
+        try (InputStream in = HelpWindow.class.getResourceAsStream("help.html")) {
+            if (in == null) throw new IOException("help.html is missing from the jar.");
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** The page without its markup, for when there is no browser. */
+    static String toPlainText(String html) {
+        return html.replaceAll("<(h\\d|p|li)[^>]*>", "\n")
+                .replaceAll("<[^>]+>", "")
+                .replaceAll("[ \\t]*\\n\\s*", "\n")
+                .strip();
+    }
+
+}
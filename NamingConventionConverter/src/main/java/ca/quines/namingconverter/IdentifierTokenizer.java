@@ -0,0 +1,81 @@
+package ca.quines.namingconverter;
+
+import java.util.Arrays;
+
+/**
+ * Splits an identifier in any naming convention into its words, in one scan.
+ * <p>
+ * The words come back as a flat array of offsets, {@code [start0, end0, start1, end1, ...]}, into the original text, so
+ * nothing is copied until a {@link NamingConvention} renders them.  A word ends at:
+ * <ul>
+ * <li>any character that isn't a letter or digit, such as a space, '_', '-' or '.', which is dropped;</li>
+ * <li>a lowercase letter or digit followed by an uppercase letter: {@code customerId}, {@code utf8Encoding};</li>
+ * <li>the last capital of an acronym that is followed by a capitalized word: {@code HTTPServer} is HTTP and Server.</li>
+ * </ul>
+ * Digits stay with the word before them, so {@code addressLine2} and {@code ADDRESS_LINE2} are address and line2.
+ */
+public final class IdentifierTokenizer {
+
+    private static final int[] NO_WORDS = {};
+
+    private IdentifierTokenizer() {
+    }
+
+    /** The word boundaries of the whole of {@code input}. */
+    public static int[] tokenize(CharSequence input) {
+        return tokenize(input, 0, input.length());
+    }
+
+    /** The word boundaries of {@code input} between {@code from} and {@code to}; the offsets are into {@code input}. */
+    public static int[] tokenize(CharSequence input, int from, int to) {
+        int[] bounds = NO_WORDS;
+        int count = 0;
+        int wordStart = -1;
+        for (int i = from; i < to; i++) {
+            char c = input.charAt(i);
+            if (!Character.isLetterOrDigit(c)) {
+                if (wordStart >= 0) {
+                    bounds = add(bounds, count, wordStart, i);
+                    count += 2;
+                    wordStart = -1;
+                }
+                continue;
+            }
+            if (wordStart < 0) {
+                wordStart = i;
+            } else if (Character.isUpperCase(c) && startsWord(input, i, to)) {
+                bounds = add(bounds, count, wordStart, i);
+                count += 2;
+                wordStart = i;
+            }
+        }
+        if (wordStart >= 0) {
+            bounds = add(bounds, count, wordStart, to);
+            count += 2;
+        }
+        return count == bounds.length ? bounds : Arrays.copyOf(bounds, count);
+    }
+
+    /** The number of words in a boundary array. */
+    public static int wordCount(int[] bounds) {
+        return bounds.length / 2;
+    }
+
+    /** Whether the uppercase letter at {@code i}, which isn't the first of its word, starts a new word. */
+    private static boolean startsWord(CharSequence input, int i, int to) {
+        char previous = input.charAt(i - 1);
+        if (Character.isLowerCase(previous) || Character.isDigit(previous)) return true;
+        // Within a run of capitals only the last one, followed by lowercase, starts a word: HTTP|Server.
+        return Character.isUpperCase(previous) && i + 1 < to && Character.isLowerCase(input.charAt(i + 1));
+    }
+
+    private static int[] add(int[] bounds, int count, int start, int end) {
+        if (count == bounds.length) {
+            bounds = Arrays.copyOf(bounds, Math.max(8, count * 2));
+        }
+        bounds[count] = start;
+        bounds[count + 1] = end;
+        return bounds;
+    }
+
+}
@@ -0,0 +1,223 @@
+package ca.quines.namingconverter;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Writes the SQL lists behind "In Clause for Integers" and friends straight to an {@link Appendable}, one value at a
+ * time, so that millions of pasted IDs never become a {@code String[]}.
+ * <p>
+ * Values are trimmed, blank ones are skipped, and repeats are dropped: whole numbers are deduplicated in a
+ * {@link LongHashSet} and everything else in a set of strings.  Numbers are checked as they arrive, and quotes inside
+ * string values are doubled.
+ * <p>
+ * Databases limit the size of a list, e.g. Oracle allows 1000 expressions.  With a limit, the values are split into
+ * groups of at most that many, written either as {@code (ID IN (...) OR ID IN (...))} or as one statement per group,
+ * {@code DELETE FROM T WHERE ID IN (...);}.
+ */
+public final class InClauseBuilder {
+
+    /** Oracle's limit on the number of expressions in a list. */
+    public static final int ORACLE_LIMIT = 1000;
+
+    /** What kind of values the lines hold. */
+    public enum Values {
+        /** Whole numbers, written as numbers. */
+        NUMBERS,
+        /** Anything, written in single quotes. */
+        STRINGS,
+        /** Anything, written as is. */
+        TEXT
+    }
+
+    /** How the values are written out. */
+    public enum Layout {
+        /** Just the values: {@code 1, 2, 3}.  The limit doesn't apply. */
+        LIST,
+        /** {@code IN (1, 2, 3)}, preceded by the column if there is one; groups are joined with OR. */
+        IN,
+        /** One {@code <prefix> IN (...);} statement per group, e.g. with the prefix {@code DELETE FROM T WHERE ID}. */
+        STATEMENTS
+    }
+
+    private final Appendable out;
+    private final Values values;
+    private final Layout layout;
+    private final String prefix;
+    private final int limit;
+
+    private final LongHashSet numbers;
+    private final Set<String> strings;
+
+    private int written;
+    private int inGroup;
+    private int duplicates;
+    private int lineNumber;
+
+    /** A plain {@code IN (...)}, or a plain list, with no limit. */
+    public InClauseBuilder(Appendable out, Values values, Layout layout) {
+        this(out, values, layout, "", 0);
+    }
+
+    /**
+     * @param prefix the column, or for {@link Layout#STATEMENTS} the statement up to the IN; needed to split the values
+     * @param limit the most values per group, or 0 for no limit
+     */
+    public InClauseBuilder(Appendable out, Values values, Layout layout, String prefix, int limit) {
+        if (limit < 0) throw new IllegalArgumentException("The limit can't be negative: " + limit);
+        if (limit > 0 && layout == Layout.LIST) {
+            throw new IllegalArgumentException("A plain list isn't split into groups; the limit is for IN clauses.");
+        }
+        String trimmedPrefix = prefix == null ? "" : prefix.trim();
+        if (trimmedPrefix.isEmpty() && (layout == Layout.STATEMENTS || (layout == Layout.IN && limit > 0))) {
+            throw new IllegalArgumentException(layout == Layout.STATEMENTS
+                    ? "Statements need the text that goes before IN, e.g. DELETE FROM ORDERS WHERE ORDER_ID"
+                    : "A column name is needed to split an IN clause into groups joined with OR.");
+        }
+        this.out = out;
+        this.values = values;
+        this.layout = layout;
+        this.prefix = trimmedPrefix;
+        this.limit = limit;
+        this.numbers = values == Values.NUMBERS ? new LongHashSet(1024) : null;
+        this.strings = values == Values.NUMBERS ? null : new HashSet<>();
+    }
+
+    /** Adds every line of {@code text}, splitting lines the way the regex {@code \R} does. */
+    public InClauseBuilder addLines(CharSequence text) throws IOException {
+        int length = text.length();
+        int lineStart = 0;
+        for (int i = 0; i <= length; i++) {
+            char c = i < length ? text.charAt(i) : '\n';
+            if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+                Cancellation.check();
+                add(text, lineStart, i);
+                if (c == '\r' && i + 1 < length && text.charAt(i + 1) == '\n') i++;
+                lineStart = i + 1;
+            }
+        }
+        return this;
+    }
+
+    /** Adds one value. */
+    public InClauseBuilder add(CharSequence value) throws IOException {
+        return add(value, 0, value.length());
+    }
+
+    /** Adds the value between {@code from} and {@code to}; surrounding whitespace is ignored. */
+    public InClauseBuilder add(CharSequence text, int from, int to) throws IOException {
+        lineNumber++;
+        while (from < to && text.charAt(from) <= ' ') from++;
+        while (to > from && text.charAt(to - 1) <= ' ') to--;
+        if (from == to) return this;
+
+        if (values == Values.NUMBERS) {
+            long number = parseNumber(text, from, to);
+            if (!numbers.add(number)) {
+                duplicates++;
+                return this;
+            }
+            separate();
+            out.append(Long.toString(number));
+        } else {
+            String value = text.subSequence(from, to).toString();
+            if (!strings.add(value)) {
+                duplicates++;
+                return this;
+            }
+            separate();
+            if (values == Values.STRINGS) {
+                out.append('\'');
+                appendEscaped(value);
+                out.append('\'');
+            } else {
+                out.append(value);
+            }
+        }
+        written++;
+        inGroup++;
+        return this;
+    }
+
+    /** Closes the last group.  Nothing may be added afterwards. */
+    public void finish() throws IOException {
+        if (written == 0) {
+            // Keeps "IN ()" for empty input, like the list always did.
+            if (layout == Layout.IN && limit == 0) {
+                openGroup();
+                out.append(')');
+            }
+            return;
+        }
+        if (layout != Layout.LIST) out.append(')');
+        if (layout == Layout.STATEMENTS) out.append(';');
+        if (layout == Layout.IN && limit > 0) out.append(')');
+    }
+
+    /** The number of distinct values written. */
+    public int count() {
+        return written;
+    }
+
+    /** The number of values dropped because they were repeats. */
+    public int duplicates() {
+        return duplicates;
+    }
+
+    /** Writes what goes before a value: the start of the first group, a comma, or the end of a full group. */
+    private void separate() throws IOException {
+        if (written == 0) {
+            if (layout == Layout.IN && limit > 0) out.append('(');
+            openGroup();
+        } else if (limit > 0 && inGroup == limit) {
+            out.append(')');
+            out.append(layout == Layout.STATEMENTS ? ";\n" : " OR ");
+            openGroup();
+        } else {
+            out.append(", ");
+        }
+    }
+
+    private void openGroup() throws IOException {
+        inGroup = 0;
+        if (layout == Layout.LIST) return;
+        if (!prefix.isEmpty()) out.append(prefix).append(' ');
+        out.append("IN (");
+    }
+
+    private long parseNumber(CharSequence text, int from, int to) {
+        int i = from;
+        boolean negative = text.charAt(i) == '-';
+        if (negative || text.charAt(i) == '+') i++;
+        if (i == to) throw notANumber(text, from, to);
+        long value = 0;
+        for (; i < to; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) throw notANumber(text, from, to);
+            // Accumulates negatively so that Long.MIN_VALUE fits.
+            if (value < (Long.MIN_VALUE + digit) / 10) throw notANumber(text, from, to);
+            value = value * 10 - digit;
+        }
+        if (!negative) {
+            if (value == Long.MIN_VALUE) throw notANumber(text, from, to);
+            value = -value;
+        }
+        return value;
+    }
+
+    private IllegalArgumentException notANumber(CharSequence text, int from, int to) {
+        return new IllegalArgumentException("Line " + lineNumber + " is not a whole number: " + text.subSequence(from, to));
+    }
+
+    private void appendEscaped(String value) throws IOException {
+        int start = 0;
+        int quote;
+        while ((quote = value.indexOf('\'', start)) >= 0) {
+            out.append(value, start, quote + 1).append('\'');
+            start = quote + 1;
+        }
+        out.append(value, start, value.length());
+    }
+
+}
@@ -0,0 +1,547 @@
+package ca.quines.namingconverter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The SQL tab's Java buttons: the SQL inside the string literals of Java code, and Java code that builds a piece of
+ * SQL, either as a concatenation or as {@code StringBuilder} appends.
+ * <p>
+ * Java to SQL lexes the code properly, so escapes, Unicode escapes, char literals and text blocks all come out as the
+ * compiler would see them, and comments are skipped.  In each statement it follows the {@code +} chain holding the
+ * first literal, or every {@code append(...)} in an append chain.  An operand that isn't a literal is a bind variable,
+ * {@code :name} for a plain variable or field and {@code ?} for anything else; in {@code sql = sql + "..."} and
+ * {@code sql += "..."} the variable being built is left out.  Where the code breaks a line between two fragments and
+ * the SQL has a space there, the space becomes a line break, so the SQL keeps the layout of the code.
+ * <p>
+ * SQL to Java goes the other way: one fragment per line of SQL, and each {@code :name} outside strings and comments
+ * becomes the variable {@code name}.  Both directions are a single pass, linear in the size of the text.
+ */
+public final class JavaSqlConverter {
+
+    /** What an appended variable is guessed to add when sizing the builder. */
+    static final int VARIABLE_LENGTH_ESTIMATE = 16;
+
+    private static final String CONTINUATION_INDENT = "        ";
+
+    private JavaSqlConverter() {
+    }
+
+    // ---------------------------------------------------------------- Java to SQL
+
+    private enum Kind { LITERAL, NUMBER, WORD, OPEN, CLOSE, COMMA, END, PLUS, ASSIGN, DOT, OTHER }
+
+    /** {@code text} is the value of a literal, or the identifier or number itself. */
+    private record Token(Kind kind, int start, int end, String text) {}
+
+    /** "Convert from Java to SQL" */
+    public static String javaToSql(String input) {
+        if (input == null) return "";
+        List<Token> tokens = lexJava(input);
+        int[] matches = matchParentheses(tokens);
+        SqlWriter writer = new SqlWriter(input);
+        int start = 0;
+        for (int i = 0; i <= tokens.size(); i++) {
+            if (i == tokens.size() || tokens.get(i).kind() == Kind.END) {
+                Cancellation.check();
+                statement(tokens, matches, start, i, writer);
+                start = i + 1;
+            }
+        }
+        return writer.sb.toString();
+    }
+
+    /** Appends the SQL in the statement {@code tokens[from, to)}. */
+    private static void statement(List<Token> tokens, int[] matches, int from, int to, SqlWriter writer) {
+        int firstLiteral = -1;
+        for (int i = from; i < to && firstLiteral < 0; i++) {
+            if (tokens.get(i).kind() == Kind.LITERAL) firstLiteral = i;
+        }
+        if (firstLiteral < 0) return;
+
+        // An append chain: every argument counts, e.g. sql.append("WHERE ID = ").append(id);
+        boolean appends = false;
+        for (int i = from; i < to; i++) {
+            Token token = tokens.get(i);
+            if (token.kind() != Kind.WORD || i + 1 >= to || tokens.get(i + 1).kind() != Kind.OPEN) continue;
+            int close = matches[i + 1];
+            boolean append = token.text().equals("append") && i > from && tokens.get(i - 1).kind() == Kind.DOT;
+            boolean constructor = (token.text().equals("StringBuilder") || token.text().equals("StringBuffer"))
+                    && i > from && tokens.get(i - 1).text().equals("new") && hasLiteral(tokens, i + 2, close);
+            if ((append || constructor) && close > 0) {
+                expression(tokens, matches, i + 2, close, null, writer);
+                appends = true;
+                i = close;
+            }
+        }
+        if (appends) return;
+
+        // Otherwise the expression around the first literal: an assignment, a return, or an argument.
+        int start = firstLiteral;
+        int depth = 0;
+        String target = null;
+        while (start > from) {
+            Token token = tokens.get(start - 1);
+            if (token.kind() == Kind.CLOSE) {
+                depth++;
+            } else if (token.kind() == Kind.OPEN) {
+                if (depth == 0) break;
+                depth--;
+            } else if (depth == 0 && (token.kind() == Kind.COMMA || token.kind() == Kind.ASSIGN
+                    || token.kind() == Kind.WORD && token.text().equals("return"))) {
+                if (token.kind() == Kind.ASSIGN && start - 2 >= from && tokens.get(start - 2).kind() == Kind.WORD) {
+                    target = tokens.get(start - 2).text();
+                }
+                break;
+            }
+            start--;
+        }
+        int end = firstLiteral + 1;
+        depth = 0;
+        while (end < to) {
+            Kind kind = tokens.get(end).kind();
+            if (kind == Kind.OPEN) {
+                depth++;
+            } else if (kind == Kind.CLOSE) {
+                if (depth == 0) break;
+                depth--;
+            } else if (depth == 0 && kind == Kind.COMMA) {
+                break;
+            }
+            end++;
+        }
+        expression(tokens, matches, start, end, target, writer);
+    }
+
+    /** Appends the operands of the {@code +} chain {@code tokens[from, to)}, leaving out the variable {@code skip}. */
+    private static void expression(List<Token> tokens, int[] matches, int from, int to, String skip,
+            SqlWriter writer) {
+        int operand = from;
+        for (int i = from; i <= to; i++) {
+            if (i < to && tokens.get(i).kind() == Kind.OPEN && matches[i] > 0) {
+                i = matches[i];
+            } else if (i == to || tokens.get(i).kind() == Kind.PLUS) {
+                operand(tokens, matches, operand, i, skip, writer);
+                operand = i + 1;
+            }
+        }
+    }
+
+    private static void operand(List<Token> tokens, int[] matches, int from, int to, String skip, SqlWriter writer) {
+        if (from >= to) return;
+        Token first = tokens.get(from);
+        if (to - from == 1 && (first.kind() == Kind.LITERAL || first.kind() == Kind.NUMBER)) {
+            writer.text(first.text(), first.start(), first.end());
+        } else if (first.kind() == Kind.OPEN && matches[from] == to - 1) {
+            expression(tokens, matches, from + 1, to - 1, skip, writer);
+        } else if (to - from == 1 && first.kind() == Kind.WORD && first.text().equals(skip)) {
+            // The accumulated SQL itself: sql = sql + "...".
+        } else {
+            // A variable or field, possibly qualified, is named; anything more complicated is just a parameter.
+            boolean name = true;
+            for (int i = from; i < to && name; i++) {
+                name = tokens.get(i).kind() == ((i - from) % 2 == 0 ? Kind.WORD : Kind.DOT);
+            }
+            name &= tokens.get(to - 1).kind() == Kind.WORD;
+            writer.text(name ? ":" + tokens.get(to - 1).text() : "?", first.start(), tokens.get(to - 1).end());
+        }
+    }
+
+    private static boolean hasLiteral(List<Token> tokens, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (tokens.get(i).kind() == Kind.LITERAL) return true;
+        }
+        return false;
+    }
+
+    /** For each '(', the index of its ')', or -1 if it isn't closed. */
+    private static int[] matchParentheses(List<Token> tokens) {
+        int[] matches = new int[tokens.size()];
+        int[] stack = new int[16];
+        int depth = 0;
+        for (int i = 0; i < tokens.size(); i++) {
+            matches[i] = -1;
+            Kind kind = tokens.get(i).kind();
+            if (kind == Kind.OPEN) {
+                if (depth == stack.length) stack = Arrays.copyOf(stack, depth * 2);
+                stack[depth++] = i;
+            } else if (kind == Kind.CLOSE && depth > 0) {
+                matches[stack[--depth]] = i;
+            } else if (kind == Kind.END) {
+                depth = 0;
+            }
+        }
+        return matches;
+    }
+
+    /** The SQL so far, with a line break wherever the code broke a line at a space in the SQL. */
+    private static final class SqlWriter {
+
+        final StringBuilder sb = new StringBuilder();
+        private final String source;
+        private int lastEnd = -1;
+
+        SqlWriter(String source) {
+            this.source = source;
+        }
+
+        void text(String text, int start, int end) {
+            boolean lineBreak = false;
+            for (int i = Math.max(lastEnd, 0); i < start && lastEnd >= 0 && !lineBreak; i++) {
+                lineBreak = source.charAt(i) == '\n';
+            }
+            if (lineBreak) {
+                int trimmed = sb.length();
+                while (trimmed > 0 && (sb.charAt(trimmed - 1) == ' ' || sb.charAt(trimmed - 1) == '\t')) trimmed--;
+                if (trimmed < sb.length() && trimmed > 0 && sb.charAt(trimmed - 1) != '\n') {
+                    sb.setLength(trimmed);
+                    sb.append('\n');
+                }
+            }
+            sb.append(text);
+            lastEnd = end;
+        }
+
+    }
+
+    private static List<Token> lexJava(String in) {
+        List<Token> tokens = new ArrayList<>();
+        int length = in.length();
+        int i = 0;
+        while (i < length) {
+            Cancellation.check();
+            char c = in.charAt(i);
+            int start = i;
+            if (c <= ' ') {
+                i++;
+            } else if (c == '/' && i + 1 < length && in.charAt(i + 1) == '/') {
+                while (i < length && in.charAt(i) != '\n' && in.charAt(i) != '\r') i++;
+            } else if (c == '/' && i + 1 < length && in.charAt(i + 1) == '*') {
+                int close = in.indexOf("*/", i + 2);
+                i = close < 0 ? length : close + 2;
+            } else if (in.startsWith("\"\"\"", i)) {
+                int close = textBlockEnd(in, i + 3);
+                tokens.add(new Token(Kind.LITERAL, start, Math.min(close + 3, length), textBlock(in, i + 3, close)));
+                i = Math.min(close + 3, length);
+            } else if (c == '"' || c == '\'') {
+                int close = quoteEnd(in, i + 1, c);
+                StringBuilder value = new StringBuilder(close - i);
+                unescape(in, i + 1, close, value);
+                i = Math.min(close + 1, length);
+                tokens.add(new Token(Kind.LITERAL, start, i, value.toString()));
+            } else if (c >= '0' && c <= '9') {
+                while (i < length && (Character.isJavaIdentifierPart(in.charAt(i)) || in.charAt(i) == '.')) i++;
+                String number = in.substring(start, i);
+                // Only a plain int reads the same in SQL; 1.5f or 0x1F are just values.
+                boolean plain = number.chars().allMatch(d -> d >= '0' && d <= '9');
+                tokens.add(new Token(plain ? Kind.NUMBER : Kind.WORD, start, i, number));
+            } else if (Character.isJavaIdentifierStart(c)) {
+                while (i < length && Character.isJavaIdentifierPart(in.charAt(i))) i++;
+                tokens.add(new Token(Kind.WORD, start, i, in.substring(start, i)));
+            } else {
+                char next = i + 1 < length ? in.charAt(i + 1) : 0;
+                Kind kind;
+                int width = 1;
+                switch (c) {
+                    case '(': kind = Kind.OPEN; break;
+                    case ')': kind = Kind.CLOSE; break;
+                    case ',': kind = Kind.COMMA; break;
+                    case ';': case '{': case '}': kind = Kind.END; break;
+                    case '.': kind = Kind.DOT; break;
+                    case '+':
+                        kind = next == '=' ? Kind.ASSIGN : next == '+' ? Kind.OTHER : Kind.PLUS;
+                        if (next == '=' || next == '+') width = 2;
+                        break;
+                    case '=':
+                        kind = next == '=' ? Kind.OTHER : Kind.ASSIGN;
+                        if (next == '=') width = 2;
+                        break;
+                    default:
+                        kind = Kind.OTHER;
+                        // <=, >=, != and the like must not leave an '=' behind to look like an assignment.
+                        if (next == '=') width = 2;
+                        break;
+                }
+                i += width;
+                tokens.add(new Token(kind, start, i, in.substring(start, i)));
+            }
+        }
+        return tokens;
+    }
+
+    /** The index of the closing quote, or the end of the line if it is missing. */
+    private static int quoteEnd(String in, int i, char quote) {
+        while (i < in.length()) {
+            char c = in.charAt(i);
+            if (c == '\\') {
+                i += 2;
+            } else if (c == quote || c == '\n' || c == '\r') {
+                return Math.min(i, in.length());
+            } else {
+                i++;
+            }
+        }
+        return in.length();
+    }
+
+    /** The index of the closing """. */
+    private static int textBlockEnd(String in, int i) {
+        while (i < in.length()) {
+            if (in.charAt(i) == '\\') {
+                i += 2;
+            } else if (in.startsWith("\"\"\"", i)) {
+                return i;
+            } else {
+                i++;
+            }
+        }
+        return in.length();
+    }
+
+    /** A text block's value: the content after the opening line, without incidental indentation, unescaped. */
+    private static String textBlock(String in, int from, int to) {
+        int contentStart = in.indexOf('\n', from);
+        if (contentStart < 0 || contentStart >= to) return "";
+        String raw = in.substring(contentStart + 1, to).replace("\r\n", "\n").replace('\r', '\n');
+        String stripped = raw.stripIndent();
+        StringBuilder value = new StringBuilder(stripped.length());
+        unescape(stripped, 0, stripped.length(), value);
+        return value.toString();
+    }
+
+    /** Appends {@code in[from, to)} with its escapes, including Unicode escapes and octal, turned into characters. */
+    static void unescape(String in, int from, int to, StringBuilder out) {
+        to = Math.min(to, in.length());
+        int i = from;
+        while (i < to) {
+            char c = in.charAt(i++);
+            if (c != '\\' || i == to) {
+                out.append(c);
+                continue;
+            }
+            char e = in.charAt(i++);
+            switch (e) {
+                case 'n': out.append('\n'); break;
+                case 't': out.append('\t'); break;
+                case 'r': out.append('\r'); break;
+                case 'b': out.append('\b'); break;
+                case 'f': out.append('\f'); break;
+                case 's': out.append(' '); break;
+                // A line continuation in a text block.
+                case '\n': break;
+                case 'u':
+                    while (i < to && in.charAt(i) == 'u') i++;
+                    if (i + 4 <= to) {
+                        try {
+                            out.append((char) Integer.parseInt(in.substring(i, i + 4), 16));
+                            i += 4;
+                            break;
+                        } catch (NumberFormatException ex) {
+                            // Not valid Java; keep it as it was.
+                        }
+                    }
+                    out.append("\\u");
+                    break;
+                default:
+                    if (e >= '0' && e <= '7') {
+                        int value = e - '0';
+                        int max = e <= '3' ? 2 : 1;
+                        for (int n = 0; n < max && i < to && in.charAt(i) >= '0' && in.charAt(i) <= '7'; n++) {
+                            value = value * 8 + in.charAt(i++) - '0';
+                        }
+                        out.append((char) value);
+                    } else {
+                        // \" \' \\
+                        out.append(e);
+                    }
+                    break;
+            }
+        }
+    }
+
+    // ---------------------------------------------------------------- SQL to Java
+
+    /** A line of SQL: text and variables, alternating, starting with text (which may be empty). */
+    private record Line(List<String> parts) {}
+
+    /** "Convert from SQL to Java String Concatenation" */
+    public static String sqlToConcatenation(String input) {
+        if (input == null) return "";
+        List<Line> lines = splitSql(input);
+        if (lines.isEmpty()) return "";
+        StringBuilder sb = new StringBuilder(input.length() + input.length() / 2 + 32);
+        sb.append("String sql = ");
+        for (int l = 0; l < lines.size(); l++) {
+            if (l > 0) sb.append('\n').append(CONTINUATION_INDENT).append("+ ");
+            List<String> parts = lines.get(l).parts();
+            boolean first = true;
+            for (int p = 0; p < parts.size(); p++) {
+                String part = parts.get(p);
+                if (p % 2 == 0 && part.isEmpty()) continue;
+                if (!first) sb.append(" + ");
+                if (p % 2 == 0) {
+                    appendJavaString(part, sb);
+                } else {
+                    // A variable first would be added to the next one as a number.
+                    if (first && l == 0) sb.append("\"\" + ");
+                    sb.append(part);
+                }
+                first = false;
+            }
+        }
+        return sb.append(';').toString();
+    }
+
+    /** "Convert from SQL to String Buffer Appends", done with a {@code StringBuilder} sized for the result. */
+    public static String sqlToAppends(String input) {
+        if (input == null) return "";
+        List<Line> lines = splitSql(input);
+        if (lines.isEmpty()) return "";
+        long capacity = 0;
+        for (Line line : lines) {
+            List<String> parts = line.parts();
+            for (int p = 0; p < parts.size(); p++) {
+                capacity += p % 2 == 0 ? parts.get(p).length() : VARIABLE_LENGTH_ESTIMATE;
+            }
+        }
+        StringBuilder sb = new StringBuilder(input.length() * 2 + 64);
+        sb.append("StringBuilder sql = new StringBuilder(").append(Math.min(capacity, Integer.MAX_VALUE - 8))
+          .append(");");
+        for (Line line : lines) {
+            sb.append("\nsql");
+            List<String> parts = line.parts();
+            for (int p = 0; p < parts.size(); p++) {
+                String part = parts.get(p);
+                if (p % 2 == 0 && part.isEmpty()) continue;
+                sb.append(".append(");
+                if (p % 2 == 0) {
+                    appendJavaString(part, sb);
+                } else {
+                    sb.append(part);
+                }
+                sb.append(')');
+            }
+            sb.append(';');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * The SQL as lines of text and {@code :name} variables.  A line ends in a space so the fragments still join into
+     * valid SQL, except inside a string literal that spans lines, and after a {@code --} comment, which would
+     * otherwise run on over the lines after it; there the line break is kept.  Blank lines are left out, and adjacent
+     * text is always one fragment.
+     */
+    private static List<Line> splitSql(String input) {
+        List<Line> lines = new ArrayList<>();
+        List<String> parts = new ArrayList<>();
+        StringBuilder text = new StringBuilder();
+        char quote = 0;
+        boolean blockComment = false;
+        boolean lineComment = false;
+        int length = input.length();
+        for (int i = 0; i < length; i++) {
+            Cancellation.check(i);
+            char c = input.charAt(i);
+            char next = i + 1 < length ? input.charAt(i + 1) : 0;
+            if (c == '\r' && next == '\n') continue;
+            if (c == '\n' || c == '\r') {
+                boolean comment = lineComment;
+                lineComment = false;
+                if (quote != 0 || blockComment) {
+                    // Inside a string, the line break is part of the value.
+                    text.append('\n');
+                    continue;
+                }
+                finishLine(lines, parts, text, comment);
+                continue;
+            }
+            if (quote != 0) {
+                if (c == quote) quote = 0;
+            } else if (blockComment) {
+                if (c == '*' && next == '/') {
+                    blockComment = false;
+                    text.append(c);
+                    c = next;
+                    i++;
+                }
+            } else if (lineComment) {
+                // Copied as it is.
+            } else if (c == '\'' || c == '"' || c == '`') {
+                quote = c;
+            } else if (c == '-' && next == '-') {
+                lineComment = true;
+            } else if (c == '/' && next == '*') {
+                blockComment = true;
+            } else if (c == ':' && Character.isJavaIdentifierStart(next)
+                    && (i == 0 || input.charAt(i - 1) != ':' && !Character.isJavaIdentifierPart(input.charAt(i - 1)))) {
+                int end = i + 2;
+                while (end < length && Character.isJavaIdentifierPart(input.charAt(end))) end++;
+                parts.add(text.toString());
+                parts.add(input.substring(i + 1, end));
+                text.setLength(0);
+                i = end - 1;
+                continue;
+            }
+            text.append(c);
+        }
+        finishLine(lines, parts, text, false);
+
+        // Every line but the last ends in a space or a line break.
+        for (int l = 0; l < lines.size() - 1; l++) {
+            List<String> last = lines.get(l).parts();
+            int p = last.size() - 1;
+            if (p % 2 == 1) {
+                last.add(" ");
+            } else if (!last.get(p).endsWith("\n")) {
+                last.set(p, last.get(p) + " ");
+            }
+        }
+        return lines;
+    }
+
+    private static void finishLine(List<Line> lines, List<String> parts, StringBuilder text, boolean comment) {
+        int end = text.length();
+        while (end > 0 && (text.charAt(end - 1) == ' ' || text.charAt(end - 1) == '\t')) end--;
+        text.setLength(end);
+        if (comment) text.append('\n');
+        parts.add(text.toString());
+        text.setLength(0);
+        boolean blank = parts.size() == 1 && parts.get(0).isBlank();
+        if (!blank) {
+            lines.add(new Line(new ArrayList<>(parts)));
+        } else if (!lines.isEmpty() && parts.get(0).endsWith("\n")) {
+            // A blank line inside a string literal is still part of its value.
+            List<String> previous = lines.get(lines.size() - 1).parts();
+            previous.set(previous.size() - 1, previous.get(previous.size() - 1) + parts.get(0));
+        }
+        parts.clear();
+    }
+
+    /** {@code value} as a Java string literal. */
+    static void appendJavaString(String value, StringBuilder out) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': out.append("\\\""); break;
+                case '\\': out.append("\\\\"); break;
+                case '\n': out.append("\\n"); break;
+                case '\r': out.append("\\r"); break;
+                case '\t': out.append("\\t"); break;
+                case '\b': out.append("\\b"); break;
+                case '\f': out.append("\\f"); break;
+                default:
+                    if (c < ' ') {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                    break;
+            }
+        }
+        out.append('"');
+    }
+
+}
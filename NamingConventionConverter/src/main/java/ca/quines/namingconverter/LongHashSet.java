@@ -0,0 +1,79 @@
+package ca.quines.namingconverter;
+
+/**
+ * A set of {@code long}s in one open-addressing array, so that millions of IDs can be deduplicated without boxing
+ * each one into a {@link Long}.
+ */
+final class LongHashSet {
+
+    private static final long EMPTY = 0;
+
+    // 0 marks an empty slot, so whether the set holds 0 is kept on the side.
+    private long[] slots;
+    private boolean containsZero;
+    private int size;
+
+    LongHashSet() {
+        this(16);
+    }
+
+    LongHashSet(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1;
+        slots = new long[capacity];
+    }
+
+    /** Adds {@code value} and returns true if it wasn't already in the set. */
+    boolean add(long value) {
+        if (value == EMPTY) {
+            if (containsZero) return false;
+            containsZero = true;
+            size++;
+            return true;
+        }
+        int mask = slots.length - 1;
+        int i = mix(value) & mask;
+        while (slots[i] != EMPTY) {
+            if (slots[i] == value) return false;
+            i = (i + 1) & mask;
+        }
+        slots[i] = value;
+        size++;
+        // Keep the table at most half full so that probe runs stay short.
+        if (size * 2 > slots.length) grow();
+        return true;
+    }
+
+    boolean contains(long value) {
+        if (value == EMPTY) return containsZero;
+        int mask = slots.length - 1;
+        int i = mix(value) & mask;
+        while (slots[i] != EMPTY) {
+            if (slots[i] == value) return true;
+            i = (i + 1) & mask;
+        }
+        return false;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void grow() {
+        long[] old = slots;
+        slots = new long[old.length * 2];
+        int mask = slots.length - 1;
+        for (long value : old) {
+            if (value == EMPTY) continue;
+            int i = mix(value) & mask;
+            while (slots[i] != EMPTY) i = (i + 1) & mask;
+            slots[i] = value;
+        }
+    }
+
+    /** Spreads sequential IDs across the table. */
+    private static int mix(long value) {
+        long h = value * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+}
@@ -0,0 +1,67 @@
+package ca.quines.namingconverter;
+
+/**
+ * The target conventions for "any identifier to ..." conversions.  Each one renders the words found by
+ * {@link IdentifierTokenizer} straight from the original text, so converting from any convention to any other is one
+ * scan to find the words and one to write them.
+ */
+public enum NamingConvention {
+
+    CAMEL("camelCase", "", WordCase.LOWER, WordCase.CAPITALIZED),
+    PASCAL("PascalCase", "", WordCase.CAPITALIZED, WordCase.CAPITALIZED),
+    SNAKE("snake_case", "_", WordCase.LOWER, WordCase.LOWER),
+    UPPER_SNAKE("UPPER_SNAKE_CASE", "_", WordCase.UPPER, WordCase.UPPER),
+    KEBAB("kebab-case", "-", WordCase.LOWER, WordCase.LOWER),
+    DOT("dot.case", ".", WordCase.LOWER, WordCase.LOWER),
+    TITLE("Title Case", " ", WordCase.CAPITALIZED, WordCase.CAPITALIZED);
+
+    private enum WordCase { LOWER, UPPER, CAPITALIZED }
+
+    private final String example;
+    private final String separator;
+    private final WordCase firstWord;
+    private final WordCase otherWords;
+
+    NamingConvention(String example, String separator, WordCase firstWord, WordCase otherWords) {
+        this.example = example;
+        this.separator = separator;
+        this.firstWord = firstWord;
+        this.otherWords = otherWords;
+    }
+
+    /** The convention's name written in the convention, e.g. "kebab-case". */
+    public String example() {
+        return example;
+    }
+
+    /** Converts every line of {@code input} on its own; line breaks are kept as they are. */
+    public String convert(String input) {
+        if (input == null) return "";
+        StringBuilder sb = new StringBuilder(input.length() + (input.length() >> 2));
+        int lineStart = 0;
+        while (true) {
+            int newline = input.indexOf('\n', lineStart);
+            int lineEnd = newline < 0 ? input.length() : newline;
+            int wordsEnd = lineEnd > lineStart && input.charAt(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+            render(input, IdentifierTokenizer.tokenize(input, lineStart, wordsEnd), sb);
+            sb.append(input, wordsEnd, newline < 0 ? lineEnd : newline + 1);
+            if (newline < 0) break;
+            lineStart = newline + 1;
+        }
+        return sb.toString();
+    }
+
+    /** Writes the words at {@code bounds} in this convention. */
+    public void render(CharSequence input, int[] bounds, StringBuilder out) {
+        for (int w = 0; w < bounds.length; w += 2) {
+            if (w > 0) out.append(separator);
+            WordCase wordCase = w == 0 ? firstWord : otherWords;
+            for (int i = bounds[w]; i < bounds[w + 1]; i++) {
+                char c = input.charAt(i);
+                boolean upper = wordCase == WordCase.UPPER || (wordCase == WordCase.CAPITALIZED && i == bounds[w]);
+                out.append(upper ? Character.toUpperCase(c) : Character.toLowerCase(c));
+            }
+        }
+    }
+
+}
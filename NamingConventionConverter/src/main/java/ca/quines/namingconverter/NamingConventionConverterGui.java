@@ -1,21 +1,60 @@
 package ca.quines.namingconverter;
 
-import java.net.URLDecoder;
-import java.net.URLEncoder;
-import java.nio.charset.StandardCharsets;
-import java.util.Stack;
-import java.util.function.UnaryOperator;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 import org.eclipse.swt.*;
-import org.eclipse.swt.browser.Browser;
+import org.eclipse.swt.custom.StyledText;
+import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.layout.*;
 import org.eclipse.swt.widgets.*;
 
 public class NamingConventionConverterGui extends Dialog {
 
-    private Text mainTextArea;
+    /**
+     * -Dncc.startupTiming=true prints the time to first paint; =exit then closes the window, which is how the
+     * AppCDS archive is trained.
+     */
+    private static final String STARTUP_TIMING = System.getProperty("ncc.startupTiming");
+    private static long mainMillis;
+
+    private Shell shell;
+    private StyledText mainTextArea;
+    private final PieceTableContent content = new PieceTableContent();
+    private TabFolder folder;
     private Button undoBtn;
-    private final Stack<String> undoStack = new Stack<>();
+    private Button redoBtn;
+    private final UndoHistory undoHistory = new UndoHistory();
+    private final RegexReplacer regexReplacer = new RegexReplacer();
+    private ReplacementRules replacementRules;
+    private HelpWindow helpWindow;
+    private Text inClauseColumnText;
+    private Text inClauseLimitText;
+    private Button inClauseStatementsBtn;
+
+    private final ArrayList<Operation> recipeSteps = new ArrayList<>();
+    private List recipeStepList;
+    private Button recordBtn;
+
+    // Transforms run here so that big inputs don't freeze the window.  One thread, so a job that is slow to notice
+    // Cancel holds up the next one instead of piling up beside it.
+    private final ExecutorService transformExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "transform");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private Job runningJob;
+    private ProgressBar progressBar;
+    private Label statusLabel;
+    private Button cancelBtn;
 
     public NamingConventionConverterGui(Shell parent) {
         super(parent, SWT.DIALOG_TRIM | SWT.RESIZE | SWT.APPLICATION_MODAL);
@@ -24,12 +63,14 @@ public class NamingConventionConverterGui extends Dialog {
 
     public void open() {
         Shell parent = getParent();
-        Shell shell = new Shell(parent, SWT.SHELL_TRIM);
+        shell = new Shell(parent, SWT.SHELL_TRIM);
         shell.setText(getText());
+        shell.addListener(SWT.Dispose, e -> transformExecutor.shutdownNow());
         shell.setLayout(new GridLayout(1, true));
 
-        // Top Section: Text Area
-        mainTextArea = new Text(shell, SWT.MULTI | SWT.BORDER | SWT.V_SCROLL | SWT.H_SCROLL);
+        // Top Section: Text Area, backed by a piece table so that huge pastes stay editable.
+        mainTextArea = new StyledText(shell, SWT.MULTI | SWT.BORDER | SWT.V_SCROLL | SWT.H_SCROLL);
+        mainTextArea.setContent(content);
 
         // Allow it to expand as the window expands.
         GridData textData = new GridData(SWT.FILL, SWT.FILL, true, true);
@@ -37,108 +78,217 @@ public class NamingConventionConverterGui extends Dialog {
         textData.minimumHeight = 100;
         mainTextArea.setLayoutData(textData);
 
-        // Provide our own Undo Logic when Ctrl+Z is typed.
-        mainTextArea.addListener(SWT.KeyDown, e -> {
+        // Typing and pasting go through the widget; transforms, undo and redo change the content directly.
+        mainTextArea.addExtendedModifyListener(e -> {
+            undoHistory.typed(e.start, e.replacedText, content.getTextRange(e.start, e.length));
+            updateUndoButtons();
+        });
+
+        // Provide our own Undo Logic when Ctrl+Z is typed, and Redo for Ctrl+Y or Ctrl+Shift+Z.
+        mainTextArea.addVerifyKeyListener(e -> {
             boolean isUndoKey = (e.stateMask == SWT.MOD1) && (e.keyCode == 'z');
-            if (isUndoKey && !undoStack.isEmpty()) {
+            boolean isRedoKey = (e.stateMask == SWT.MOD1 && e.keyCode == 'y')
+                    || (e.stateMask == (SWT.MOD1 | SWT.SHIFT) && e.keyCode == 'z');
+            if (isUndoKey && undoHistory.canUndo()) {
+                e.doit = false;
+                undo();
+            } else if (isRedoKey && undoHistory.canRedo()) {
                 e.doit = false;
-                mainTextArea.setText(undoStack.pop());
-                undoBtn.setEnabled(!undoStack.isEmpty());
+                redo();
             }
         });
 
-        // Middle Section: Undo Button
-        undoBtn = new Button(shell, SWT.PUSH);
+        // Middle Section: Undo and Redo Buttons
+        Composite undoRow = new Composite(shell, SWT.NONE);
+        undoRow.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false));
+        GridLayout undoLayout = new GridLayout(2, true);
+        undoLayout.marginWidth = 0;
+        undoLayout.marginHeight = 0;
+        undoRow.setLayout(undoLayout);
+
+        undoBtn = new Button(undoRow, SWT.PUSH);
         undoBtn.setText("Undo");
         undoBtn.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false));
-        undoBtn.setEnabled(false);
-        setupUndo(undoBtn);
+        undoBtn.addListener(SWT.Selection, e -> undo());
+
+        redoBtn = new Button(undoRow, SWT.PUSH);
+        redoBtn.setText("Redo");
+        redoBtn.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false));
+        redoBtn.addListener(SWT.Selection, e -> redo());
+        updateUndoButtons();
 
         // Bottom Section: Tab Folder for Categories
-        TabFolder folder = new TabFolder(shell, SWT.NONE);
+        folder = new TabFolder(shell, SWT.NONE);
         folder.setLayoutData(new GridData(SWT.FILL, SWT.FILL, true, false));
 
-        createMiscellaneousTab(folder);
-        createCaseTab(folder);
-        createSqlTab(folder);
-        createRegexTab(shell, folder);
+        // Only the first tab is built now; the rest are built when they are first selected.
+        folder.addListener(SWT.Selection, e -> buildTab((TabItem) e.item));
+        addLazyTab("Miscellaneous", 4, this::createMiscellaneousTab);
+        addLazyTab("Case", 3, this::createCaseTab);
+        addLazyTab("Identifiers", 4, this::createIdentifierTab);
+        addLazyTab("SQL", 4, this::createSqlTab);
+        addLazyTab("Regex", 1, this::createRegexTab);
+        addLazyTab("Recipes", 1, this::createRecipeTab);
+        buildTab(folder.getItem(0));
+
+        // Progress of the transform running in the background, and a way to stop it.
+        Composite statusRow = new Composite(shell, SWT.NONE);
+        statusRow.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false));
+        GridLayout statusLayout = new GridLayout(3, false);
+        statusLayout.marginWidth = 0;
+        statusLayout.marginHeight = 0;
+        statusRow.setLayout(statusLayout);
+
+        progressBar = new ProgressBar(statusRow, SWT.HORIZONTAL | SWT.INDETERMINATE);
+        progressBar.setVisible(false);
+
+        statusLabel = new Label(statusRow, SWT.NONE);
+        statusLabel.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false));
+
+        cancelBtn = new Button(statusRow, SWT.PUSH);
+        cancelBtn.setText("Cancel");
+        cancelBtn.setEnabled(false);
+        cancelBtn.addListener(SWT.Selection, e -> cancelJob());
 
         // 4. Help Button (Bottom)
         Button helpBtn = new Button(shell, SWT.PUSH);
         helpBtn.setText("Help / Doc");
         helpBtn.setLayoutData(new GridData(SWT.CENTER, SWT.CENTER, true, false));
-        helpBtn.addListener(SWT.Selection, e -> openHelpWindow(shell.getDisplay()));
+        helpBtn.addListener(SWT.Selection, e -> {
+            if (helpWindow == null) helpWindow = new HelpWindow();
+            helpWindow.open(shell.getDisplay());
+        });
 
         shell.pack();
         shell.setMinimumSize(700, 500);
         shell.open();
 
         Display display = parent.getDisplay();
+        boolean painted = false;
         while (!shell.isDisposed()) {
             if (!display.readAndDispatch()) {
+                if (!painted) {
+                    // Nothing left to do once the window has been exposed and drawn.
+                    painted = true;
+                    if (STARTUP_TIMING != null) {
+                        reportStartup();
+                        if (STARTUP_TIMING.equals("exit")) shell.dispose();
+                        continue;
+                    }
+                }
                 display.sleep();
             }
         }
     }
 
-	private void createMiscellaneousTab(TabFolder folder) {
-        TabItem miscTab = new TabItem(folder, SWT.NONE);
-        miscTab.setText("Miscellaneous");
-        Composite miscGroup = createTabComposite(folder, 4);
-        miscTab.setControl(miscGroup);
+    /** How long it took to show the window, measured from JVM start. */
+    private static void reportStartup() {
+        long now = System.currentTimeMillis();
+        long jvmStart = ManagementFactory.getRuntimeMXBean().getStartTime();
+        System.out.printf("First paint %d ms after JVM start (main() at %d ms)%n", now - jvmStart,
+                mainMillis - jvmStart);
+    }
 
-        createButton(miscGroup, "Remove Dashes and Trim", TextTransformers::removeDashesAndTrim);
-        createButton(miscGroup, "Replace Dashes with Spaces", TextTransformers::replaceDashesWithSpaces);
-        createButton(miscGroup, "Change Underscores to Spaces", TextTransformers::underscoresToSpaces);
-        createButton(miscGroup, "Replace Whitespace\nwith One Space and Trim", TextTransformers::collapseWhitespace);
-        createButton(miscGroup, "Spaces to camelCase", s -> TextTransformers.toCamelCase(s, false));
-        createButton(miscGroup, "Spaces to CamelCase", s -> TextTransformers.toCamelCase(s, true));
-        createButton(miscGroup, "CamelCase to Spaces", TextTransformers::camelCaseToSpaces);
+	private void createMiscellaneousTab(Composite miscGroup) {
+        createButton(miscGroup, Operation.REMOVE_DASHES_AND_TRIM);
+        createButton(miscGroup, Operation.REPLACE_DASHES_WITH_SPACES);
+        createButton(miscGroup, Operation.UNDERSCORES_TO_SPACES);
+        createButton(miscGroup, Operation.COLLAPSE_WHITESPACE);
+        createButton(miscGroup, Operation.SPACES_TO_CAMEL_CASE);
+        createButton(miscGroup, Operation.SPACES_TO_PASCAL_CASE);
+        createButton(miscGroup, Operation.CAMEL_CASE_TO_SPACES);
         createPlaceholder(miscGroup);
-        createButton(miscGroup, "Spaces to UPPER_SNAKE_CASE", TextTransformers::spacesToUpperSnake);
-        createButton(miscGroup, "Camel Case to UPPER_SNAKE_CASE", TextTransformers::camelCaseToUpperSnake);
-        createButton(miscGroup, "UPPER_SNAKE_CASE to camelCase", s -> TextTransformers.snakeToCamel(s, false));
-        createButton(miscGroup, "UPPER_SNAKE_CASE\nto CamelCase", s -> TextTransformers.snakeToCamel(s, true));
-        createButton(miscGroup, "Decode URL", s -> URLDecoder.decode(s, StandardCharsets.UTF_8));
-        createButton(miscGroup, "Encode URL", s -> URLEncoder.encode(s, StandardCharsets.UTF_8));
+        createButton(miscGroup, Operation.SPACES_TO_UPPER_SNAKE);
+        createButton(miscGroup, Operation.CAMEL_CASE_TO_UPPER_SNAKE);
+        createButton(miscGroup, Operation.SNAKE_TO_CAMEL);
+        createButton(miscGroup, Operation.SNAKE_TO_PASCAL);
+        createButton(miscGroup, Operation.DECODE_URL);
+        createButton(miscGroup, Operation.ENCODE_URL);
+	}
+
+	private void createCaseTab(Composite caseGroup) {
+        createButton(caseGroup, Operation.UPPERCASE);
+        createButton(caseGroup, Operation.LOWERCASE);
+        createButton(caseGroup, Operation.ALL_INITIAL_CAPS);
+        createButton(caseGroup, Operation.TITLE_CASE);
+        createButton(caseGroup, Operation.LOWERCASE_FIRST);
+        createButton(caseGroup, Operation.UPPERCASE_FIRST);
 	}
 
-	private void createCaseTab(TabFolder folder) {
-        TabItem caseTab = new TabItem(folder, SWT.NONE);
-        caseTab.setText("Case");
-        Composite caseGroup = createTabComposite(folder, 3);
-        caseTab.setControl(caseGroup);
-
-        createButton(caseGroup, "UPPERCASE", TextTransformers::toUpperCase);
-        createButton(caseGroup, "lowercase", TextTransformers::toLowerCase);
-        createButton(caseGroup, "All Initial Capitals", TextTransformers::allInitialCaps);
-        createButton(caseGroup, "Convert to Title Case", TextTransformers::toTitleCase);
-        createButton(caseGroup, "lowercase First Character", TextTransformers::lowercaseFirst);
-        createButton(caseGroup, "Uppercase First Character", TextTransformers::uppercaseFirst);
+	private void createIdentifierTab(Composite identifierGroup) {
+        // Each line is one identifier in any convention, e.g. HTTPServerURL, customer_id or order-line-item.  To camelCase
+        // and CamelCase are the "UPPER_SNAKE_CASE to" buttons, which take any convention too.
+        createButton(identifierGroup, Operation.ANY_TO_SNAKE);
+        createButton(identifierGroup, Operation.ANY_TO_UPPER_SNAKE);
+        createButton(identifierGroup, Operation.ANY_TO_KEBAB);
+        createButton(identifierGroup, Operation.ANY_TO_DOT);
+        createButton(identifierGroup, Operation.ANY_TO_TITLE);
 	}
 
-	private void createSqlTab(TabFolder folder) {
-        TabItem sqlTab = new TabItem(folder, SWT.NONE);
-        sqlTab.setText("SQL");
-        Composite sqlGroup = createTabComposite(folder, 4);
-        sqlTab.setControl(sqlGroup);
-
-        createButton(sqlGroup, "Newline separated to Comma Delimited", TextTransformers::newlineToComma);
-        createButton(sqlGroup, "Newline separated to Quoted Comma Delimited", TextTransformers::newlineToQuotedComma);
-        createButton(sqlGroup, "In Clause for Integers", TextTransformers::toInClauseInt);
-        createButton(sqlGroup, "In Clause for Strings", TextTransformers::toInClauseString);
-        createButton(sqlGroup, "Clean Up Autogenerated SQL", s -> s);
-        createButton(sqlGroup, "Convert from Java to SQL", s -> s);
-        createButton(sqlGroup, "Convert from SQL to Java String Concatenation", s -> s);
-        createButton(sqlGroup, "Convert from SQL\nto String Buffer Appends", s -> s);
+	private void createSqlTab(Composite sqlGroup) {
+        createButton(sqlGroup, Operation.NEWLINE_TO_COMMA);
+        createButton(sqlGroup, Operation.NEWLINE_TO_QUOTED_COMMA);
+        createInClauseButton(sqlGroup, Operation.IN_CLAUSE_INT, InClauseBuilder.Values.NUMBERS);
+        createInClauseButton(sqlGroup, Operation.IN_CLAUSE_STRING, InClauseBuilder.Values.STRINGS);
+        createButton(sqlGroup, Operation.CLEAN_UP_SQL);
+        createButton(sqlGroup, Operation.JAVA_TO_SQL);
+        createButton(sqlGroup, Operation.SQL_TO_CONCATENATION);
+        createButton(sqlGroup, Operation.SQL_TO_APPENDS);
+
+        // Options for the IN clause buttons.
+        Composite inClauseRow = new Composite(sqlGroup, SWT.NONE);
+        inClauseRow.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false, 4, 1));
+        inClauseRow.setLayout(new GridLayout(5, false));
+        new Label(inClauseRow, SWT.NONE).setText("Column (or statement before IN):");
+        inClauseColumnText = new Text(inClauseRow, SWT.BORDER);
+        inClauseColumnText.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false));
+        new Label(inClauseRow, SWT.NONE).setText("Max values per IN:");
+        inClauseLimitText = new Text(inClauseRow, SWT.BORDER);
+        GridData limitData = new GridData(SWT.LEFT, SWT.CENTER, false, false);
+        limitData.widthHint = 60;
+        inClauseLimitText.setLayoutData(limitData);
+        inClauseStatementsBtn = new Button(inClauseRow, SWT.CHECK);
+        inClauseStatementsBtn.setText("One statement per group");
 	}
 
-	private void createRegexTab(Shell shell, TabFolder folder) {
-        TabItem regexTab = new TabItem(folder, SWT.NONE);
-        regexTab.setText("Regex");
-        Composite regexGroup = createTabComposite(folder, 1);
-        regexTab.setControl(regexGroup);
+    /**
+     * An IN clause button that uses the column and limit options.  Without options it is the plain operation, which
+     * can be recorded into a recipe.
+     */
+    private void createInClauseButton(Composite parent, Operation operation, InClauseBuilder.Values values) {
+        Button b = new Button(parent, SWT.PUSH | SWT.WRAP);
+        b.setText(operation.label());
+        GridData gd = new GridData(SWT.FILL, SWT.FILL, true, false);
+        gd.heightHint = 45;
+        b.setLayoutData(gd);
+
+        b.addListener(SWT.Selection, e -> {
+            if (content.getCharCount() == 0) return;
+            String column = inClauseColumnText.getText().trim();
+            boolean statements = inClauseStatementsBtn.getSelection();
+            int limit;
+            try {
+                String limitText = inClauseLimitText.getText().trim();
+                limit = limitText.isEmpty() ? 0 : Integer.parseInt(limitText);
+            } catch (NumberFormatException ex) {
+                showError(shell, "IN Clause Error", "Max values per IN must be a number, e.g. " + InClauseBuilder.ORACLE_LIMIT);
+                return;
+            }
+            if (column.isEmpty() && limit == 0 && !statements && recordBtn != null && recordBtn.getSelection()) {
+                addRecipeStep(operation);
+            }
+            InClauseBuilder.Layout layout = statements ? InClauseBuilder.Layout.STATEMENTS : InClauseBuilder.Layout.IN;
+            runInBackground(operation.label(), operation.cliName(), (input, job) -> {
+                StringBuilder sb = new StringBuilder(input.length() + (input.length() >> 2) + 16);
+                InClauseBuilder builder = new InClauseBuilder(sb, values, layout, column, limit);
+                builder.addLines(input).finish();
+                job.summary = String.format("%d values, %d repeats dropped.", builder.count(), builder.duplicates());
+                return sb.toString();
+            }, "IN Clause Error");
+        });
+    }
 
+	private void createRegexTab(Composite regexGroup) {
         Composite inputRow = new Composite(regexGroup, SWT.NONE);
 		inputRow.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false));
 		inputRow.setLayout(new GridLayout(5, false));
@@ -153,24 +303,211 @@ public class NamingConventionConverterGui extends Dialog {
 		
 		Button regexGoBtn = new Button(inputRow, SWT.PUSH);
 		regexGoBtn.setText("  Go  ");
+
+		Composite flagRow = new Composite(regexGroup, SWT.NONE);
+		flagRow.setLayout(new GridLayout(3, false));
+		Button ignoreCaseBtn = new Button(flagRow, SWT.CHECK);
+		ignoreCaseBtn.setText("Ignore Case");
+		Button multilineBtn = new Button(flagRow, SWT.CHECK);
+		multilineBtn.setText("Multiline (^ and $ match at line breaks)");
+		Button dotAllBtn = new Button(flagRow, SWT.CHECK);
+		dotAllBtn.setText("Dot Matches Newlines");
+
 		regexGoBtn.addListener(SWT.Selection, e -> {
 		    String pattern = findText.getText();
 		    String replacement = replaceText.getText();
-		    String current = mainTextArea.getText();
 		    if (pattern.isEmpty()) return;
+		    int flags = (ignoreCaseBtn.getSelection() ? Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE : 0)
+		            | (multilineBtn.getSelection() ? Pattern.MULTILINE : 0)
+		            | (dotAllBtn.getSelection() ? Pattern.DOTALL : 0);
+		    runInBackground("Regex Replace", "regexReplace", (input, job) -> {
+		        try {
+		            RegexReplacer.Result result = regexReplacer.replaceAll(input, pattern, flags, replacement);
+		            job.summary = String.format("Replaced %d match%s in %d ms.", result.matches(),
+		                    result.matches() == 1 ? "" : "es", result.elapsedMillis());
+		            return result.text();
+		        } catch (PatternSyntaxException ex) {
+		            throw new IllegalArgumentException("Invalid Regex: " + ex.getMessage(), ex);
+		        }
+		    }, "Regex Error");
+		});
+
+		// Rule tables: many find/replace pairs from a file, applied in one scan.
+		Composite rulesRow = new Composite(regexGroup, SWT.NONE);
+		rulesRow.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false));
+		rulesRow.setLayout(new GridLayout(3, false));
+
+		Label rulesLabel = new Label(rulesRow, SWT.NONE);
+		rulesLabel.setText("No rules file loaded.");
+		rulesLabel.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false));
+
+		Button loadRulesBtn = new Button(rulesRow, SWT.PUSH);
+		loadRulesBtn.setText("Load Rules...");
+		Button applyRulesBtn = new Button(rulesRow, SWT.PUSH);
+		applyRulesBtn.setText("Apply Rules");
+		applyRulesBtn.setEnabled(false);
+
+		loadRulesBtn.addListener(SWT.Selection, e -> {
+		    FileDialog dialog = new FileDialog(shell, SWT.OPEN);
+		    dialog.setText("Load Rules");
+		    dialog.setFilterExtensions(new String[] { "*" + ReplacementRules.FILE_EXTENSION + ";*.tsv;*.txt", "*" });
+		    String fileName = dialog.open();
+		    if (fileName == null) return;
 		    try {
-		        undoStack.push(current);
-		        undoBtn.setEnabled(true);
-		        mainTextArea.setText(current.replaceAll(pattern, replacement));
-		    } catch (Exception ex) {
-		        MessageBox mb = new MessageBox(shell, SWT.ICON_ERROR | SWT.OK);
-		        mb.setText("Regex Error");
-		        mb.setMessage("Invalid Regex: " + ex.getMessage());
-		        mb.open();
+		        replacementRules = ReplacementRules.load(Path.of(fileName));
+		        rulesLabel.setText(replacementRules.size() + " rules from " + Path.of(fileName).getFileName());
+		        applyRulesBtn.setEnabled(true);
+		    } catch (IOException | IllegalArgumentException ex) {
+		        showError(shell, "Rules Error", ex.getMessage());
 		    }
 		});
+		applyRulesBtn.addListener(SWT.Selection, e -> {
+		    ReplacementRules rules = replacementRules;
+		    if (rules == null) return;
+		    runInBackground("Apply Rules", rules.metricName(), (input, job) -> {
+		        RegexReplacer.Result result = rules.replaceAll(input);
+		        job.summary = String.format("Applied %d rules: %d replacement%s in %d ms.", rules.size(),
+		                result.matches(), result.matches() == 1 ? "" : "s", result.elapsedMillis());
+		        return result.text();
+		    }, "Rules Error");
+		});
 	}
 
+	private void createRecipeTab(Composite recipeGroup) {
+        Composite stepRow = new Composite(recipeGroup, SWT.NONE);
+        stepRow.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false));
+        stepRow.setLayout(new GridLayout(6, false));
+
+        new Label(stepRow, SWT.NONE).setText("Step:");
+        Combo operationCombo = new Combo(stepRow, SWT.READ_ONLY);
+        operationCombo.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false));
+        for (Operation operation : Operation.values()) {
+            operationCombo.add(operation.label().replace('\n', ' '));
+        }
+        operationCombo.select(0);
+
+        Button addBtn = new Button(stepRow, SWT.PUSH);
+        addBtn.setText("Add");
+        addBtn.addListener(SWT.Selection, e -> addRecipeStep(Operation.values()[operationCombo.getSelectionIndex()]));
+
+        Button removeBtn = new Button(stepRow, SWT.PUSH);
+        removeBtn.setText("Remove");
+        removeBtn.addListener(SWT.Selection, e -> {
+            int index = recipeStepList.getSelectionIndex();
+            if (index < 0) index = recipeSteps.size() - 1;
+            if (index < 0) return;
+            recipeSteps.remove(index);
+            recipeStepList.remove(index);
+        });
+
+        Button clearBtn = new Button(stepRow, SWT.PUSH);
+        clearBtn.setText("Clear");
+        clearBtn.addListener(SWT.Selection, e -> {
+            recipeSteps.clear();
+            recipeStepList.removeAll();
+        });
+
+        // While this is checked, every transform button that is clicked is also added to the recipe.
+        recordBtn = new Button(stepRow, SWT.CHECK);
+        recordBtn.setText("Record button clicks");
+
+        recipeStepList = new List(recipeGroup, SWT.BORDER | SWT.V_SCROLL);
+        GridData listData = new GridData(SWT.FILL, SWT.FILL, true, true);
+        listData.heightHint = 60;
+        recipeStepList.setLayoutData(listData);
+
+        Composite saveRow = new Composite(recipeGroup, SWT.NONE);
+        saveRow.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false));
+        saveRow.setLayout(new GridLayout(7, false));
+
+        new Label(saveRow, SWT.NONE).setText("Name:");
+        Text nameText = new Text(saveRow, SWT.BORDER);
+        nameText.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false));
+
+        Button saveBtn = new Button(saveRow, SWT.PUSH);
+        saveBtn.setText("Save");
+
+        new Label(saveRow, SWT.NONE).setText("Saved:");
+        Combo savedCombo = new Combo(saveRow, SWT.READ_ONLY);
+        savedCombo.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false));
+        ArrayList<Recipe> savedRecipes = new ArrayList<>();
+        refreshSavedRecipes(shell, savedCombo, savedRecipes);
+
+        Button loadBtn = new Button(saveRow, SWT.PUSH);
+        loadBtn.setText("Load");
+        loadBtn.addListener(SWT.Selection, e -> {
+            int index = savedCombo.getSelectionIndex();
+            if (index < 0) return;
+            Recipe recipe = savedRecipes.get(index);
+            nameText.setText(recipe.name());
+            recipeSteps.clear();
+            recipeStepList.removeAll();
+            recipe.steps().forEach(this::addRecipeStep);
+        });
+
+        Button runBtn = new Button(saveRow, SWT.PUSH);
+        runBtn.setText("  Run Recipe  ");
+        runBtn.addListener(SWT.Selection, e -> {
+            if (recipeSteps.isEmpty()) return;
+            String name = nameText.getText().trim();
+            Recipe recipe = new Recipe(name.isEmpty() ? "Unsaved" : name, recipeSteps);
+            applyTransform("Recipe " + recipe.name(), recipe);
+        });
+
+        saveBtn.addListener(SWT.Selection, e -> {
+            try {
+                new Recipe(nameText.getText().trim(), recipeSteps).save(Recipe.defaultDirectory());
+                refreshSavedRecipes(shell, savedCombo, savedRecipes);
+            } catch (IllegalArgumentException | IOException ex) {
+                showError(shell, "Recipe Error", "Could not save the recipe: " + ex.getMessage());
+            }
+        });
+	}
+
+    private void addRecipeStep(Operation operation) {
+        recipeSteps.add(operation);
+        recipeStepList.add(operation.label().replace('\n', ' '));
+    }
+
+    private void refreshSavedRecipes(Shell shell, Combo savedCombo, ArrayList<Recipe> savedRecipes) {
+        savedRecipes.clear();
+        savedCombo.removeAll();
+        try {
+            savedRecipes.addAll(Recipe.loadAll(Recipe.defaultDirectory()));
+        } catch (IllegalArgumentException | IOException ex) {
+            showError(shell, "Recipe Error", "Could not read the saved recipes: " + ex.getMessage());
+        }
+        for (Recipe recipe : savedRecipes) {
+            savedCombo.add(recipe.name());
+        }
+        if (!savedRecipes.isEmpty()) savedCombo.select(0);
+    }
+
+    private void showError(Shell shell, String title, String message) {
+        MessageBox mb = new MessageBox(shell, SWT.ICON_ERROR | SWT.OK);
+        mb.setText(title);
+        mb.setMessage(message);
+        mb.open();
+    }
+
+    /** Adds a tab whose contents are built by {@code contents} the first time it is selected. */
+    private void addLazyTab(String title, int columns, Consumer<Composite> contents) {
+        TabItem item = new TabItem(folder, SWT.NONE);
+        item.setText(title);
+        item.setData((Runnable) () -> {
+            Composite composite = createTabComposite(folder, columns);
+            contents.accept(composite);
+            item.setControl(composite);
+        });
+    }
+
+    private void buildTab(TabItem item) {
+        if (item.getControl() != null) return;
+        ((Runnable) item.getData()).run();
+        // A taller tab takes its room from the text area.
+        shell.layout(true, true);
+    }
+
     private Composite createTabComposite(TabFolder folder, int columns) {
         Composite composite = new Composite(folder, SWT.NONE);
         GridLayout layout = new GridLayout(columns, true);
@@ -180,69 +517,183 @@ public class NamingConventionConverterGui extends Dialog {
         return composite;
     }
 
-    private void createButton(Composite parent, String text, UnaryOperator<String> transformer) {
+    private void createButton(Composite parent, Operation operation) {
+        Button b = createButton(parent, operation.label(), operation);
+        b.addListener(SWT.Selection, e -> {
+            if (recordBtn != null && recordBtn.getSelection()) addRecipeStep(operation);
+        });
+    }
+
+    private Button createButton(Composite parent, String text, Transformation transformer) {
         Button b = new Button(parent, SWT.PUSH | SWT.WRAP);
         b.setText(text);
         GridData gd = new GridData(SWT.FILL, SWT.FILL, true, false);
         gd.heightHint = 45;
         b.setLayoutData(gd);
 
-        b.addListener(SWT.Selection, e -> {
-            String currentText = mainTextArea.getText();
-            if (currentText == null || currentText.isEmpty()) return;
-            undoStack.push(currentText);
-            if (undoBtn != null) undoBtn.setEnabled(true);
-            mainTextArea.setText(transformer.apply(currentText));
-        });
+        b.addListener(SWT.Selection, e -> applyTransform(text.replace('\n', ' '), transformer));
+        return b;
+    }
+
+    private void applyTransform(String description, Transformation transformer) {
+        runInBackground(description, transformer.metricName(), (input, job) -> transformer.apply(input),
+                "Transform Error");
+    }
+
+    /** Work for {@link #runInBackground}.  Runs off the UI thread, so it must not touch any widget. */
+    private interface BackgroundTransform {
+        String apply(String input, Job job) throws Exception;
+    }
+
+    /** A transform running on {@link #transformExecutor}.  The result of a cancelled job is thrown away. */
+    private static final class Job {
+        final String description;
+        final long startNanos = System.nanoTime();
+        /** The thread running the work, while it runs. */
+        volatile Thread worker;
+        volatile boolean cancelled;
+        /** Set by the work to show in the status bar when it's done. */
+        volatile String summary;
+
+        Job(String description) {
+            this.description = description;
+        }
     }
 
-    private void setupUndo(Button undoBtn) {
-        undoBtn.addListener(SWT.Selection, e -> {
-            if (!undoStack.isEmpty()) {
-                mainTextArea.setText(undoStack.pop());
-                undoBtn.setEnabled(!undoStack.isEmpty());
+    /**
+     * Runs {@code work} on the selection, or on all the text if nothing is selected, on a background thread while the
+     * text is locked.  Then posts the result back to the UI thread as an undoable change.  Only one job runs at a time.
+     * The status bar shows {@code description}; the metrics record the call under {@code metricName}.
+     */
+    private void runInBackground(String description, String metricName, BackgroundTransform work,
+            String errorTitle) {
+        if (runningJob != null) return;
+        Point selection = mainTextArea.getSelection();
+        boolean selected = selection.y > selection.x;
+        int start = selected ? selection.x : 0;
+        String input = content.getTextRange(start, selected ? selection.y - selection.x : content.getCharCount());
+        if (input.isEmpty()) return;
+        Job job = new Job(selected ? description + " (selection)" : description);
+        runningJob = job;
+        setBusy(true);
+
+        Display display = shell.getDisplay();
+        transformExecutor.execute(() -> {
+            job.worker = Thread.currentThread();
+            TransformMetrics.Call call = TransformMetrics.begin(metricName);
+            try {
+                String result;
+                try {
+                    // Cancel may have been pressed before this thread picked the job up.
+                    if (job.cancelled) throw new CancellationException();
+                    result = work.apply(input, job);
+                } catch (Throwable t) {
+                    if (call != null) call.fail(input.length());
+                    throw t;
+                }
+                if (call != null) call.end(input.length(), result.length());
+                postIfCurrent(display, job, () -> {
+                    if (finishJob(job)) {
+                        setTransformedText(start, input, result, selected);
+                        if (job.summary != null) statusLabel.setText(job.summary);
+                    }
+                });
+            } catch (Throwable t) {
+                // Includes StackOverflowError and OutOfMemoryError, which big inputs and nasty regexes can cause.
+                postIfCurrent(display, job, () -> {
+                    if (finishJob(job)) {
+                        String message = t.getMessage() != null ? t.getMessage() : t.getClass().getSimpleName();
+                        showError(shell, errorTitle, message);
+                    }
+                });
+            } finally {
+                job.worker = null;
             }
         });
+        showProgress(job);
     }
 
-    private void createPlaceholder(Composite parent) {
-        new Label(parent, SWT.NONE);
+    private void postIfCurrent(Display display, Job job, Runnable runnable) {
+        if (display.isDisposed()) return;
+        display.asyncExec(() -> {
+            if (runningJob == job && !shell.isDisposed()) runnable.run();
+        });
     }
 
-    private void openHelpWindow(Display display) {
-        Shell helpShell = new Shell(display, SWT.SHELL_TRIM);
-        helpShell.setText("Documentation");
-        helpShell.setLayout(new FillLayout());
-        helpShell.setSize(800, 400);
+    private void showProgress(Job job) {
+        if (runningJob != job || shell.isDisposed()) return;
+        long elapsedMillis = (System.nanoTime() - job.startNanos) / 1_000_000;
+        statusLabel.setText(String.format(job.cancelled ? "Cancelling %s... %.1f s" : "%s... %.1f s",
+                job.description, elapsedMillis / 1000.0));
+        shell.getDisplay().timerExec(250, () -> showProgress(job));
+    }
 
-        try {
-            Browser browser = new Browser(helpShell, SWT.NONE);
-
-            String html = "<html><body style='font-family: sans-serif; padding: 20px; line-height: 1.6;'>"
-                    + "<h2>Naming Convention Converter Help</h2>"
-                    + "<h3>Shortcut Keys</h3>"
-                    + "<p>Standard Ctrl+C (Copy), Ctrl+V (Paste), and Ctrl+A (Select All) work within the text area.</p>"
-                    + "<h3>SQL Conversion Tips</h3>"
-                    + "<p>Use <b>'In Clause for Strings'</b> when you have a list of IDs and need to paste them into a <code>WHERE id IN (...)</code> query.</p>"
-                    + "<h3>Regex Flags</h3>"
-                    + "<p>You can add the following at the very beginning of your 'Find:' string.</p>"
-                    + "<ul>"
-                    + "  <li><b>(?i) Ignore Case:</b> Matches 'ABC' and 'abc' identically.</li>"
-                    + "  <li><b>(?m) Multiline:</b> ^ and $ match the start/end of <i>each line</i> instead of the whole text.</li>"
-                    + "  <li><b>(?s) Dotall:</b> The '.' character will match newline characters.</li>"
-                    + "</ul>"
-                    + "</body></html>";
-
-            browser.setText(html);
-        } catch (SWTError e) {
-            Text fallback = new Text(helpShell, SWT.MULTI | SWT.WRAP);
-            fallback.setText("Regex Help\nAdd the following to the beginning of your Find text:  (?i) = Ignore Case\n(?m) = Multiline");
-            fallback.setEditable(false);
+    /**
+     * Interrupts the worker, which the long scans check for.  The text stays locked until the worker has actually
+     * stopped, and whatever it still produces is thrown away.
+     */
+    private void cancelJob() {
+        Job job = runningJob;
+        if (job == null || job.cancelled) return;
+        job.cancelled = true;
+        Thread worker = job.worker;
+        if (worker != null) worker.interrupt();
+        cancelBtn.setEnabled(false);
+    }
+
+    /** Unlocks the text once the worker is done with {@code job}, and returns false if the job was cancelled. */
+    private boolean finishJob(Job job) {
+        runningJob = null;
+        setBusy(false);
+        statusLabel.setText(job.cancelled ? job.description + " cancelled." : "");
+        return !job.cancelled;
+    }
+
+    /** Locks the text and the buttons while a job runs. */
+    private void setBusy(boolean busy) {
+        mainTextArea.setEditable(!busy);
+        folder.setEnabled(!busy);
+        progressBar.setVisible(busy);
+        cancelBtn.setEnabled(busy);
+        if (busy) {
+            undoBtn.setEnabled(false);
+            redoBtn.setEnabled(false);
+        } else {
+            updateUndoButtons();
         }
-        helpShell.open();
+    }
+
+    /** Puts {@code result} where {@code input} was, at {@code start}, and keeps a transformed selection selected. */
+    private void setTransformedText(int start, String input, String result, boolean selected) {
+        undoHistory.record(start, input, result);
+        content.replaceChanged(start, input, result);
+        if (selected) mainTextArea.setSelection(start, start + result.length());
+        updateUndoButtons();
+    }
+
+    private void undo() {
+        if (runningJob != null || !undoHistory.canUndo()) return;
+        undoHistory.undo(content);
+        updateUndoButtons();
+    }
+
+    private void redo() {
+        if (runningJob != null || !undoHistory.canRedo()) return;
+        undoHistory.redo(content);
+        updateUndoButtons();
+    }
+
+    private void updateUndoButtons() {
+        undoBtn.setEnabled(undoHistory.canUndo());
+        redoBtn.setEnabled(undoHistory.canRedo());
+    }
+
+    private void createPlaceholder(Composite parent) {
+        new Label(parent, SWT.NONE);
     }
 
     public static void main(String[] args) {
+        mainMillis = System.currentTimeMillis();
         Display display = new Display();
         Shell shell = new Shell(display); 
         NamingConventionConverterGui gui = new NamingConventionConverterGui(shell);
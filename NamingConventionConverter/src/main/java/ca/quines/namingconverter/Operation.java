@@ -0,0 +1,169 @@
+package ca.quines.namingconverter;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * The named {@link TextTransformers} operations, shared by the GUI buttons and the headless entry points.  Nothing in
+ * here may touch SWT.
+ */
+public enum Operation implements Transformation {
+
+    REMOVE_DASHES_AND_TRIM("removeDashesAndTrim", "Remove Dashes and Trim", TextTransformers::removeDashesAndTrim),
+    REPLACE_DASHES_WITH_SPACES("replaceDashesWithSpaces", "Replace Dashes with Spaces", TextTransformers::replaceDashesWithSpaces,
+            c -> c == '-' ? ' ' : c),
+    UNDERSCORES_TO_SPACES("underscoresToSpaces", "Change Underscores to Spaces", TextTransformers::underscoresToSpaces,
+            c -> c == '_' ? ' ' : c),
+    COLLAPSE_WHITESPACE("collapseWhitespace", "Replace Whitespace\nwith One Space and Trim", TextTransformers::collapseWhitespace),
+    SPACES_TO_CAMEL_CASE("toCamelCase", "Spaces to camelCase", s -> TextTransformers.toCamelCase(s, false)),
+    SPACES_TO_PASCAL_CASE("toPascalCase", "Spaces to CamelCase", s -> TextTransformers.toCamelCase(s, true)),
+    CAMEL_CASE_TO_SPACES("camelCaseToSpaces", "CamelCase to Spaces", TextTransformers::camelCaseToSpaces, Granularity.LINE),
+    TO_UPPER_SNAKE("toUpperSnake", "To UPPER_SNAKE_CASE", TextTransformers::toUpperSnake, Granularity.LINE),
+    SPACES_TO_UPPER_SNAKE("spacesToUpperSnake", "Spaces to UPPER_SNAKE_CASE", TextTransformers::spacesToUpperSnake),
+    CAMEL_CASE_TO_UPPER_SNAKE("camelCaseToUpperSnake", "Camel Case to UPPER_SNAKE_CASE", TextTransformers::camelCaseToUpperSnake),
+    SNAKE_TO_CAMEL("snakeToCamel", "UPPER_SNAKE_CASE to camelCase", s -> TextTransformers.snakeToCamel(s, false), Granularity.LINE),
+    SNAKE_TO_PASCAL("snakeToPascal", "UPPER_SNAKE_CASE\nto CamelCase", s -> TextTransformers.snakeToCamel(s, true),
+            Granularity.LINE),
+    DECODE_URL("decodeUrl", "Decode URL", TextTransformers::decodeUrl, Granularity.LINE),
+    ENCODE_URL("encodeUrl", "Encode URL", TextTransformers::encodeUrl),
+
+    ANY_TO_CAMEL("anyToCamel", "Any to camelCase", NamingConvention.CAMEL::convert, Granularity.LINE),
+    ANY_TO_PASCAL("anyToPascal", "Any to PascalCase", NamingConvention.PASCAL::convert, Granularity.LINE),
+    ANY_TO_SNAKE("anyToSnake", "Any to snake_case", NamingConvention.SNAKE::convert, Granularity.LINE),
+    ANY_TO_UPPER_SNAKE("anyToUpperSnake", "Any to UPPER_SNAKE_CASE", NamingConvention.UPPER_SNAKE::convert, Granularity.LINE),
+    ANY_TO_KEBAB("anyToKebab", "Any to kebab-case", NamingConvention.KEBAB::convert, Granularity.LINE),
+    ANY_TO_DOT("anyToDot", "Any to dot.case", NamingConvention.DOT::convert, Granularity.LINE),
+    ANY_TO_TITLE("anyToTitle", "Any to Title Case", NamingConvention.TITLE::convert, Granularity.LINE),
+
+    UPPERCASE("toUpperCase", "UPPERCASE", TextTransformers::toUpperCase, Granularity.LINE),
+    LOWERCASE("toLowerCase", "lowercase", TextTransformers::toLowerCase, Granularity.LINE),
+    ALL_INITIAL_CAPS("allInitialCaps", "All Initial Capitals", TextTransformers::allInitialCaps),
+    TITLE_CASE("toTitleCase", "Convert to Title Case", TextTransformers::toTitleCase),
+    LOWERCASE_FIRST("lowercaseFirst", "lowercase First Character", TextTransformers::lowercaseFirst),
+    UPPERCASE_FIRST("uppercaseFirst", "Uppercase First Character", TextTransformers::uppercaseFirst),
+
+    NEWLINE_TO_COMMA("newlineToComma", "Newline separated to Comma Delimited", TextTransformers::newlineToComma, Granularity.LIST),
+    NEWLINE_TO_QUOTED_COMMA("newlineToQuotedComma", "Newline separated to Quoted Comma Delimited", TextTransformers::newlineToQuotedComma, Granularity.LIST),
+    IN_CLAUSE_INT("toInClauseInt", "In Clause for Integers", TextTransformers::toInClauseInt, Granularity.LIST),
+    IN_CLAUSE_STRING("toInClauseString", "In Clause for Strings", TextTransformers::toInClauseString, Granularity.LIST),
+    CLEAN_UP_SQL("cleanUpSql", "Clean Up Autogenerated SQL", SqlFormatter::format, Granularity.DOCUMENT),
+    JAVA_TO_SQL("javaToSql", "Convert from Java to SQL", JavaSqlConverter::javaToSql, Granularity.DOCUMENT),
+    SQL_TO_CONCATENATION("sqlToConcatenation", "Convert from SQL to Java String Concatenation", JavaSqlConverter::sqlToConcatenation,
+            Granularity.DOCUMENT),
+    SQL_TO_APPENDS("sqlToAppends", "Convert from SQL\nto String Buffer Appends", JavaSqlConverter::sqlToAppends,
+            Granularity.DOCUMENT);
+
+    /** How much of the text an operation needs to see at once, which decides what a {@link Recipe} can fuse. */
+    public enum Granularity {
+        /** Maps every character on its own; see {@link Operation#mapChar(char)}. */
+        CHARACTER,
+        /** Applying it to each '\n'-separated line gives the same result as applying it to the whole text. */
+        LINE,
+        /** Needs the whole text, e.g. because it trims or joins words across lines. */
+        TEXT,
+        /** Turns the lines into one list, e.g. an IN clause. */
+        LIST,
+        /** Reads the whole text as one document whose statements span lines, e.g. SQL. */
+        DOCUMENT
+    }
+
+    @FunctionalInterface
+    interface CharMapper {
+        char map(char c);
+    }
+
+    private final String cliName;
+    private final String label;
+    private final UnaryOperator<String> transformer;
+    private final Granularity granularity;
+    private final CharMapper charMapper;
+
+    Operation(String cliName, String label, UnaryOperator<String> transformer) {
+        this(cliName, label, transformer, Granularity.TEXT, null);
+    }
+
+    Operation(String cliName, String label, UnaryOperator<String> transformer, Granularity granularity) {
+        this(cliName, label, transformer, granularity, null);
+    }
+
+    Operation(String cliName, String label, UnaryOperator<String> transformer, CharMapper charMapper) {
+        this(cliName, label, transformer, Granularity.CHARACTER, charMapper);
+    }
+
+    private Operation(String cliName, String label, UnaryOperator<String> transformer, Granularity granularity,
+            CharMapper charMapper) {
+        this.cliName = cliName;
+        this.label = label;
+        this.transformer = transformer;
+        this.granularity = granularity;
+        this.charMapper = charMapper;
+    }
+
+    /** The name used on the command line, e.g. "snakeToCamel". */
+    public String cliName() {
+        return cliName;
+    }
+
+    /** The {@link #cliName()}, rather than the button label. */
+    @Override
+    public String metricName() {
+        return cliName;
+    }
+
+    /** The button text in the GUI. */
+    public String label() {
+        return label;
+    }
+
+    public Granularity granularity() {
+        return granularity;
+    }
+
+    @Override
+    public boolean joinsLines() {
+        return granularity == Granularity.LIST || granularity == Granularity.DOCUMENT;
+    }
+
+    @Override
+    public boolean joinsValues() {
+        return granularity == Granularity.LIST;
+    }
+
+    /** The per-character form of a {@link Granularity#CHARACTER} operation. */
+    public char mapChar(char c) {
+        if (charMapper == null) {
+            throw new UnsupportedOperationException(cliName + " doesn't work one character at a time.");
+        }
+        return charMapper.map(c);
+    }
+
+    @Override
+    public String apply(String input) {
+        return transformer.apply(input);
+    }
+
+    /** Looks up an operation by its {@link #cliName()}, ignoring case. */
+    public static Operation forName(String name) {
+        for (Operation operation : values()) {
+            if (operation.cliName.equalsIgnoreCase(name)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation '" + name + "'.  Known operations: " + names());
+    }
+
+    /** The {@link #cliName()} of every operation, comma separated. */
+    public static String names() {
+        StringBuilder sb = new StringBuilder();
+        for (Operation operation : values()) {
+            if (sb.length() > 0) sb.append(", ");
+            sb.append(operation.cliName);
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return label.replace('\n', ' ') + " (" + cliName + ")";
+    }
+
+}
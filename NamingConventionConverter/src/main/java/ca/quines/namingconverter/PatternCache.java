@@ -0,0 +1,47 @@
+package ca.quines.namingconverter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * A small least-recently-used cache of compiled {@link Pattern}s, keyed by the pattern text and the flags, so that
+ * running the same Find text again doesn't recompile it.  Thread safe.
+ */
+public class PatternCache {
+
+    private record Key(String regex, int flags) {}
+
+    private final Map<Key, Pattern> patterns;
+
+    public PatternCache(int capacity) {
+        this.patterns = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Pattern> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /** The compiled pattern; throws {@link java.util.regex.PatternSyntaxException} if it doesn't compile. */
+    public Pattern get(String regex, int flags) {
+        Key key = new Key(regex, flags);
+        synchronized (patterns) {
+            Pattern pattern = patterns.get(key);
+            if (pattern != null) return pattern;
+        }
+        // Compile outside the lock; two threads racing on the same key just both compile it.
+        Pattern pattern = Pattern.compile(regex, flags);
+        synchronized (patterns) {
+            patterns.put(key, pattern);
+        }
+        return pattern;
+    }
+
+    public int size() {
+        synchronized (patterns) {
+            return patterns.size();
+        }
+    }
+
+}
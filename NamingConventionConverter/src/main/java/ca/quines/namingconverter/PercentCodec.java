@@ -0,0 +1,184 @@
+package ca.quines.namingconverter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * URL encoding and decoding done on UTF-8 bytes with lookup tables, for "Decode URL" and "Encode URL" and for access
+ * logs too big to hold as a {@code String}.
+ * <p>
+ * It encodes the same way as {@link java.net.URLEncoder}: letters, digits and {@code .-*_} as they are, a space as
+ * '+', and every other byte as {@code %XX}.  Decoding turns '+' into a space like {@link java.net.URLDecoder}, but is
+ * lenient: a '%' that isn't followed by two hex digits is copied as it is instead of failing the whole text, and bytes
+ * that don't decode to UTF-8 become U+FFFD.
+ * <p>
+ * The {@link ByteBuffer} methods work like a {@link java.nio.charset.CharsetDecoder}: they convert as much as fits
+ * and leave the positions after what they read and wrote, so the caller can compact the input and carry on.
+ */
+public final class PercentCodec {
+
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final byte[] HEX_DIGITS = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+
+    /** The value of each hex digit, or -1. */
+    private static final byte[] HEX_VALUES = new byte[256];
+
+    /** What each byte decodes to on its own: itself, or a space for '+'. */
+    private static final byte[] DECODED = new byte[256];
+
+    /** What each byte encodes to if it stays one byte, or 0 if it becomes %XX. */
+    private static final byte[] ENCODED = new byte[256];
+
+    /** {@link #ENCODED} with line breaks kept, for encoding a file line by line. */
+    private static final byte[] ENCODED_LINES;
+
+    static {
+        for (int b = 0; b < 256; b++) {
+            HEX_VALUES[b] = (byte) Character.digit(b, 16);
+            DECODED[b] = (byte) (b == '+' ? ' ' : b);
+            boolean plain = b >= 'a' && b <= 'z' || b >= 'A' && b <= 'Z' || b >= '0' && b <= '9'
+                    || b == '.' || b == '-' || b == '*' || b == '_';
+            ENCODED[b] = (byte) (plain ? b : b == ' ' ? '+' : 0);
+        }
+        ENCODED_LINES = ENCODED.clone();
+        ENCODED_LINES['\n'] = '\n';
+        ENCODED_LINES['\r'] = '\r';
+    }
+
+    private PercentCodec() {
+    }
+
+    /** "Decode URL" */
+    public static String decode(String input) {
+        if (input == null) return "";
+        if (input.indexOf('%') < 0 && input.indexOf('+') < 0) return input;
+        byte[] bytes = input.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer out = ByteBuffer.allocate(bytes.length);
+        decode(ByteBuffer.wrap(bytes), out, true);
+        return new String(out.array(), 0, out.position(), StandardCharsets.UTF_8);
+    }
+
+    /** "Encode URL" */
+    public static String encode(String input) {
+        if (input == null) return "";
+        int i = 0;
+        while (i < input.length() && input.charAt(i) < 0x80 && ENCODED[input.charAt(i)] == input.charAt(i)) i++;
+        if (i == input.length()) return input;
+        byte[] bytes = input.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer out = ByteBuffer.allocate(bytes.length * 3);
+        encode(ByteBuffer.wrap(bytes), out, false);
+        return new String(out.array(), 0, out.position(), StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Decodes from {@code in} into {@code out} until one runs out.  Unless {@code endOfInput}, a '%' too near the end
+     * of {@code in} to tell whether it is an escape is left there for the next call.
+     */
+    public static void decode(ByteBuffer in, ByteBuffer out, boolean endOfInput) {
+        int i = in.position();
+        int limit = in.limit();
+        int o = out.position();
+        int outLimit = out.limit();
+        while (i < limit && o < outLimit) {
+            byte b = in.get(i);
+            if (b == '%') {
+                if (i + 2 < limit) {
+                    int high = HEX_VALUES[in.get(i + 1) & 0xFF];
+                    int low = HEX_VALUES[in.get(i + 2) & 0xFF];
+                    if ((high | low) >= 0) {
+                        out.put(o++, (byte) (high << 4 | low));
+                        i += 3;
+                        continue;
+                    }
+                } else if (!endOfInput) {
+                    break;
+                }
+                // Not an escape, so it's just a '%'.
+                out.put(o++, b);
+            } else {
+                out.put(o++, DECODED[b & 0xFF]);
+            }
+            i++;
+        }
+        in.position(i);
+        out.position(o);
+    }
+
+    /**
+     * Encodes from {@code in} into {@code out} until {@code in} is empty or {@code out} is too full for the next
+     * byte.  With {@code lines}, line breaks are copied rather than encoded, so each line is encoded on its own.
+     */
+    public static void encode(ByteBuffer in, ByteBuffer out, boolean lines) {
+        byte[] table = lines ? ENCODED_LINES : ENCODED;
+        int i = in.position();
+        int limit = in.limit();
+        int o = out.position();
+        int outLimit = out.limit();
+        while (i < limit) {
+            int b = in.get(i) & 0xFF;
+            byte plain = table[b];
+            if (plain != 0) {
+                if (o == outLimit) break;
+                out.put(o++, plain);
+            } else {
+                if (o + 3 > outLimit) break;
+                out.put(o, (byte) '%');
+                out.put(o + 1, HEX_DIGITS[b >>> 4]);
+                out.put(o + 2, HEX_DIGITS[b & 0xF]);
+                o += 3;
+            }
+            i++;
+        }
+        in.position(i);
+        out.position(o);
+    }
+
+    /**
+     * Decodes all of {@code in} to {@code out} in fixed-size buffers.  Neither channel is closed.
+     *
+     * @return the last byte written, or -1 if there was nothing to write
+     */
+    public static int decode(ReadableByteChannel in, WritableByteChannel out) throws IOException {
+        return copy(in, out, true, false);
+    }
+
+    /**
+     * Encodes all of {@code in} to {@code out} in fixed-size buffers, keeping line breaks with {@code lines}.  Neither
+     * channel is closed.
+     *
+     * @return the last byte written, or -1 if there was nothing to write
+     */
+    public static int encode(ReadableByteChannel in, WritableByteChannel out, boolean lines) throws IOException {
+        return copy(in, out, false, lines);
+    }
+
+    private static int copy(ReadableByteChannel in, WritableByteChannel out, boolean decode, boolean lines)
+            throws IOException {
+        ByteBuffer input = ByteBuffer.allocate(BUFFER_SIZE);
+        ByteBuffer output = ByteBuffer.allocate(decode ? BUFFER_SIZE : BUFFER_SIZE * 3);
+        int last = -1;
+        boolean end = false;
+        while (!end) {
+            end = in.read(input) == -1;
+            input.flip();
+            if (decode) {
+                decode(input, output, end);
+            } else {
+                encode(input, output, lines);
+            }
+            input.compact();
+            output.flip();
+            if (output.hasRemaining()) last = output.get(output.limit() - 1) & 0xFF;
+            while (output.hasRemaining()) {
+                out.write(output);
+            }
+            output.clear();
+        }
+        return last;
+    }
+
+}
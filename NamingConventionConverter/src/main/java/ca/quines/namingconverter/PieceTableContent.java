@@ -0,0 +1,427 @@
+package ca.quines.namingconverter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.eclipse.swt.custom.StyledTextContent;
+import org.eclipse.swt.custom.TextChangeListener;
+import org.eclipse.swt.custom.TextChangedEvent;
+import org.eclipse.swt.custom.TextChangingEvent;
+
+/**
+ * The text behind the main editor, as a piece table: the text that was set is kept as it is, everything typed or
+ * pasted since is appended to a second buffer, and the document is a list of pieces of the two.  An edit only splits
+ * the pieces around it, so changing a few lines of a 200 MB document copies a few lines, not 200 MB.
+ * <p>
+ * Line starts are kept in a sorted array with a gap at the last edit, so that typing only moves the entries between
+ * one edit and the next.  A line ends at \n, \r\n or a lone \r.  Like SWT's default content, a replacement may not
+ * split a \r\n.  Use it from the UI thread.
+ */
+public class PieceTableContent implements StyledTextContent, UndoHistory.Document {
+
+    private record Piece(boolean added, int start, int length) {}
+
+    private final ArrayList<TextChangeListener> listeners = new ArrayList<>();
+
+    private String original = "";
+    private final StringBuilder added = new StringBuilder();
+    /** How much of {@link #added} is still in a piece; the rest is text that was since replaced. */
+    private int liveAdded;
+    private final ArrayList<Piece> pieces = new ArrayList<>();
+    /** The offset of each piece, rebuilt after edits when it is next needed. */
+    private int[] pieceStarts = new int[0];
+    private boolean pieceStartsValid = true;
+    private int charCount;
+
+    private final LineIndex lineStarts = new LineIndex();
+    private String lineDelimiter = System.lineSeparator();
+
+    @Override
+    public void addTextChangeListener(TextChangeListener listener) {
+        if (listener == null) throw new IllegalArgumentException("The listener is null.");
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeTextChangeListener(TextChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public int getCharCount() {
+        return charCount;
+    }
+
+    @Override
+    public int getLineCount() {
+        return lineStarts.size() + 1;
+    }
+
+    /** The delimiter of the first line of the text that was set, or the platform's if it had none. */
+    @Override
+    public String getLineDelimiter() {
+        return lineDelimiter;
+    }
+
+    @Override
+    public int getLineAtOffset(int offset) {
+        checkRange(offset, 0);
+        // The number of line starts, other than 0, at or before the offset.
+        return lineStarts.upperBound(offset);
+    }
+
+    @Override
+    public int getOffsetAtLine(int lineIndex) {
+        if (lineIndex == 0) return 0;
+        if (lineIndex < 0 || lineIndex >= getLineCount()) {
+            throw new IllegalArgumentException("No line " + lineIndex + " in " + getLineCount() + " lines.");
+        }
+        return lineStarts.get(lineIndex - 1);
+    }
+
+    /** The line without its delimiter. */
+    @Override
+    public String getLine(int lineIndex) {
+        int start = getOffsetAtLine(lineIndex);
+        int end = lineIndex + 1 < getLineCount() ? lineStarts.get(lineIndex) : charCount;
+        if (end > start && charAt(end - 1) == '\n') end--;
+        if (end > start && charAt(end - 1) == '\r') end--;
+        return getTextRange(start, end - start);
+    }
+
+    @Override
+    public String getTextRange(int start, int length) {
+        checkRange(start, length);
+        if (length == 0) return "";
+        StringBuilder sb = new StringBuilder(length);
+        appendRange(sb, start, length);
+        return sb.toString();
+    }
+
+    /** Appends {@code length} characters from {@code start} to {@code sb}, straight from the buffers. */
+    public void appendRange(StringBuilder sb, int start, int length) {
+        checkRange(start, length);
+        int i = findPiece(start);
+        int offset = start - pieceStarts[i];
+        int remaining = length;
+        while (remaining > 0) {
+            Piece piece = pieces.get(i++);
+            int n = Math.min(piece.length() - offset, remaining);
+            if (piece.added()) {
+                sb.append(added, piece.start() + offset, piece.start() + offset + n);
+            } else {
+                sb.append(original, piece.start() + offset, piece.start() + offset + n);
+            }
+            remaining -= n;
+            offset = 0;
+        }
+    }
+
+    @Override
+    public void replaceTextRange(int start, int replaceLength, String text) {
+        checkRange(start, replaceLength);
+        if (splitsDelimiter(start) || splitsDelimiter(start + replaceLength)) {
+            throw new IllegalArgumentException("A replacement can't split a \\r\\n line delimiter.");
+        }
+
+        TextChangingEvent event = new TextChangingEvent(this);
+        event.start = start;
+        event.newText = text;
+        event.replaceCharCount = replaceLength;
+        event.newCharCount = text.length();
+        event.replaceLineCount = lineStarts.upperBound(start + replaceLength) - lineStarts.upperBound(start);
+        event.newLineCount = countDelimiters(text);
+        for (TextChangeListener listener : new ArrayList<>(listeners)) {
+            listener.textChanging(event);
+        }
+
+        replacePieces(start, replaceLength, text);
+        updateLineStarts(start, replaceLength, text);
+
+        TextChangedEvent changed = new TextChangedEvent(this);
+        for (TextChangeListener listener : new ArrayList<>(listeners)) {
+            listener.textChanged(changed);
+        }
+    }
+
+    /**
+     * Replaces {@code from}, the text at {@code offset}, with {@code to}.  Only what lies between their common prefix
+     * and suffix is replaced, so the editor only redraws what actually changed.
+     */
+    public void replaceChanged(int offset, String from, String to) {
+        int limit = Math.min(from.length(), to.length());
+        int prefix = 0;
+        while (prefix < limit && from.charAt(prefix) == to.charAt(prefix)) prefix++;
+        int suffix = 0;
+        while (suffix < limit - prefix
+                && from.charAt(from.length() - 1 - suffix) == to.charAt(to.length() - 1 - suffix)) suffix++;
+        // Widen the range rather than split a \r\n.
+        if (prefix > 0 && from.charAt(prefix - 1) == '\r' && prefix < from.length() && from.charAt(prefix) == '\n') {
+            prefix--;
+        }
+        int end = from.length() - suffix;
+        if (suffix > 0 && end > prefix && from.charAt(end - 1) == '\r' && from.charAt(end) == '\n') suffix--;
+        if (prefix == from.length() && prefix == to.length()) return;
+        replaceTextRange(offset + prefix, from.length() - prefix - suffix, to.substring(prefix, to.length() - suffix));
+    }
+
+    @Override
+    public void setText(String text) {
+        original = text;
+        added.setLength(0);
+        added.trimToSize();
+        liveAdded = 0;
+        pieces.clear();
+        if (!text.isEmpty()) pieces.add(new Piece(false, 0, text.length()));
+        pieceStartsValid = false;
+        charCount = text.length();
+
+        IntList starts = new IntList(Math.max(16, text.length() / 64));
+        findLineStarts('\0', text, '\0', 0, starts);
+        lineStarts.reset(starts.values, starts.size);
+        lineDelimiter = firstDelimiter(text);
+
+        TextChangedEvent event = new TextChangedEvent(this);
+        for (TextChangeListener listener : new ArrayList<>(listeners)) {
+            listener.textSet(event);
+        }
+    }
+
+    /** The number of pieces, which grows with edits that aren't next to each other. */
+    int pieceCount() {
+        return pieces.size();
+    }
+
+    /** The number of characters held in the buffers, live or not. */
+    int bufferLength() {
+        return original.length() + added.length();
+    }
+
+    private void replacePieces(int start, int replaceLength, String text) {
+        int first = split(start);
+        int last = split(start + replaceLength);
+        for (int i = first; i < last; i++) {
+            Piece piece = pieces.get(i);
+            if (piece.added()) liveAdded -= piece.length();
+        }
+        pieces.subList(first, last).clear();
+
+        if (!text.isEmpty()) {
+            Piece previous = first > 0 ? pieces.get(first - 1) : null;
+            if (previous != null && previous.added() && previous.start() + previous.length() == added.length()) {
+                // Typing: each character carries on the piece of the one before it.
+                pieces.set(first - 1, new Piece(true, previous.start(), previous.length() + text.length()));
+            } else {
+                pieces.add(first, new Piece(true, added.length(), text.length()));
+            }
+            added.append(text);
+            liveAdded += text.length();
+        }
+        charCount += text.length() - replaceLength;
+        pieceStartsValid = false;
+        if (added.length() - liveAdded > charCount) compact();
+    }
+
+    /**
+     * Copies the document into a fresh original buffer and empties the added one, once the text replaced since it
+     * was set outweighs the document.  Whole-text transforms, their undos and redos would otherwise each keep another
+     * copy of the document for good.
+     */
+    private void compact() {
+        StringBuilder sb = new StringBuilder(charCount);
+        if (charCount > 0) appendRange(sb, 0, charCount);
+        original = sb.toString();
+        added.setLength(0);
+        added.trimToSize();
+        liveAdded = 0;
+        pieces.clear();
+        if (charCount > 0) pieces.add(new Piece(false, 0, charCount));
+        pieceStartsValid = false;
+    }
+
+    /** Splits the piece containing {@code offset} there, and returns the index of the piece that starts at it. */
+    private int split(int offset) {
+        if (offset == charCount) return pieces.size();
+        int i = findPiece(offset);
+        int into = offset - pieceStarts[i];
+        if (into == 0) return i;
+        Piece piece = pieces.get(i);
+        pieces.set(i, new Piece(piece.added(), piece.start(), into));
+        pieces.add(i + 1, new Piece(piece.added(), piece.start() + into, piece.length() - into));
+        pieceStartsValid = false;
+        return i + 1;
+    }
+
+    /** The index of the piece containing {@code offset}, or the number of pieces at the very end. */
+    private int findPiece(int offset) {
+        if (!pieceStartsValid) {
+            if (pieceStarts.length < pieces.size() + 1) pieceStarts = new int[pieces.size() * 2 + 1];
+            int position = 0;
+            for (int i = 0; i < pieces.size(); i++) {
+                pieceStarts[i] = position;
+                position += pieces.get(i).length();
+            }
+            pieceStarts[pieces.size()] = position;
+            pieceStartsValid = true;
+        }
+        int i = Arrays.binarySearch(pieceStarts, 0, pieces.size() + 1, offset);
+        // Exact hits on empty-length ranges can't happen: pieces are never empty.
+        return i >= 0 ? i : -i - 2;
+    }
+
+    private char charAt(int offset) {
+        int i = findPiece(offset);
+        Piece piece = pieces.get(i);
+        int index = piece.start() + offset - pieceStarts[i];
+        return piece.added() ? added.charAt(index) : original.charAt(index);
+    }
+
+    /** Redoes the line starts from {@code start} to the end of the new text; those after it only move. */
+    private void updateLineStarts(int start, int replaceLength, String text) {
+        int from = lineStarts.lowerBound(start);
+        int to = lineStarts.upperBound(start + replaceLength);
+        char before = start > 0 ? charAt(start - 1) : '\0';
+        int end = start + text.length();
+        char after = end < charCount ? charAt(end) : '\0';
+
+        IntList starts = new IntList(16);
+        findLineStarts(before, text, after, start, starts);
+        lineStarts.replace(from, to, starts.values, starts.size, text.length() - replaceLength);
+    }
+
+    /**
+     * Adds the line starts at offsets {@code start} to {@code start + text.length()}, where {@code text} is at
+     * {@code start} between the characters {@code before} and {@code after} ('\0' at either end of the document).
+     * A line starts after \n, and after \r unless \n follows.
+     */
+    private static void findLineStarts(char before, String text, char after, int start, IntList starts) {
+        char previous = before;
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : after;
+            if (previous == '\n' || (previous == '\r' && c != '\n')) starts.add(start + i);
+            previous = c;
+        }
+    }
+
+    private boolean splitsDelimiter(int offset) {
+        return offset > 0 && offset < charCount && charAt(offset - 1) == '\r' && charAt(offset) == '\n';
+    }
+
+    private static int countDelimiters(String text) {
+        int count = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\n') {
+                count++;
+            } else if (c == '\r') {
+                count++;
+                if (i + 1 < text.length() && text.charAt(i + 1) == '\n') i++;
+            }
+        }
+        return count;
+    }
+
+    private static String firstDelimiter(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\n') return "\n";
+            if (c == '\r') return i + 1 < text.length() && text.charAt(i + 1) == '\n' ? "\r\n" : "\r";
+        }
+        return System.lineSeparator();
+    }
+
+    private void checkRange(int start, int length) {
+        if (start < 0 || length < 0 || start > charCount - length) {
+            throw new IllegalArgumentException("Range " + start + "+" + length + " is outside 0-" + charCount + ".");
+        }
+    }
+
+    private static final class IntList {
+
+        int[] values;
+        int size;
+
+        IntList(int capacity) {
+            values = new int[capacity];
+        }
+
+        void add(int value) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2 + 16);
+            values[size++] = value;
+        }
+
+    }
+
+    /**
+     * Sorted offsets with a gap where the last change was.  Entries after the gap are stored less {@link #shift}, so
+     * that a change moves every later offset at once.
+     */
+    static final class LineIndex {
+
+        private int[] a = new int[16];
+        private int gapStart;
+        private int gapEnd = a.length;
+        private int shift;
+
+        int size() {
+            return a.length - (gapEnd - gapStart);
+        }
+
+        int get(int i) {
+            return i < gapStart ? a[i] : a[i + gapEnd - gapStart] + shift;
+        }
+
+        /** The number of entries less than {@code value}. */
+        int lowerBound(int value) {
+            int low = 0;
+            int high = size();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (get(mid) < value) low = mid + 1; else high = mid;
+            }
+            return low;
+        }
+
+        /** The number of entries less than or equal to {@code value}. */
+        int upperBound(int value) {
+            return lowerBound(value + 1);
+        }
+
+        void reset(int[] values, int count) {
+            a = Arrays.copyOf(values, Math.max(16, count + count / 8 + 16));
+            gapStart = count;
+            gapEnd = a.length;
+            shift = 0;
+        }
+
+        /** Replaces the entries from {@code from} up to {@code to} with {@code values}, and moves the rest by delta. */
+        void replace(int from, int to, int[] values, int count, int delta) {
+            moveGap(to);
+            gapStart = from;
+            shift += delta;
+            if (gapEnd - gapStart < count) grow(count);
+            System.arraycopy(values, 0, a, gapStart, count);
+            gapStart += count;
+        }
+
+        private void moveGap(int index) {
+            while (gapStart > index) {
+                a[--gapEnd] = a[--gapStart] - shift;
+            }
+            while (gapStart < index) {
+                a[gapStart++] = a[gapEnd++] + shift;
+            }
+        }
+
+        private void grow(int needed) {
+            int tail = a.length - gapEnd;
+            int[] grown = new int[Math.max(a.length * 2, gapStart + needed + tail + 16)];
+            System.arraycopy(a, 0, grown, 0, gapStart);
+            System.arraycopy(a, gapEnd, grown, grown.length - tail, tail);
+            gapEnd = grown.length - tail;
+            a = grown;
+        }
+
+    }
+
+}
@@ -0,0 +1,222 @@
+package ca.quines.namingconverter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.regex.Pattern;
+
+import ca.quines.namingconverter.Operation.Granularity;
+
+/**
+ * A named list of {@link Operation}s that is applied as one transformation, e.g. "Change Underscores to Spaces" then
+ * "Spaces to camelCase" then "lowercase First Character".
+ * <p>
+ * Adjacent steps are fused where their {@link Granularity} allows it: a run of per-character steps becomes one pass
+ * over the text, and a run of per-line steps is applied line by line in a single pass, instead of every step copying
+ * the whole text.  Steps that need the whole text run on their own.
+ * <p>
+ * Recipes are saved as plain text files with one {@link Operation#cliName()} per line, so the same file can be
+ * replayed from the GUI and from {@code BatchConverter --recipe}.
+ */
+public final class Recipe implements Transformation {
+
+    public static final String FILE_EXTENSION = ".recipe";
+
+    private static final Pattern VALID_NAME = Pattern.compile("[\\w -]+");
+
+    private final String name;
+    private final List<Operation> steps;
+    private final List<Stage> stages;
+
+    public Recipe(String name, List<Operation> steps) {
+        if (name == null || !VALID_NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("Recipe names may only contain letters, digits, spaces, '_' and '-': " + name);
+        }
+        this.name = name;
+        this.steps = List.copyOf(steps);
+        this.stages = fuse(this.steps);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public List<Operation> steps() {
+        return steps;
+    }
+
+    /** The number of passes over the text after fusing, which is at most the number of steps. */
+    public int passes() {
+        return stages.size();
+    }
+
+    @Override
+    public boolean joinsLines() {
+        for (Operation step : steps) {
+            if (step.joinsLines()) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean joinsValues() {
+        for (Operation step : steps) {
+            if (step.joinsValues()) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public String apply(String input) {
+        String text = input == null ? "" : input;
+        for (Stage stage : stages) {
+            // Lets a cancelled background run stop between passes.
+            if (Thread.currentThread().isInterrupted()) throw new CancellationException();
+            text = stage.apply(text);
+        }
+        return text;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    /** Writes the recipe to {@code <directory>/<name>.recipe} and returns that path. */
+    public Path save(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        List<String> lines = new ArrayList<>(steps.size() + 1);
+        lines.add("# " + name);
+        for (Operation step : steps) {
+            lines.add(step.cliName());
+        }
+        return Files.write(directory.resolve(name + FILE_EXTENSION), lines, StandardCharsets.UTF_8);
+    }
+
+    /** Reads a recipe file; the recipe is named after the file. */
+    public static Recipe load(Path file) throws IOException {
+        String fileName = file.getFileName().toString();
+        String name = fileName.endsWith(FILE_EXTENSION)
+                ? fileName.substring(0, fileName.length() - FILE_EXTENSION.length())
+                : fileName;
+        List<Operation> steps = new ArrayList<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) continue;
+            steps.add(Operation.forName(trimmed));
+        }
+        return new Recipe(name, steps);
+    }
+
+    /** The recipes saved in {@code directory}, sorted by name.  A missing directory has no recipes. */
+    public static List<Recipe> loadAll(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) return Collections.emptyList();
+        List<Recipe> recipes = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + FILE_EXTENSION)) {
+            for (Path file : files) {
+                recipes.add(load(file));
+            }
+        }
+        recipes.sort((a, b) -> a.name.compareToIgnoreCase(b.name));
+        return recipes;
+    }
+
+    /** Where the GUI keeps its recipes: ~/.naming-convention-converter/recipes */
+    public static Path defaultDirectory() {
+        return Path.of(System.getProperty("user.home"), ".naming-convention-converter", "recipes");
+    }
+
+    // Fusion
+
+    private interface Stage {
+        String apply(String text);
+    }
+
+    private static List<Stage> fuse(List<Operation> steps) {
+        List<Stage> stages = new ArrayList<>();
+        int i = 0;
+        while (i < steps.size()) {
+            Operation step = steps.get(i);
+            if (!isFusable(step)) {
+                stages.add(step::apply);
+                i++;
+                continue;
+            }
+
+            int end = i;
+            boolean allCharacters = true;
+            while (end < steps.size() && isFusable(steps.get(end))) {
+                allCharacters &= steps.get(end).granularity() == Granularity.CHARACTER;
+                end++;
+            }
+            List<Operation> run = steps.subList(i, end);
+            stages.add(run.size() == 1 ? step::apply : allCharacters ? new CharacterStage(run) : new LineStage(run));
+            i = end;
+        }
+        return stages;
+    }
+
+    private static boolean isFusable(Operation step) {
+        return step.granularity() == Granularity.CHARACTER || step.granularity() == Granularity.LINE;
+    }
+
+    /** Several per-character steps in one pass over the characters. */
+    private static final class CharacterStage implements Stage {
+
+        private final Operation[] steps;
+
+        CharacterStage(List<Operation> steps) {
+            this.steps = steps.toArray(new Operation[0]);
+        }
+
+        @Override
+        public String apply(String text) {
+            char[] chars = text.toCharArray();
+            for (int i = 0; i < chars.length; i++) {
+                char c = chars[i];
+                for (Operation step : steps) {
+                    c = step.mapChar(c);
+                }
+                chars[i] = c;
+            }
+            return new String(chars);
+        }
+
+    }
+
+    /** Several per-line steps in one pass over the lines, so only one line at a time is copied between steps. */
+    private static final class LineStage implements Stage {
+
+        private final Operation[] steps;
+
+        LineStage(List<Operation> steps) {
+            this.steps = steps.toArray(new Operation[0]);
+        }
+
+        @Override
+        public String apply(String text) {
+            StringBuilder sb = new StringBuilder(text.length() + (text.length() >> 3));
+            int lineStart = 0;
+            while (true) {
+                int newline = text.indexOf('\n', lineStart);
+                String line = text.substring(lineStart, newline < 0 ? text.length() : newline);
+                for (Operation step : steps) {
+                    line = step.apply(line);
+                }
+                sb.append(line);
+                if (newline < 0) break;
+                sb.append('\n');
+                lineStart = newline + 1;
+            }
+            return sb.toString();
+        }
+
+    }
+
+}
@@ -0,0 +1,64 @@
+package ca.quines.namingconverter;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The Regex tab's replace: cached patterns, a time limit on each replace, and a count of what was replaced.
+ */
+public class RegexReplacer {
+
+    /** Default time limit, overridable with -Dncc.regex.timeoutSeconds=... */
+    public static final long DEFAULT_TIMEOUT_MILLIS = Long.getLong("ncc.regex.timeoutSeconds", 10) * 1000;
+
+    private static final int CACHE_SIZE = 64;
+
+    /** The outcome of one {@link RegexReplacer#replaceAll}. */
+    public record Result(String text, int matches, long elapsedNanos) {
+
+        public long elapsedMillis() {
+            return elapsedNanos / 1_000_000;
+        }
+
+    }
+
+    private final PatternCache patternCache = new PatternCache(CACHE_SIZE);
+    private final long timeoutMillis;
+
+    public RegexReplacer() {
+        this(DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    public RegexReplacer(long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Like {@link String#replaceAll(String, String)}, but throws {@link GuardedCharSequence.RegexTimeoutException} once
+     * the time limit passes, and {@link java.util.concurrent.CancellationException} if the thread is interrupted.
+     */
+    public Result replaceAll(String input, String regex, int flags, String replacement) {
+        long start = System.nanoTime();
+        Pattern pattern = patternCache.get(regex, flags);
+        Matcher matcher = pattern.matcher(new GuardedCharSequence(input, timeoutMillis));
+
+        int matches = 0;
+        StringBuilder sb = null;
+        while (matcher.find()) {
+            if (sb == null) sb = new StringBuilder(input.length() + 16);
+            matcher.appendReplacement(sb, replacement);
+            matches++;
+        }
+        String result = input;
+        if (sb != null) {
+            matcher.appendTail(sb);
+            result = sb.toString();
+        }
+        return new Result(result, matches, System.nanoTime() - start);
+    }
+
+    PatternCache patternCache() {
+        return patternCache;
+    }
+
+}
@@ -0,0 +1,353 @@
+package ca.quines.namingconverter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * A table of find/replace rules, such as a map of legacy column names to new ones, applied in one left-to-right scan
+ * instead of one pass over the text per rule.
+ * <p>
+ * Literal rules are matched together with an {@link AhoCorasick} automaton, and regex rules are combined into one
+ * alternation with a named group per rule.  Where matches overlap, the one that starts first wins; at the same start
+ * the longest wins, and after that the rule that comes first in the table.  (Regex rules that match at the same start
+ * are tried in table order, the way any alternation is.)  Replaced text is never scanned again, so one rule can't
+ * rewrite another rule's output.
+ * <p>
+ * Rules files have one rule per line: the find text, a tab, the replacement, and optionally a tab and {@code regex}.
+ * Blank lines and lines starting with '#' are ignored.  Regex replacements may use $1 and ${name} like
+ * {@link Matcher#replaceAll(String)}; literal replacements are used as is.
+ * <p>
+ * The command line applies the rules one line at a time, so there a rule can't match across a line break.
+ */
+public final class ReplacementRules implements Transformation {
+
+    public static final String FILE_EXTENSION = ".rules";
+
+    /** One row of the table. */
+    public record Rule(String find, String replacement, boolean regex) {
+
+        public Rule {
+            if (find == null || find.isEmpty()) throw new IllegalArgumentException("A rule needs something to find.");
+            if (replacement == null) replacement = "";
+        }
+
+    }
+
+    private final List<Rule> rules;
+
+    private final AhoCorasick literals;
+    /** Index into {@link #rules} of each literal pattern. */
+    private final int[] literalRules;
+
+    private final Pattern combined;
+    /** Index into {@link #rules} of each regex alternative. */
+    private final int[] regexRules;
+    /** The combined pattern's group number for each regex alternative; its own groups follow it. */
+    private final int[] regexGroups;
+    private final Replacement[] regexReplacements;
+
+    private final long timeoutMillis;
+
+    public ReplacementRules(List<Rule> rules) {
+        this(rules, RegexReplacer.DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    ReplacementRules(List<Rule> rules, long timeoutMillis) {
+        this.rules = List.copyOf(rules);
+        this.timeoutMillis = timeoutMillis;
+
+        List<String> literalPatterns = new ArrayList<>();
+        List<Integer> literalIndexes = new ArrayList<>();
+        List<Integer> regexIndexes = new ArrayList<>();
+        for (int i = 0; i < this.rules.size(); i++) {
+            if (this.rules.get(i).regex()) {
+                regexIndexes.add(i);
+            } else {
+                literalPatterns.add(this.rules.get(i).find());
+                literalIndexes.add(i);
+            }
+        }
+
+        literals = literalPatterns.isEmpty() ? null : new AhoCorasick(literalPatterns);
+        literalRules = literalIndexes.stream().mapToInt(Integer::intValue).toArray();
+
+        regexRules = regexIndexes.stream().mapToInt(Integer::intValue).toArray();
+        regexGroups = new int[regexRules.length];
+        regexReplacements = new Replacement[regexRules.length];
+        StringBuilder alternation = new StringBuilder();
+        int group = 1;
+        for (int k = 0; k < regexRules.length; k++) {
+            Rule rule = this.rules.get(regexRules[k]);
+            int groupCount;
+            try {
+                groupCount = Pattern.compile(rule.find()).matcher("").groupCount();
+            } catch (PatternSyntaxException e) {
+                throw new IllegalArgumentException("Invalid Regex in rule " + (regexRules[k] + 1) + ": " + e.getMessage(), e);
+            }
+            if (k > 0) alternation.append('|');
+            alternation.append("(?<nccRule").append(k).append('>')
+                       .append(shiftBackReferences(rule.find(), group, groupCount)).append(')');
+            regexGroups[k] = group;
+            regexReplacements[k] = Replacement.parse(rule.replacement(), group, groupCount);
+            group += 1 + groupCount;
+        }
+        try {
+            combined = regexRules.length == 0 ? null : Pattern.compile(alternation.toString());
+        } catch (PatternSyntaxException e) {
+            // e.g. two rules that use the same group name.
+            throw new IllegalArgumentException("The regex rules can't be combined: " + e.getDescription(), e);
+        }
+    }
+
+    /** Reads a rules file. */
+    public static ReplacementRules load(Path file) throws IOException {
+        return parse(Files.readAllLines(file, StandardCharsets.UTF_8));
+    }
+
+    /** Parses the lines of a rules file. */
+    public static ReplacementRules parse(List<String> lines) {
+        List<Rule> rules = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            if (line.isBlank() || line.startsWith("#")) continue;
+            String[] fields = line.split("\t", -1);
+            if (fields.length < 2 || fields.length > 3 || (fields.length == 3 && !fields[2].trim().equalsIgnoreCase("regex"))) {
+                throw new IllegalArgumentException("Line " + (i + 1)
+                        + ": expected <find><tab><replacement>, optionally followed by <tab>regex: " + line);
+            }
+            try {
+                rules.add(new Rule(fields[0], fields[1], fields.length == 3));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Line " + (i + 1) + ": " + e.getMessage(), e);
+            }
+        }
+        return new ReplacementRules(rules);
+    }
+
+    public List<Rule> rules() {
+        return rules;
+    }
+
+    public int size() {
+        return rules.size();
+    }
+
+    @Override
+    public boolean joinsLines() {
+        return false;
+    }
+
+    /** The same in the GUI and for --rules, whichever file the rules came from. */
+    @Override
+    public String metricName() {
+        return "rules";
+    }
+
+    @Override
+    public String apply(String input) {
+        return replaceAll(input == null ? "" : input).text();
+    }
+
+    /**
+     * Applies every rule in one scan.  Throws {@link GuardedCharSequence.RegexTimeoutException} if the regex rules run
+     * past the time limit, and {@link java.util.concurrent.CancellationException} if the thread is interrupted.
+     */
+    public RegexReplacer.Result replaceAll(String input) {
+        long startNanos = System.nanoTime();
+        int length = input.length();
+        Matcher matcher = combined == null ? null : combined.matcher(new GuardedCharSequence(input, timeoutMillis));
+
+        // The next match of each kind at or after pos, kept until pos passes its start.
+        long literal = literals == null ? -1 : literals.find(input, 0, length);
+        int regexStart = matcher != null && matcher.find(0) ? matcher.start() : -1;
+
+        StringBuilder sb = null;
+        int matches = 0;
+        int copied = 0;
+        int pos = 0;
+        while (literal >= 0 || regexStart >= 0) {
+            int literalStart = literal >= 0 ? (int) (literal >>> 32) : Integer.MAX_VALUE;
+            int literalEnd = literal >= 0 ? literalStart + literals.patternLength((int) literal) : 0;
+            int literalRule = literal >= 0 ? literalRules[(int) literal] : Integer.MAX_VALUE;
+
+            int regexAlternative = regexStart >= 0 ? alternative(matcher) : -1;
+            int start = regexStart >= 0 ? regexStart : Integer.MAX_VALUE;
+            int end = regexStart >= 0 ? matcher.end() : 0;
+            int regexRule = regexStart >= 0 ? regexRules[regexAlternative] : Integer.MAX_VALUE;
+
+            boolean useLiteral = literalStart < start
+                    || (literalStart == start && (literalEnd > end || (literalEnd == end && literalRule < regexRule)));
+
+            if (sb == null) sb = new StringBuilder(length + 16);
+            if (useLiteral) {
+                start = literalStart;
+                end = literalEnd;
+                sb.append(input, copied, start).append(rules.get(literalRule).replacement());
+            } else {
+                sb.append(input, copied, start);
+                regexReplacements[regexAlternative].appendTo(sb, matcher);
+            }
+            matches++;
+            copied = end;
+            pos = end;
+            if (start == end) {
+                // An empty regex match; step over a character so it isn't found again, like Matcher.replaceAll.
+                if (pos < length) sb.append(input.charAt(pos));
+                pos++;
+                copied = pos;
+            }
+            if (pos > length) break;
+
+            if (literal >= 0 && literalStart < pos) literal = literals.find(input, pos, length);
+            if (regexStart >= 0 && regexStart < pos) regexStart = matcher.find(pos) ? matcher.start() : -1;
+        }
+
+        String result = input;
+        if (sb != null) {
+            if (copied < length) sb.append(input, copied, length);
+            result = sb.toString();
+        }
+        return new RegexReplacer.Result(result, matches, System.nanoTime() - startNanos);
+    }
+
+    /** Which regex rule the matcher's current match came from. */
+    private int alternative(Matcher matcher) {
+        for (int k = 0; k < regexGroups.length; k++) {
+            if (matcher.start(regexGroups[k]) >= 0) return k;
+        }
+        throw new IllegalStateException("The match didn't come from any rule.");
+    }
+
+    /**
+     * Renumbers the back references in one rule's regex, e.g. \1, for its place in the combined pattern.  They are
+     * wrapped in (?:) so that a following digit isn't read as part of the new, longer number.
+     */
+    static String shiftBackReferences(String regex, int outerGroup, int groupCount) {
+        StringBuilder sb = new StringBuilder(regex.length() + 8);
+        int classDepth = 0;
+        int i = 0;
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            if (c == '\\' && i + 1 < regex.length()) {
+                char next = regex.charAt(i + 1);
+                if (next == 'Q') {
+                    // Quoted text runs to \E, or to the end.
+                    int quoteEnd = regex.indexOf("\\E", i + 2);
+                    int stop = quoteEnd < 0 ? regex.length() : quoteEnd + 2;
+                    sb.append(regex, i, stop);
+                    i = stop;
+                    continue;
+                }
+                if (classDepth == 0 && next >= '1' && next <= '9') {
+                    int ref = next - '0';
+                    int j = i + 2;
+                    // Like Pattern: more digits only while they still name a group.
+                    while (j < regex.length() && Character.isDigit(regex.charAt(j))
+                            && ref * 10 + (regex.charAt(j) - '0') <= groupCount) {
+                        ref = ref * 10 + (regex.charAt(j) - '0');
+                        j++;
+                    }
+                    sb.append("(?:\\").append(outerGroup + ref).append(')');
+                    i = j;
+                    continue;
+                }
+                sb.append(c).append(next);
+                i += 2;
+                continue;
+            }
+            if (c == '[') classDepth++;
+            else if (c == ']' && classDepth > 0) classDepth--;
+            sb.append(c);
+            i++;
+        }
+        return sb.toString();
+    }
+
+    /** A regex rule's replacement, parsed once: literal text and references to the rule's own groups. */
+    private static final class Replacement {
+
+        private final String[] literals;
+        /** The combined pattern's group number after each literal, or -1; a null name means use the number. */
+        private final int[] groups;
+        private final String[] names;
+
+        private Replacement(String[] literals, int[] groups, String[] names) {
+            this.literals = literals;
+            this.groups = groups;
+            this.names = names;
+        }
+
+        /** Follows the syntax of {@link Matcher#appendReplacement}: $n, ${name} and \ to escape. */
+        static Replacement parse(String replacement, int outerGroup, int groupCount) {
+            List<String> literals = new ArrayList<>();
+            List<Integer> groups = new ArrayList<>();
+            List<String> names = new ArrayList<>();
+            StringBuilder literal = new StringBuilder();
+            int i = 0;
+            while (i < replacement.length()) {
+                char c = replacement.charAt(i);
+                if (c == '\\') {
+                    if (++i == replacement.length()) {
+                        throw new IllegalArgumentException("The replacement ends with an unescaped \\: " + replacement);
+                    }
+                    literal.append(replacement.charAt(i++));
+                } else if (c == '$') {
+                    if (++i == replacement.length()) {
+                        throw new IllegalArgumentException("The replacement ends with an unescaped $: " + replacement);
+                    }
+                    if (replacement.charAt(i) == '{') {
+                        int close = replacement.indexOf('}', i);
+                        if (close < 0) throw new IllegalArgumentException("Missing } in the replacement: " + replacement);
+                        literals.add(literal.toString());
+                        groups.add(-1);
+                        names.add(replacement.substring(i + 1, close));
+                        i = close + 1;
+                    } else {
+                        if (!Character.isDigit(replacement.charAt(i))) {
+                            throw new IllegalArgumentException("$ must be followed by a group in the replacement: "
+                                    + replacement);
+                        }
+                        int ref = replacement.charAt(i++) - '0';
+                        if (ref > groupCount) {
+                            throw new IllegalArgumentException("No group " + ref + " in the rule: " + replacement);
+                        }
+                        while (i < replacement.length() && Character.isDigit(replacement.charAt(i))
+                                && ref * 10 + (replacement.charAt(i) - '0') <= groupCount) {
+                            ref = ref * 10 + (replacement.charAt(i++) - '0');
+                        }
+                        literals.add(literal.toString());
+                        groups.add(outerGroup + ref);
+                        names.add(null);
+                    }
+                    literal.setLength(0);
+                } else {
+                    literal.append(c);
+                    i++;
+                }
+            }
+            literals.add(literal.toString());
+            groups.add(-1);
+            names.add(null);
+            return new Replacement(literals.toArray(new String[0]),
+                    groups.stream().mapToInt(Integer::intValue).toArray(), names.toArray(new String[0]));
+        }
+
+        void appendTo(StringBuilder sb, Matcher matcher) {
+            for (int i = 0; i < literals.length; i++) {
+                sb.append(literals[i]);
+                String value = names[i] != null ? matcher.group(names[i])
+                        : groups[i] >= 0 ? matcher.group(groups[i]) : null;
+                if (value != null) sb.append(value);
+            }
+        }
+
+    }
+
+}
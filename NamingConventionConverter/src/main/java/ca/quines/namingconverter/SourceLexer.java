@@ -0,0 +1,207 @@
+package ca.quines.namingconverter;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Just enough of a lexer for Java and SQL source to find the identifiers: string literals, comments and numbers are
+ * skipped, so renaming identifiers never touches text inside quotes or comments.  In SQL, calls such as
+ * {@code TO_CHAR(...)} and built-in values such as {@code CURRENT_TIMESTAMP} are skipped too, since their names belong
+ * to the database; a name followed by a parenthesis right after TABLE, EXISTS, INTO, REFERENCES, ON or VIEW is a
+ * table.
+ */
+public enum SourceLexer {
+
+    JAVA(Set.of(
+            "abstract", "assert", "boolean", "break", "byte", "case", "catch", "char", "class", "const", "continue",
+            "default", "do", "double", "else", "enum", "extends", "final", "finally", "float", "for", "goto", "if",
+            "implements", "import", "instanceof", "int", "interface", "long", "native", "new", "package", "private",
+            "protected", "public", "return", "short", "static", "strictfp", "super", "switch", "synchronized", "this",
+            "throw", "throws", "transient", "try", "void", "volatile", "while", "true", "false", "null", "var",
+            "record", "yield", "sealed", "permits"), true),
+
+    SQL(Set.of(
+            "ADD", "ALL", "ALTER", "AND", "ANY", "AS", "ASC", "BEGIN", "BETWEEN", "BY", "CASE", "CAST", "CHECK",
+            "COLUMN", "COMMIT", "CONSTRAINT", "CREATE", "CROSS", "DEFAULT", "DELETE", "DESC", "DISTINCT", "DROP",
+            "ELSE", "END", "EXCEPT", "EXISTS", "FALSE", "FETCH", "FOR", "FOREIGN", "FROM", "FULL", "GRANT", "GROUP",
+            "HAVING", "IF", "IN", "INDEX", "INNER", "INSERT", "INTERSECT", "INTO", "IS", "JOIN", "KEY", "LEFT", "LIKE",
+            "LIMIT", "MERGE", "MINUS", "NATURAL", "NOT", "NULL", "OFFSET", "ON", "OR", "ORDER", "OUTER", "OVER",
+            "PARTITION", "PRIMARY", "REFERENCES", "RIGHT", "ROLLBACK", "ROWNUM", "SELECT", "SET", "SOME", "TABLE",
+            "THEN", "TO", "TRUE", "TRUNCATE", "UNION", "UNIQUE", "UPDATE", "USING", "VALUES", "VIEW", "WHEN", "WHERE",
+            "WITH",
+            "CHAR", "VARCHAR", "VARCHAR2", "NUMBER", "NUMERIC", "DECIMAL", "INTEGER", "INT", "BIGINT", "SMALLINT",
+            "DATE", "TIME", "TIMESTAMP", "CLOB", "BLOB", "BOOLEAN", "FLOAT", "DOUBLE", "REAL", "TEXT"), false);
+
+    /** SQL values that look like column names but are built in, matched in any case. */
+    private static final Set<String> SQL_BUILT_INS = Set.of(
+            "CURRENT_DATE", "CURRENT_TIME", "CURRENT_TIMESTAMP", "CURRENT_USER", "LOCALTIME", "LOCALTIMESTAMP",
+            "SESSION_USER", "SYSDATE", "SYSTIMESTAMP");
+
+    /** The words after which a name followed by a parenthesis is a table, not a function. */
+    private static final Set<String> SQL_TABLE_PREFIXES = Set.of("TABLE", "EXISTS", "INTO", "REFERENCES", "ON", "VIEW");
+
+    /** Called for every identifier, with its position in the text. */
+    @FunctionalInterface
+    public interface IdentifierVisitor {
+        void visit(int start, int end);
+    }
+
+    private final Set<String> keywords;
+    private final boolean caseSensitive;
+
+    SourceLexer(Set<String> keywords, boolean caseSensitive) {
+        this.keywords = keywords;
+        this.caseSensitive = caseSensitive;
+    }
+
+    /** The lexer for a file name's extension, or null if there is none. */
+    public static SourceLexer forFileName(String fileName) {
+        String lower = fileName.toLowerCase(Locale.ROOT);
+        if (lower.endsWith(".java")) return JAVA;
+        if (lower.endsWith(".sql")) return SQL;
+        return null;
+    }
+
+    /** Reserved words, which must never be renamed.  SQL keywords are matched in any case. */
+    public boolean isKeyword(String identifier) {
+        return keywords.contains(caseSensitive ? identifier : identifier.toUpperCase(Locale.ROOT));
+    }
+
+    /** Calls {@code visitor} for each identifier in {@code text}, in order. */
+    public void forEachIdentifier(CharSequence text, IdentifierVisitor visitor) {
+        if (this == JAVA) {
+            scanJava(text, visitor);
+        } else {
+            scanSql(text, visitor);
+        }
+    }
+
+    private static void scanJava(CharSequence text, IdentifierVisitor visitor) {
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            if (c == '/' && i + 1 < length && text.charAt(i + 1) == '/') {
+                i = lineEnd(text, i + 2);
+            } else if (c == '/' && i + 1 < length && text.charAt(i + 1) == '*') {
+                i = blockCommentEnd(text, i + 2);
+            } else if (c == '"' && startsWith(text, i, "\"\"\"")) {
+                i = textBlockEnd(text, i + 3);
+            } else if (c == '"' || c == '\'') {
+                i = javaQuoteEnd(text, i + 1, c);
+            } else if (c >= '0' && c <= '9') {
+                // 0x1F, 10L, 1e10, 1_000: none of it is an identifier.
+                i++;
+                while (i < length && (Character.isJavaIdentifierPart(text.charAt(i)) || text.charAt(i) == '.')) i++;
+            } else if (Character.isJavaIdentifierStart(c)) {
+                int start = i++;
+                while (i < length && Character.isJavaIdentifierPart(text.charAt(i))) i++;
+                visitor.visit(start, i);
+            } else {
+                i++;
+            }
+        }
+    }
+
+    private static void scanSql(CharSequence text, IdentifierVisitor visitor) {
+        int length = text.length();
+        int i = 0;
+        // The word before the current one, with schema.table counted as one word.
+        String previousWord = "";
+        while (i < length) {
+            char c = text.charAt(i);
+            if (c == '-' && i + 1 < length && text.charAt(i + 1) == '-') {
+                i = lineEnd(text, i + 2);
+            } else if (c == '/' && i + 1 < length && text.charAt(i + 1) == '*') {
+                i = blockCommentEnd(text, i + 2);
+            } else if (c == '\'' || c == '"' || c == '`') {
+                // Strings, and quoted identifiers, whose exact spelling matters, are left alone.
+                i = sqlQuoteEnd(text, i + 1, c);
+            } else if (c >= '0' && c <= '9') {
+                i++;
+                while (i < length && (isSqlIdentifierPart(text.charAt(i)) || text.charAt(i) == '.')) i++;
+            } else if (Character.isLetter(c) || c == '_') {
+                int start = i++;
+                while (i < length && isSqlIdentifierPart(text.charAt(i))) i++;
+                String word = text.subSequence(start, i).toString().toUpperCase(Locale.ROOT);
+                int next = i;
+                while (next < length && (text.charAt(next) == ' ' || text.charAt(next) == '\t')) next++;
+                boolean call = next < length && text.charAt(next) == '(' && !SQL_TABLE_PREFIXES.contains(previousWord);
+                if (!call && !SQL_BUILT_INS.contains(word)) {
+                    visitor.visit(start, i);
+                }
+                if (i == length || text.charAt(i) != '.') previousWord = word;
+            } else {
+                i++;
+            }
+        }
+    }
+
+    private static boolean isSqlIdentifierPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '#';
+    }
+
+    private static boolean startsWith(CharSequence text, int i, String prefix) {
+        if (i + prefix.length() > text.length()) return false;
+        for (int j = 0; j < prefix.length(); j++) {
+            if (text.charAt(i + j) != prefix.charAt(j)) return false;
+        }
+        return true;
+    }
+
+    private static int lineEnd(CharSequence text, int i) {
+        while (i < text.length() && text.charAt(i) != '\n' && text.charAt(i) != '\r') i++;
+        return i;
+    }
+
+    private static int blockCommentEnd(CharSequence text, int i) {
+        while (i + 1 < text.length() && !(text.charAt(i) == '*' && text.charAt(i + 1) == '/')) i++;
+        return Math.min(i + 2, text.length());
+    }
+
+    private static int textBlockEnd(CharSequence text, int i) {
+        while (i < text.length()) {
+            if (text.charAt(i) == '\\') {
+                i += 2;
+            } else if (startsWith(text, i, "\"\"\"")) {
+                return i + 3;
+            } else {
+                i++;
+            }
+        }
+        return text.length();
+    }
+
+    /** The end of a Java string or char literal; an unterminated one ends at the end of the line. */
+    private static int javaQuoteEnd(CharSequence text, int i, char quote) {
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            if (c == '\\') {
+                i += 2;
+            } else if (c == quote) {
+                return i + 1;
+            } else if (c == '\n' || c == '\r') {
+                return i;
+            } else {
+                i++;
+            }
+        }
+        return text.length();
+    }
+
+    /** The end of a SQL string or quoted identifier, where a doubled quote stands for itself. */
+    private static int sqlQuoteEnd(CharSequence text, int i, char quote) {
+        while (i < text.length()) {
+            if (text.charAt(i) == quote) {
+                if (i + 1 < text.length() && text.charAt(i + 1) == quote) {
+                    i += 2;
+                    continue;
+                }
+                return i + 1;
+            }
+            i++;
+        }
+        return text.length();
+    }
+
+}
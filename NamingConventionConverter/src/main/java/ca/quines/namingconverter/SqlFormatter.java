@@ -0,0 +1,450 @@
+package ca.quines.namingconverter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * "Clean Up Autogenerated SQL": lays out SQL logged by Hibernate and other ORMs so a person can read it, e.g.
+ *
+ * <pre>
+ * select this_.ID as ID1_0_0_, this_.NAME as NAME2_0_0_ from CUSTOMER this_ where this_.ID=?
+ * </pre>
+ *
+ * becomes
+ *
+ * <pre>
+ * SELECT
+ *     ID,
+ *     NAME
+ * FROM
+ *     CUSTOMER
+ * WHERE
+ *     ID = ?
+ * </pre>
+ *
+ * Whitespace is collapsed, keywords are uppercased, each clause starts a line with its contents indented below it, and
+ * subqueries are indented under the line that opens them.  Generated aliases such as {@code this_}, {@code customer0_},
+ * {@code ID1_0_} and Hibernate 6's {@code c1_0} are dropped, along with their dots and AS.  That is what makes the
+ * output readable, but in a join it leaves the columns without their tables: the result is for reading, not for
+ * running.  String literals, quoted identifiers and comments are copied exactly.
+ * <p>
+ * The text is read once, start to end, and written as it is read.  Apart from the output, memory only grows with the
+ * longest word and how deeply parentheses nest, so multi-megabyte logs format in linear time.
+ */
+public final class SqlFormatter {
+
+    private static final int INDENT = 4;
+
+    /** Keywords that start a clause on a line of their own. */
+    private static final Set<String> CLAUSES = Set.of(
+            "SELECT", "FROM", "WHERE", "GROUP", "ORDER", "HAVING", "INSERT", "UPDATE", "DELETE", "MERGE", "SET",
+            "VALUES", "WITH", "LIMIT", "OFFSET", "FETCH");
+
+    private static final Set<String> SET_OPERATORS = Set.of("UNION", "INTERSECT", "MINUS", "EXCEPT");
+
+    private static final Set<String> JOINS = Set.of("JOIN", "INNER", "LEFT", "RIGHT", "FULL", "CROSS", "NATURAL",
+            "OUTER");
+
+    /** Keywords that stay on the line of the keyword before them, e.g. ORDER BY, rather than starting a clause. */
+    private static final Map<String, Set<String>> CONTINUATIONS = Map.of(
+            "BY", Set.of("GROUP", "ORDER", "PARTITION"),
+            "ALL", Set.of("UNION", "SELECT"),
+            "DISTINCT", Set.of("SELECT"),
+            "INTO", Set.of("INSERT", "MERGE"),
+            "FROM", Set.of("DELETE"),
+            "UPDATE", Set.of("FOR"));
+
+    private SqlFormatter() {
+    }
+
+    /** The formatted form of {@code input}, or "" for null. */
+    public static String format(String input) {
+        if (input == null) return "";
+        StringBuilder sb = new StringBuilder(input.length() + (input.length() >> 2));
+        try {
+            format(input, sb);
+        } catch (IOException e) {
+            // StringBuilder never throws.
+            throw new UncheckedIOException(e);
+        }
+        return sb.toString();
+    }
+
+    /** Streaming form of {@link #format(String)}. */
+    public static void format(CharSequence input, Appendable out) throws IOException {
+        if (input == null) return;
+        new Scan(input, out).run();
+    }
+
+    /** What was written last, which decides the space before the next token. */
+    private enum Kind { NONE, WORD, KEYWORD, IDENTIFIER, OPEN, CLOSE, COMMA, DOT, OPERATOR, PREFIX, SEMICOLON }
+
+    private static final class Scan {
+
+        private final CharSequence in;
+        private final Appendable out;
+        private final int length;
+        private int i;
+
+        private Kind last = Kind.NONE;
+        private String lastWord = "";
+        private boolean atStart = true;
+        private int lineIndent;
+        /** The indent of the line the next token must start, or -1 to continue the current line. */
+        private int pendingNewline = -1;
+        private boolean pendingBlankLine;
+        /** A -- comment runs to the end of the line, so even a comma can't be put after it. */
+        private boolean inLineComment;
+        private boolean pendingAs;
+        /** The last identifier named a table, e.g. after INTO, so a parenthesis after it isn't a function call. */
+        private boolean tableName;
+        private boolean inBetween;
+
+        /** The indent of the clauses of the innermost subquery. */
+        private int base;
+        /** For each open parenthesis, -1, or the base it replaced if it opened a subquery. */
+        private int[] parens = new int[16];
+        private int depth;
+
+        Scan(CharSequence in, Appendable out) {
+            this.in = in;
+            this.out = out;
+            this.length = in.length();
+        }
+
+        void run() throws IOException {
+            while (i < length) {
+                Cancellation.check();
+                char c = in.charAt(i);
+                if (c <= ' ') {
+                    i++;
+                } else if (isWordStart(c)) {
+                    int start = i;
+                    while (i < length && isWordPart(in.charAt(i))) i++;
+                    word(in.subSequence(start, i).toString());
+                } else if (c == '-' && next() == '-') {
+                    flushAs();
+                    begin(Kind.WORD);
+                    int end = i;
+                    while (end < length && in.charAt(end) != '\n' && in.charAt(end) != '\r') end++;
+                    copy(end);
+                    // Whatever follows is no longer in the comment.
+                    if (pendingNewline < 0) pendingNewline = lineIndent;
+                    inLineComment = true;
+                } else if (c == '/' && next() == '*') {
+                    flushAs();
+                    begin(Kind.WORD);
+                    int end = i + 2;
+                    while (end + 1 < length && !(in.charAt(end) == '*' && in.charAt(end + 1) == '/')) end++;
+                    copy(Math.min(end + 2, length));
+                } else if (c == '\'' || c == '"' || c == '`') {
+                    flushAs();
+                    begin(c == '\'' ? Kind.WORD : Kind.IDENTIFIER);
+                    copy(quoteEnd(c));
+                } else if (c >= '0' && c <= '9' || c == '.' && isDigit(next())) {
+                    flushAs();
+                    begin(Kind.WORD);
+                    int end = i + 1;
+                    while (end < length && (isWordPart(in.charAt(end)) || in.charAt(end) == '.')) end++;
+                    copy(end);
+                } else if (c == ':' && isWordStart(next())) {
+                    // A named bind parameter.
+                    flushAs();
+                    begin(Kind.WORD);
+                    int end = i + 1;
+                    while (end < length && isWordPart(in.charAt(end))) end++;
+                    copy(end);
+                } else {
+                    flushAs();
+                    punctuation(c);
+                }
+            }
+            flushAs();
+        }
+
+        private void word(String word) throws IOException {
+            if (isGeneratedAlias(word)) {
+                if (i < length && in.charAt(i) == '.') {
+                    // this_.NAME: the column is enough.
+                    i++;
+                    return;
+                }
+                if (pendingAs || last == Kind.IDENTIFIER || last == Kind.CLOSE) {
+                    // ID as ID1_0_, or CUSTOMER this_.
+                    pendingAs = false;
+                    return;
+                }
+            }
+            flushAs();
+
+            if (i + 1 < length && in.charAt(i) == ':' && in.charAt(i + 1) <= ' ') {
+                // A log prefix such as "Hibernate:" starts the next statement.
+                depth = 0;
+                base = 0;
+                pendingNewline = 0;
+                pendingBlankLine = true;
+                begin(Kind.IDENTIFIER);
+                out.append(word).append(':');
+                i++;
+                lastWord = "";
+                return;
+            }
+
+            String upper = CaseMapper.toUpperCase(word);
+            if (!SourceLexer.SQL.isKeyword(upper)) {
+                tableName = lastWord.equals("INTO");
+                begin(Kind.IDENTIFIER);
+                out.append(word);
+                lastWord = upper;
+                if (word.length() == 1 && i < length && in.charAt(i) == '\'') {
+                    // N'text', X'0F'
+                    last = Kind.PREFIX;
+                }
+                return;
+            }
+            if (upper.equals("AS")) {
+                // Held back until the alias after it is known not to be a generated one.
+                pendingAs = true;
+                return;
+            }
+
+            boolean clauseLevel = depth == 0 || parens[depth - 1] >= 0;
+            Set<String> continues = CONTINUATIONS.get(upper);
+            if (continues != null && continues.contains(lastWord)) {
+                int pending = pendingNewline;
+                pendingNewline = -1;
+                keyword(upper);
+                pendingNewline = pending;
+            } else if ((upper.equals("SELECT") || upper.equals("WITH")) && last == Kind.OPEN && depth > 0) {
+                // A subquery: its clauses go under the line that opened it.
+                parens[depth - 1] = base;
+                base = lineIndent + INDENT;
+                clause(upper);
+            } else if (clauseLevel && CLAUSES.contains(upper)) {
+                clause(upper);
+            } else if (clauseLevel && SET_OPERATORS.contains(upper)) {
+                pendingNewline = base;
+                keyword(upper);
+                pendingNewline = base;
+            } else if (clauseLevel && JOINS.contains(upper) && nextNonSpace() != '('
+                    && !(JOINS.contains(lastWord) && (upper.equals("JOIN") || upper.equals("OUTER")))) {
+                pendingNewline = base + INDENT;
+                keyword(upper);
+            } else if (clauseLevel && (upper.equals("AND") || upper.equals("OR")) && !inBetween) {
+                pendingNewline = base + INDENT;
+                keyword(upper);
+            } else {
+                if (upper.equals("AND")) inBetween = false;
+                if (upper.equals("BETWEEN")) inBetween = true;
+                keyword(upper);
+            }
+        }
+
+        private void clause(String keyword) throws IOException {
+            pendingNewline = base;
+            keyword(keyword);
+            pendingNewline = base + INDENT;
+            inBetween = false;
+        }
+
+        private void keyword(String keyword) throws IOException {
+            begin(Kind.KEYWORD);
+            out.append(keyword);
+            lastWord = keyword;
+        }
+
+        private void punctuation(char c) throws IOException {
+            boolean clauseLevel = depth == 0 || parens[depth - 1] >= 0;
+            switch (c) {
+                case '(':
+                    begin(Kind.OPEN);
+                    out.append(c);
+                    if (depth == parens.length) parens = Arrays.copyOf(parens, depth * 2);
+                    parens[depth++] = -1;
+                    i++;
+                    break;
+                case ')':
+                    begin(Kind.CLOSE);
+                    out.append(c);
+                    if (depth > 0 && parens[--depth] >= 0) base = parens[depth];
+                    i++;
+                    break;
+                case ',':
+                    begin(Kind.COMMA);
+                    out.append(c);
+                    if (clauseLevel) pendingNewline = base + INDENT;
+                    i++;
+                    break;
+                case '.':
+                    begin(Kind.DOT);
+                    out.append(c);
+                    i++;
+                    break;
+                case ';':
+                    begin(Kind.SEMICOLON);
+                    out.append(c);
+                    depth = 0;
+                    base = 0;
+                    pendingNewline = 0;
+                    pendingBlankLine = true;
+                    i++;
+                    break;
+                default:
+                    if (isOperator(c)) {
+                        int end = i + 1;
+                        if (end < length && isTwoCharacterOperator(c, in.charAt(end))) end++;
+                        // A sign rather than a subtraction: -1, = -1, (-1.
+                        boolean sign = end == i + 1 && (c == '-' || c == '+') && (last == Kind.NONE
+                                || last == Kind.OPEN || last == Kind.COMMA || last == Kind.OPERATOR
+                                || last == Kind.KEYWORD);
+                        begin(Kind.OPERATOR);
+                        copy(end);
+                        if (sign) last = Kind.PREFIX;
+                    } else {
+                        begin(Kind.WORD);
+                        out.append(c);
+                        i++;
+                    }
+                    break;
+            }
+        }
+
+        /** Starts a token: the pending line break, or the space it needs after the last one. */
+        private void begin(Kind kind) throws IOException {
+            if (pendingNewline >= 0
+                    && (inLineComment || kind != Kind.COMMA && kind != Kind.CLOSE && kind != Kind.SEMICOLON)) {
+                if (!atStart) {
+                    out.append('\n');
+                    if (pendingBlankLine) out.append('\n');
+                    for (int n = 0; n < pendingNewline; n++) out.append(' ');
+                }
+                lineIndent = pendingNewline;
+                pendingNewline = -1;
+                pendingBlankLine = false;
+                inLineComment = false;
+            } else if (needsSpace(kind)) {
+                out.append(' ');
+            }
+            atStart = false;
+            last = kind;
+        }
+
+        private boolean needsSpace(Kind kind) {
+            if (atStart) return false;
+            switch (last) {
+                case NONE: case OPEN: case DOT: case PREFIX:
+                    return false;
+                default:
+                    break;
+            }
+            switch (kind) {
+                case COMMA: case CLOSE: case DOT: case SEMICOLON:
+                    return false;
+                case OPEN:
+                    // A function call, but IN (...) and VALUES (...) keep their space.
+                    return last != Kind.IDENTIFIER || tableName;
+                default:
+                    return true;
+            }
+        }
+
+        private void flushAs() throws IOException {
+            if (pendingAs) {
+                pendingAs = false;
+                keyword("AS");
+            }
+        }
+
+        /** Writes the input from {@code i} to {@code end} unchanged. */
+        private void copy(int end) throws IOException {
+            out.append(in, i, end);
+            i = end;
+        }
+
+        /** The end of a string or quoted identifier starting at {@code i}, where a doubled quote stands for itself. */
+        private int quoteEnd(char quote) {
+            int end = i + 1;
+            while (end < length) {
+                if (in.charAt(end) == quote) {
+                    if (end + 1 < length && in.charAt(end + 1) == quote) {
+                        end += 2;
+                        continue;
+                    }
+                    return end + 1;
+                }
+                end++;
+            }
+            return length;
+        }
+
+        private char next() {
+            return i + 1 < length ? in.charAt(i + 1) : 0;
+        }
+
+        private char nextNonSpace() {
+            int j = i;
+            while (j < length && in.charAt(j) <= ' ') j++;
+            return j < length ? in.charAt(j) : 0;
+        }
+
+    }
+
+    /**
+     * Aliases Hibernate makes up: {@code this_} and {@code this_1_}; {@code customer0_} for tables and
+     * {@code ID1_0_} for columns in Hibernate 5; {@code c1_0} in Hibernate 6.  That is, letters, digits, then groups
+     * of underscores and digits, with at least one underscore.
+     */
+    static boolean isGeneratedAlias(String word) {
+        int n = word.length();
+        int j = 0;
+        if (word.startsWith("this_")) {
+            j = 4;
+        } else {
+            while (j < n && isAsciiLetter(word.charAt(j))) j++;
+            int letters = j;
+            while (j < n && isDigit(word.charAt(j))) j++;
+            if (letters == 0 || j == letters || j == n || word.charAt(j) != '_') return false;
+        }
+        // Now at an underscore: the rest is _ or _digits, repeated.
+        while (j < n) {
+            if (word.charAt(j++) != '_') return false;
+            while (j < n && isDigit(word.charAt(j))) j++;
+        }
+        return true;
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z';
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isWordStart(char c) {
+        return Character.isLetter(c) || c == '_';
+    }
+
+    private static boolean isWordPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '#';
+    }
+
+    /** {@code <= >= <> != || =>} */
+    private static boolean isTwoCharacterOperator(char first, char second) {
+        switch (first) {
+            case '<': return second == '=' || second == '>';
+            case '>': case '!': return second == '=';
+            case '|': return second == '|';
+            case '=': return second == '>';
+            default: return false;
+        }
+    }
+
+    private static boolean isOperator(char c) {
+        return "<>=!|+-*/%&^~".indexOf(c) >= 0;
+    }
+
+}
@@ -1,8 +1,8 @@
 package ca.quines.namingconverter;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Arrays;
-import java.util.HashSet;
-import java.util.Set;
 import java.util.stream.Collectors;
 
 public class TextTransformers {
@@ -28,34 +28,111 @@ public class TextTransformers {
     /** "Replace Whitespace with One Space and Trim" */
     public static String collapseWhitespace(String input) {
         if (input == null) return "";
-        // \\s+ matches one or more whitespace characters (space, tab, newline)
-        return input.replaceAll("\\s+", " ").trim();
+        return scanToString(input, input.length(), TextTransformers::collapseWhitespace);
+    }
+
+    /** Streaming form of {@link #collapseWhitespace(String)}. */
+    public static void collapseWhitespace(CharSequence input, Appendable out) throws IOException {
+        if (input == null) return;
+        int end = trimmedEnd(input);
+        boolean pendingSpace = false;
+        for (int i = trimmedStart(input, end); i < end; i++) {
+            Cancellation.check(i);
+            char c = input.charAt(i);
+            if (isRegexSpace(c)) {
+                pendingSpace = true;
+                continue;
+            }
+            if (pendingSpace) {
+                out.append(' ');
+                pendingSpace = false;
+            }
+            out.append(c);
+        }
     }
 
     public static String toCamelCase(String input, boolean upperFirst) {
+        return toCamelCase(input, upperFirst, CasingDictionary.current());
+    }
+
+    /**
+     * Words are found by {@link IdentifierTokenizer}, so spaces, underscores, dashes and humps all separate them;
+     * acronyms and forced spellings come from the dictionary.
+     */
+    public static String toCamelCase(String input, boolean upperFirst, CasingDictionary dictionary) {
         if (input == null || input.isEmpty()) return input;
-        // Split by spaces, underscores, or dashes
-        String[] parts = input.split("[\\s_-]+");
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < parts.length; i++) {
-            String word = parts[i].toLowerCase();
-            if (i == 0 && !upperFirst) {
-                sb.append(word);
+        int[] words = IdentifierTokenizer.tokenize(input);
+        StringBuilder sb = new StringBuilder(input.length());
+        for (int w = 0; w < words.length; w += 2) {
+            Cancellation.check();
+            int i = words[w];
+            int end = words[w + 1];
+            boolean first = w == 0;
+            int match = dictionary.hasSpellings() ? dictionary.find(input, i, end) : -1;
+            String spelling = match >= 0 ? dictionary.spelling(match) : null;
+            if (spelling == null) {
+                appendLowerCaseWord(input, i, end, !first || upperFirst, sb);
+            } else if (!first || upperFirst) {
+                sb.append(spelling);
+            } else if (dictionary.kind(match) == CasingDictionary.Kind.SPELLING) {
+                sb.append(Character.toLowerCase(spelling.charAt(0))).append(spelling, 1, spelling.length());
             } else {
-                sb.append(Character.toUpperCase(word.charAt(0))).append(word.substring(1));
+                // An acronym at the start of camelCase is all lower case, as in urlPath.
+                appendLowerCaseWord(input, i, end, false, sb);
             }
         }
         return sb.toString();
     }
 
+    /**
+     * Appends {@code input[from, to)} in lower case, optionally with its first character in upper case.  ASCII is done
+     * in place; anything else goes through {@link CaseMapper} one word at a time, since a final sigma depends on
+     * where the word ends.
+     */
+    private static void appendLowerCaseWord(String input, int from, int to, boolean capitalize, StringBuilder sb) {
+        int i = from;
+        while (i < to && input.charAt(i) < 0x80) i++;
+        if (i < to) {
+            String word = CaseMapper.toLowerCase(input.substring(from, to));
+            if (capitalize) {
+                sb.append(Character.toUpperCase(word.charAt(0))).append(word, 1, word.length());
+            } else {
+                sb.append(word);
+            }
+            return;
+        }
+        for (i = from; i < to; i++) {
+            char c = input.charAt(i);
+            if (isAsciiUpper(c)) c = (char) (c + ('a' - 'A'));
+            if (i == from && capitalize && isAsciiLower(c)) c = (char) (c - ('a' - 'A'));
+            sb.append(c);
+        }
+    }
+
     public static String toUpperSnake(String input) {
     	if (input == null) {
     		return "";
     	}
+        return scanToString(input, input.length() + (input.length() >> 2), TextTransformers::toUpperSnake);
+    }
 
-    	// Handle CamelCase -> SNAKE_CASE
-        String result = input.replaceAll("([a-z])([A-Z]+)", "$1_$2");
-        return result.replace(" ", "_").toUpperCase();
+    /** Streaming form of {@link #toUpperSnake(String)}. */
+    public static void toUpperSnake(CharSequence input, Appendable out) throws IOException {
+        if (input == null) return;
+        int length = input.length();
+        for (int i = 0; i < length; i++) {
+            Cancellation.check(i);
+            char c = input.charAt(i);
+            if (c == ' ') {
+                out.append('_');
+                continue;
+            }
+            // Handle CamelCase -> SNAKE_CASE
+            if (isAsciiUpper(c) && i > 0 && isAsciiLower(input.charAt(i - 1))) {
+                out.append('_');
+            }
+            out.append(Character.toUpperCase(c));
+        }
     }
 
     public static String toSqlInClause(String input, boolean isString) {
@@ -75,85 +152,224 @@ public class TextTransformers {
     /** "CamelCase to Spaces" -> "Camel Case" */
     public static String camelCaseToSpaces(String input) {
         if (input == null) return "";
-        // This regex looks for a position that is followed by an uppercase letter,
-        // but is NOT the beginning of the string, and inserts a space there.
-        return input.replaceAll("(?<=.)(?=[A-Z])", " ");
+        return scanToString(input, input.length() + (input.length() >> 2), TextTransformers::camelCaseToSpaces);
+    }
+
+    /**
+     * Streaming form of {@link #camelCaseToSpaces(String)}.  Each line is split by {@link IdentifierTokenizer}, and a
+     * space goes only between words that touch, so {@code HTTPServer} is "HTTP Server" and existing spaces and
+     * punctuation are kept as they are.
+     */
+    public static void camelCaseToSpaces(CharSequence input, Appendable out) throws IOException {
+        if (input == null) return;
+        int length = input.length();
+        int lineStart = 0;
+        while (lineStart < length) {
+            Cancellation.check();
+            int lineEnd = lineStart;
+            while (lineEnd < length && !isLineTerminator(input.charAt(lineEnd))) lineEnd++;
+            int[] words = IdentifierTokenizer.tokenize(input, lineStart, lineEnd);
+            int from = lineStart;
+            for (int w = 2; w < words.length; w += 2) {
+                if (words[w] == words[w - 1]) {
+                    out.append(input, from, words[w]).append(' ');
+                    from = words[w];
+                }
+            }
+            int next = Math.min(lineEnd + 1, length);
+            out.append(input, from, next);
+            lineStart = next;
+        }
     }
 
     /** "Spaces to UPPER_SNAKE_CASE" -> "UPPER_SNAKE_CASE" */
     public static String spacesToUpperSnake(String input) {
         if (input == null) return "";
-        return input.trim().replaceAll("\\s+", "_").toUpperCase();
+        return scanToString(input, input.length(), TextTransformers::spacesToUpperSnake);
+    }
+
+    /** Streaming form of {@link #spacesToUpperSnake(String)}. */
+    public static void spacesToUpperSnake(CharSequence input, Appendable out) throws IOException {
+        if (input == null) return;
+        int end = trimmedEnd(input);
+        boolean pendingUnderscore = false;
+        for (int i = trimmedStart(input, end); i < end; i++) {
+            Cancellation.check(i);
+            char c = input.charAt(i);
+            if (isRegexSpace(c)) {
+                pendingUnderscore = true;
+                continue;
+            }
+            if (pendingUnderscore) {
+                out.append('_');
+                pendingUnderscore = false;
+            }
+            out.append(Character.toUpperCase(c));
+        }
     }
 
     /** "Camel Case to UPPER_SNAKE_CASE" -> "CAMEL_CASE" */
     public static String camelCaseToUpperSnake(String input) {
         if (input == null) return "";
-        // First convert humps to spaces, then spaces to underscores
-        String spaced = camelCaseToSpaces(input);
-        return spacesToUpperSnake(spaced);
+        return scanToString(input, input.length() + (input.length() >> 2), TextTransformers::camelCaseToUpperSnake);
     }
 
-    /** SNAKE_CASE to CamelCase or camelCase */
-    public static String snakeToCamel(String input, boolean upperFirst) {
-        if (input == null || input.isEmpty()) return "";
-        String[] parts = input.toLowerCase().split("_");
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < parts.length; i++) {
-            String word = parts[i];
-            if (word.isEmpty()) continue;
-            if (i == 0 && !upperFirst) {
-                sb.append(word);
-            } else {
-                sb.append(Character.toUpperCase(word.charAt(0))).append(word.substring(1));
+    /**
+     * Streaming form of {@link #camelCaseToUpperSnake(String)}.  Equivalent to {@link #camelCaseToSpaces(String)}
+     * followed by {@link #spacesToUpperSnake(String)}, but done in one pass: each line is split by
+     * {@link IdentifierTokenizer}, and a boundary between words that touch and any whitespace next to it collapse into
+     * a single underscore, so {@code HTTPServerURL} is "HTTP_SERVER_URL".
+     */
+    public static void camelCaseToUpperSnake(CharSequence input, Appendable out) throws IOException {
+        if (input == null) return;
+        int end = trimmedEnd(input);
+        boolean pendingUnderscore = false;
+        int lineStart = trimmedStart(input, end);
+        while (lineStart < end) {
+            Cancellation.check();
+            int lineEnd = lineStart;
+            while (lineEnd < end && !isLineTerminator(input.charAt(lineEnd))) lineEnd++;
+            int[] words = IdentifierTokenizer.tokenize(input, lineStart, lineEnd);
+            int w = 2;
+            int next = Math.min(lineEnd + 1, end);
+            for (int i = lineStart; i < next; i++) {
+                char c = input.charAt(i);
+                if (isRegexSpace(c)) {
+                    pendingUnderscore = true;
+                    continue;
+                }
+                while (w < words.length && words[w] < i) w += 2;
+                if (w < words.length && words[w] == i && words[w - 1] == i) {
+                    pendingUnderscore = true;
+                }
+                if (pendingUnderscore) {
+                    out.append('_');
+                    pendingUnderscore = false;
+                }
+                out.append(Character.toUpperCase(c));
             }
+            lineStart = next;
         }
-        return sb.toString();
     }
 
-    // The main words that should remain lower case in Title Case.  We should use the Apache text library at some point.
-    private static final Set<String> MINOR_WORDS = new HashSet<>(Arrays.asList(
-        "a", "an", "and", "as", "at", "but", "by", "for", "in", "nor", "of", "on", "or", "so", "the", "to", "up", "yet"
-    ));
+    /** SNAKE_CASE, or any other convention {@link IdentifierTokenizer} splits, to CamelCase or camelCase, by line. */
+    public static String snakeToCamel(String input, boolean upperFirst) {
+        return (upperFirst ? NamingConvention.PASCAL : NamingConvention.CAMEL).convert(input);
+    }
+
+    /** "Decode URL", leaving a '%' that doesn't start an escape as it is. */
+    public static String decodeUrl(String input) {
+        return PercentCodec.decode(input);
+    }
+
+    /** "Encode URL" */
+    public static String encodeUrl(String input) {
+        return PercentCodec.encode(input);
+    }
 
     /** "UPPERCASE" */
     public static String toUpperCase(String input) {
-        return input == null ? "" : input.toUpperCase();
+        return CaseMapper.toUpperCase(input);
     }
 
     /** "lowercase" */
     public static String toLowerCase(String input) {
-        return input == null ? "" : input.toLowerCase();
+        return CaseMapper.toLowerCase(input);
     }
 
     /** "All Initial Capitals" - Every word starts with a Cap */
     public static String allInitialCaps(String input) {
         if (input == null || input.isEmpty()) return "";
-        String[] words = input.toLowerCase().split("\\s+");
-        StringBuilder sb = new StringBuilder();
-        for (String word : words) {
-            if (word.length() > 0) {
-                sb.append(Character.toUpperCase(word.charAt(0)))
-                  .append(word.substring(1)).append(" ");
+        return scanToString(input, input.length(), TextTransformers::allInitialCaps);
+    }
+
+    /** "All Initial Capitals" with the acronyms and forced spellings in {@code dictionary}. */
+    public static String allInitialCaps(String input, CasingDictionary dictionary) {
+        if (input == null || input.isEmpty()) return "";
+        return scanToString(input, input.length(), (in, out) -> allInitialCaps(in, out, dictionary));
+    }
+
+    /** Streaming form of {@link #allInitialCaps(String)}. */
+    public static void allInitialCaps(CharSequence input, Appendable out) throws IOException {
+        allInitialCaps(input, out, CasingDictionary.current());
+    }
+
+    /** Streaming form of {@link #allInitialCaps(String, CasingDictionary)}. */
+    public static void allInitialCaps(CharSequence input, Appendable out, CasingDictionary dictionary)
+            throws IOException {
+        if (input == null) return;
+        int end = trimmedEnd(input);
+        boolean wordStart = true;
+        boolean pendingSpace = false;
+        boolean emitted = false;
+        for (int i = 0; i < end; i++) {
+            Cancellation.check(i);
+            char c = input.charAt(i);
+            if (isRegexSpace(c)) {
+                wordStart = true;
+                pendingSpace = emitted;
+                continue;
+            }
+            if (wordStart && dictionary.hasSpellings()) {
+                int wordEnd = i + 1;
+                while (wordEnd < end && !isRegexSpace(input.charAt(wordEnd))) wordEnd++;
+                int match = dictionary.find(input, i, wordEnd);
+                if (match >= 0 && dictionary.spelling(match) != null) {
+                    if (pendingSpace) out.append(' ');
+                    out.append(dictionary.spelling(match));
+                    pendingSpace = false;
+                    wordStart = false;
+                    emitted = true;
+                    i = wordEnd - 1;
+                    continue;
+                }
             }
+            char mapped = wordStart ? Character.toUpperCase(c) : Character.toLowerCase(c);
+            wordStart = false;
+            // Control characters at the very start are trimmed, but still count as the word's first character.
+            if (!emitted && mapped <= ' ') continue;
+            if (pendingSpace) {
+                out.append(' ');
+                pendingSpace = false;
+            }
+            out.append(mapped);
+            emitted = true;
         }
-        return sb.toString().trim();
     }
 
     /** "Convert to Title Case" - Smart capitalization */
     public static String toTitleCase(String input) {
-        if (input == null || input.isEmpty()) return "";
-        String[] words = input.toLowerCase().split("\\s+");
-        StringBuilder sb = new StringBuilder();
+        return toTitleCase(input, CasingDictionary.current());
+    }
 
-        for (int i = 0; i < words.length; i++) {
-            String word = words[i];
-            if (i > 0 && i < words.length - 1 && MINOR_WORDS.contains(word)) {
-                sb.append(word);
+    /**
+     * Title Case with the words in {@code dictionary}: minor words stay lower case except first and last, and acronyms
+     * and forced spellings are written as they are in the dictionary wherever they are.
+     */
+    public static String toTitleCase(String input, CasingDictionary dictionary) {
+        if (input == null || input.isEmpty()) return "";
+        String lower = CaseMapper.toLowerCase(input);
+        int length = lower.length();
+        StringBuilder sb = new StringBuilder(length);
+        int i = 0;
+        while (i < length && isRegexSpace(lower.charAt(i))) i++;
+        while (i < length) {
+            Cancellation.check();
+            int end = i;
+            while (end < length && !isRegexSpace(lower.charAt(end))) end++;
+            int next = end;
+            while (next < length && isRegexSpace(lower.charAt(next))) next++;
+            boolean first = sb.length() == 0;
+            if (!first) sb.append(' ');
+            int match = dictionary.find(lower, i, end);
+            if (match >= 0 && dictionary.spelling(match) != null) {
+                sb.append(dictionary.spelling(match));
+            } else if (match >= 0 && !first && next < length) {
+                sb.append(lower, i, end);
             } else {
-                sb.append(Character.toUpperCase(word.charAt(0))).append(word.substring(1));
+                sb.append(Character.toUpperCase(lower.charAt(i))).append(lower, i + 1, end);
             }
-            if (i < words.length - 1) sb.append(" ");
+            i = next;
         }
         return sb.toString();
     }
@@ -173,32 +389,80 @@ public class TextTransformers {
     /** "Newline separated to Comma Delimited" -> 1, 2, 3 */
     public static String newlineToComma(String input) {
         if (input == null) return "";
-        return Arrays.stream(input.split("\\R"))
-                .map(String::trim)
-                .filter(s -> !s.isEmpty())
-                .collect(Collectors.joining(", "));
+        return inClause(input, InClauseBuilder.Values.TEXT, InClauseBuilder.Layout.LIST);
     }
 
     /** "Newline separated to Quoted Comma Delimited" -> 'A', 'B', 'C' */
     public static String newlineToQuotedComma(String input) {
         if (input == null) return "";
-        return Arrays.stream(input.split("\\R"))
-                .map(String::trim)
-                .filter(s -> !s.isEmpty())
-                .map(s -> "'" + s + "'")
-                .collect(Collectors.joining(", "));
+        return inClause(input, InClauseBuilder.Values.STRINGS, InClauseBuilder.Layout.LIST);
     }
 
     /** "In Clause for Integers" -> IN (1, 2, 3) */
     public static String toInClauseInt(String input) {
         if (input == null || input.isEmpty()) return "";
-        return "IN (" + newlineToComma(input) + ")";
+        return inClause(input, InClauseBuilder.Values.NUMBERS, InClauseBuilder.Layout.IN);
     }
 
     /** "In Clause for Strings" -> IN ('A', 'B', 'C') */
     public static String toInClauseString(String input) {
         if (input == null || input.isEmpty()) return "";
-        return "IN (" + newlineToQuotedComma(input) + ")";
+        return inClause(input, InClauseBuilder.Values.STRINGS, InClauseBuilder.Layout.IN);
+    }
+
+    /** One value per line, without repeats, written by {@link InClauseBuilder}. */
+    private static String inClause(String input, InClauseBuilder.Values values, InClauseBuilder.Layout layout) {
+        return scanToString(input, input.length() + (input.length() >> 2) + 8,
+                (in, out) -> new InClauseBuilder(out, values, layout).addLines(in).finish());
+    }
+
+    @FunctionalInterface
+    private interface CharScanner {
+        void scan(CharSequence input, Appendable out) throws IOException;
+    }
+
+    /** Runs one of the streaming scanners into a single pre-sized builder. */
+    private static String scanToString(String input, int capacity, CharScanner scanner) {
+        StringBuilder sb = new StringBuilder(capacity);
+        try {
+            scanner.scan(input, sb);
+        } catch (IOException e) {
+            // StringBuilder never throws.
+            throw new UncheckedIOException(e);
+        }
+        return sb.toString();
+    }
+
+    /** The characters matched by the regex {@code \\s}. */
+    private static boolean isRegexSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    /** The characters that the regex {@code .} does not match. */
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    private static boolean isAsciiUpper(char c) {
+        return c >= 'A' && c <= 'Z';
+    }
+
+    private static boolean isAsciiLower(char c) {
+        return c >= 'a' && c <= 'z';
+    }
+
+    /** The index {@link String#trim()} would end at. */
+    private static int trimmedEnd(CharSequence input) {
+        int end = input.length();
+        while (end > 0 && input.charAt(end - 1) <= ' ') end--;
+        return end;
+    }
+
+    /** The index {@link String#trim()} would start at. */
+    private static int trimmedStart(CharSequence input, int end) {
+        int start = 0;
+        while (start < end && input.charAt(start) <= ' ') start++;
+        return start;
     }
 
 }
@@ -0,0 +1,163 @@
+package ca.quines.namingconverter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Remembers the results of recent conversions, keyed by operation and input.  Identifier vocabularies repeat a lot:
+ * the same column names turn up in every table and every generated DAO.
+ * <p>
+ * The cache is split into stripes, each a small least-recently-used map with its own lock, so threads in batch and
+ * server mode rarely wait for each other.  It holds at most the given number of entries in total, and only caches
+ * inputs up to {@link #MAX_CACHED_LENGTH} characters: long text is unlikely to repeat, and would crowd out the
+ * identifiers.
+ */
+public class TransformCache {
+
+    /** Longer inputs are converted every time. */
+    public static final int MAX_CACHED_LENGTH = 256;
+
+    private record Key(Transformation operation, String input) {}
+
+    private final Stripe[] stripes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public TransformCache(int maxEntries) {
+        if (maxEntries <= 0) throw new IllegalArgumentException("The cache needs room for at least one entry.");
+        // A power of two, with at least 64 entries per stripe so that the LRU order still means something.
+        int stripeCount = Integer.highestOneBit(Math.max(1, Math.min(Runtime.getRuntime().availableProcessors() * 4,
+                maxEntries / 64)));
+        stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            // Spreads the remainder so the total is exactly maxEntries.
+            stripes[i] = new Stripe(maxEntries / stripeCount + (i < maxEntries % stripeCount ? 1 : 0));
+        }
+    }
+
+    /** {@code operation} applied to {@code input}, from the cache if it has been seen recently. */
+    public String apply(Transformation operation, String input) {
+        if (input == null || input.length() > MAX_CACHED_LENGTH) return operation.apply(input);
+
+        Key key = new Key(operation, input);
+        Stripe stripe = stripes[spread(key.hashCode()) & (stripes.length - 1)];
+        String result;
+        synchronized (stripe) {
+            result = stripe.get(key);
+        }
+        if (result != null) {
+            hits.increment();
+            return result;
+        }
+
+        // Converted outside the lock; two threads missing on the same key both convert it, which is harmless.
+        misses.increment();
+        result = operation.apply(input);
+        synchronized (stripe) {
+            stripe.put(key, result);
+        }
+        return result;
+    }
+
+    /** {@code operation} with this cache in front of it. */
+    public Transformation wrap(Transformation operation) {
+        return new Transformation() {
+            @Override
+            public String apply(String input) {
+                return TransformCache.this.apply(operation, input);
+            }
+
+            @Override
+            public boolean joinsLines() {
+                return operation.joinsLines();
+            }
+
+            @Override
+            public boolean joinsValues() {
+                return operation.joinsValues();
+            }
+
+            @Override
+            public String metricName() {
+                return operation.metricName();
+            }
+
+            @Override
+            public String toString() {
+                return operation.toString();
+            }
+        };
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    /** Hits as a fraction of lookups, or 0 before the first lookup. */
+    public double hitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.clear();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d entries, %d hits, %d misses (%.1f%% hits), %d evictions",
+                size(), hits(), misses(), hitRate() * 100, evictions());
+    }
+
+    /** The string hash codes of similar identifiers differ mostly in the low bits; mix in the high ones. */
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    private final class Stripe extends LinkedHashMap<Key, String> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+
+        Stripe(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, String> eldest) {
+            if (size() <= capacity) return false;
+            evictions.increment();
+            return true;
+        }
+
+    }
+
+}
@@ -0,0 +1,33 @@
+package ca.quines.namingconverter;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One transformation, as a JDK Flight Recorder event.  Recorded whenever a recording has it enabled, e.g. with
+ * {@code -XX:StartFlightRecording}, whether or not {@link TransformMetrics} is collecting.
+ */
+@Name("ca.quines.namingconverter.Transform")
+@Label("Transform")
+@Category("Naming Convention Converter")
+@Description("One operation, recipe or regex replacement applied to some text")
+@StackTrace(false)
+final class TransformEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Input Characters")
+    long inputLength;
+
+    @Label("Output Characters")
+    long outputLength;
+
+    @Label("Failed")
+    boolean failed;
+
+}
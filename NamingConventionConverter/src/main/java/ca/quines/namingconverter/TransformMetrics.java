@@ -0,0 +1,378 @@
+package ca.quines.namingconverter;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Counts, sizes, latencies and allocations of every transformation, per operation.  Collection is off unless the JVM
+ * is started with {@code -Dncc.metrics=true}, which also registers the {@link TransformMetricsMXBean} so that
+ * JConsole or any JMX client can read the numbers and turn collection off and on again.  Independently of that, each
+ * call is a {@link TransformEvent} for JDK Flight Recorder.
+ * <p>
+ * When neither is on, {@link #begin(String)} reads one volatile and one JFR flag and returns null, so the cost is a
+ * couple of branches per call.  Latencies go into log2 buckets, so percentiles are accurate to within a factor of
+ * two; allocation is the calling thread's allocated bytes, where the JVM can measure it.
+ */
+public final class TransformMetrics {
+
+    public static final String OBJECT_NAME = "ca.quines.namingconverter:type=TransformMetrics";
+
+    private static final Map<String, Recorder> RECORDERS = new ConcurrentHashMap<>();
+
+    /** Only asked whether a recording wants transform events; never committed. */
+    private static final TransformEvent PROBE = new TransformEvent();
+
+    private static volatile boolean enabled;
+    private static boolean registered;
+
+    static {
+        if (Boolean.getBoolean("ncc.metrics")) setEnabled(true);
+    }
+
+    private TransformMetrics() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Turns collection on or off.  Turning it on registers the MXBean, if it isn't already. */
+    public static void setEnabled(boolean on) {
+        if (on) registerMBean();
+        enabled = on;
+    }
+
+    /** Registers the MXBean with the platform MBean server; does nothing the second time. */
+    public static synchronized void registerMBean() {
+        if (registered) return;
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new MXBean(), new ObjectName(OBJECT_NAME));
+            registered = true;
+        } catch (JMException e) {
+            // Another class loader got there first; the numbers still get collected.
+        }
+    }
+
+    /**
+     * Starts timing one call of {@code name}.  Returns null when nothing is listening, in which case there's nothing
+     * to end either.
+     */
+    public static Call begin(String name) {
+        boolean collect = enabled;
+        if (!collect && !PROBE.isEnabled()) return null;
+        return new Call(name, collect);
+    }
+
+    /** {@code operation} with every call measured under its {@link Transformation#metricName()}. */
+    public static Transformation wrap(Transformation operation) {
+        String name = operation.metricName();
+        return new Transformation() {
+            @Override
+            public String apply(String input) {
+                Call call = begin(name);
+                if (call == null) return operation.apply(input);
+                String output;
+                try {
+                    output = operation.apply(input);
+                } catch (RuntimeException | Error e) {
+                    call.fail(length(input));
+                    throw e;
+                }
+                call.end(length(input), length(output));
+                return output;
+            }
+
+            @Override
+            public boolean joinsLines() {
+                return operation.joinsLines();
+            }
+
+            @Override
+            public boolean joinsValues() {
+                return operation.joinsValues();
+            }
+
+            @Override
+            public String metricName() {
+                return name;
+            }
+
+            @Override
+            public String toString() {
+                return operation.toString();
+            }
+        };
+    }
+
+    /** One entry per operation that has run since the last reset, busiest first. */
+    public static List<Statistics> statistics() {
+        List<Statistics> statistics = new ArrayList<>();
+        RECORDERS.forEach((name, recorder) -> statistics.add(recorder.snapshot(name)));
+        statistics.sort(Comparator.comparingLong(Statistics::getCalls).reversed()
+                .thenComparing(Statistics::getName));
+        return statistics;
+    }
+
+    /** The statistics as a table, one operation per line. */
+    public static String report() {
+        StringBuilder sb = new StringBuilder(String.format("%-40s %10s %8s %10s %10s %10s %10s %12s %12s %12s%n",
+                "Operation", "Calls", "Failed", "Mean us", "p50 us", "p99 us", "Max us", "Chars in", "Chars out",
+                "Allocated"));
+        for (Statistics s : statistics()) {
+            sb.append(String.format("%-40.40s %10d %8d %10.1f %10.1f %10.1f %10.1f %12d %12d %12d%n", s.getName(),
+                    s.getCalls(), s.getFailures(), s.getMeanMicros(), s.getP50Micros(), s.getP99Micros(),
+                    s.getMaxMicros(), s.getInputChars(), s.getOutputChars(), s.getAllocatedBytes()));
+        }
+        return sb.toString();
+    }
+
+    public static void reset() {
+        RECORDERS.clear();
+    }
+
+    private static long length(String s) {
+        return s == null ? 0 : s.length();
+    }
+
+    /** One call being timed; end it exactly once, with {@link #end} or {@link #fail}. */
+    public static final class Call {
+
+        private final String name;
+        private final Recorder recorder;
+        private final TransformEvent event;
+        private final long startNanos;
+        private final long startAllocated;
+
+        private Call(String name, boolean collect) {
+            this.name = name;
+            this.recorder = collect ? RECORDERS.computeIfAbsent(name, n -> new Recorder()) : null;
+            TransformEvent e = new TransformEvent();
+            if (e.isEnabled()) {
+                e.begin();
+                event = e;
+            } else {
+                event = null;
+            }
+            this.startAllocated = collect ? Allocation.currentThreadBytes() : -1;
+            this.startNanos = System.nanoTime();
+        }
+
+        public void end(long inputLength, long outputLength) {
+            finish(inputLength, outputLength, false);
+        }
+
+        public void fail(long inputLength) {
+            finish(inputLength, 0, true);
+        }
+
+        private void finish(long inputLength, long outputLength, boolean failed) {
+            long nanos = System.nanoTime() - startNanos;
+            if (recorder != null) {
+                long allocated = startAllocated < 0 ? 0 : Allocation.currentThreadBytes() - startAllocated;
+                recorder.record(nanos, inputLength, outputLength, allocated, failed);
+            }
+            if (event != null) {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.operation = name;
+                    event.inputLength = inputLength;
+                    event.outputLength = outputLength;
+                    event.failed = failed;
+                    event.commit();
+                }
+            }
+        }
+
+    }
+
+    /** What has been collected for one operation.  A class with getters so that JMX can show it. */
+    public static final class Statistics {
+
+        private final String name;
+        private final long calls;
+        private final long failures;
+        private final long inputChars;
+        private final long outputChars;
+        private final long allocatedBytes;
+        private final double meanMicros;
+        private final double p50Micros;
+        private final double p99Micros;
+        private final double maxMicros;
+
+        Statistics(String name, long calls, long failures, long inputChars, long outputChars, long allocatedBytes,
+                double meanMicros, double p50Micros, double p99Micros, double maxMicros) {
+            this.name = name;
+            this.calls = calls;
+            this.failures = failures;
+            this.inputChars = inputChars;
+            this.outputChars = outputChars;
+            this.allocatedBytes = allocatedBytes;
+            this.meanMicros = meanMicros;
+            this.p50Micros = p50Micros;
+            this.p99Micros = p99Micros;
+            this.maxMicros = maxMicros;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getCalls() {
+            return calls;
+        }
+
+        public long getFailures() {
+            return failures;
+        }
+
+        public long getInputChars() {
+            return inputChars;
+        }
+
+        public long getOutputChars() {
+            return outputChars;
+        }
+
+        /** Bytes allocated by the calling threads during the calls, or 0 where the JVM can't tell. */
+        public long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+
+        public double getMeanMicros() {
+            return meanMicros;
+        }
+
+        /** The median latency, rounded up to a power of two nanoseconds. */
+        public double getP50Micros() {
+            return p50Micros;
+        }
+
+        /** The 99th percentile latency, rounded up to a power of two nanoseconds. */
+        public double getP99Micros() {
+            return p99Micros;
+        }
+
+        public double getMaxMicros() {
+            return maxMicros;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d calls, %d failed, mean %.1f us, p50 %.1f us, p99 %.1f us, max %.1f us", name,
+                    calls, failures, meanMicros, p50Micros, p99Micros, maxMicros);
+        }
+
+    }
+
+    /** The counters for one operation, updated from any number of threads without locking. */
+    private static final class Recorder {
+
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder inputChars = new LongAdder();
+        private final LongAdder outputChars = new LongAdder();
+        private final LongAdder allocatedBytes = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        /** Bucket b counts the calls that took from 2^b up to 2^(b+1) nanoseconds. */
+        private final AtomicLongArray histogram = new AtomicLongArray(64);
+
+        void record(long nanos, long input, long output, long allocated, boolean failed) {
+            calls.increment();
+            if (failed) failures.increment();
+            inputChars.add(input);
+            outputChars.add(output);
+            allocatedBytes.add(allocated);
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+            histogram.incrementAndGet(63 - Long.numberOfLeadingZeros(Math.max(1, nanos)));
+        }
+
+        Statistics snapshot(String name) {
+            long[] buckets = new long[histogram.length()];
+            long count = 0;
+            for (int b = 0; b < buckets.length; b++) {
+                buckets[b] = histogram.get(b);
+                count += buckets[b];
+            }
+            long n = calls.sum();
+            return new Statistics(name, n, failures.sum(), inputChars.sum(), outputChars.sum(),
+                    allocatedBytes.sum(), n == 0 ? 0 : totalNanos.sum() / 1000.0 / n,
+                    percentileMicros(buckets, count, 0.50), percentileMicros(buckets, count, 0.99),
+                    maxNanos.get() / 1000.0);
+        }
+
+        private static double percentileMicros(long[] buckets, long count, double fraction) {
+            if (count == 0) return 0;
+            long rank = (long) Math.ceil(fraction * count);
+            long seen = 0;
+            for (int b = 0; b < buckets.length; b++) {
+                seen += buckets[b];
+                if (seen >= rank) return Math.scalb(1.0, b + 1) / 1000;
+            }
+            return 0;
+        }
+
+    }
+
+    /** Loaded on first use, so that the management classes are only loaded when collecting. */
+    private static final class Allocation {
+
+        private static final com.sun.management.ThreadMXBean THREADS = threads();
+
+        private static com.sun.management.ThreadMXBean threads() {
+            if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                    && threads.isThreadAllocatedMemorySupported()) {
+                threads.setThreadAllocatedMemoryEnabled(true);
+                return threads;
+            }
+            return null;
+        }
+
+        /** The bytes allocated so far by the current thread, or -1 if the JVM can't tell. */
+        static long currentThreadBytes() {
+            return THREADS == null ? -1 : THREADS.getCurrentThreadAllocatedBytes();
+        }
+
+    }
+
+    private static final class MXBean implements TransformMetricsMXBean {
+
+        @Override
+        public boolean isEnabled() {
+            return TransformMetrics.isEnabled();
+        }
+
+        @Override
+        public void setEnabled(boolean enabled) {
+            TransformMetrics.setEnabled(enabled);
+        }
+
+        @Override
+        public List<Statistics> getOperations() {
+            return statistics();
+        }
+
+        @Override
+        public String getReport() {
+            return report();
+        }
+
+        @Override
+        public void reset() {
+            TransformMetrics.reset();
+        }
+
+    }
+
+}
@@ -0,0 +1,23 @@
+package ca.quines.namingconverter;
+
+import java.util.List;
+
+/**
+ * The JMX view of {@link TransformMetrics}, registered as {@value TransformMetrics#OBJECT_NAME}.
+ */
+public interface TransformMetricsMXBean {
+
+    boolean isEnabled();
+
+    /** Turns collection on or off; what has been collected is kept. */
+    void setEnabled(boolean enabled);
+
+    /** One entry per operation that has run since the last reset, busiest first. */
+    List<TransformMetrics.Statistics> getOperations();
+
+    /** The operations as a table of text. */
+    String getReport();
+
+    void reset();
+
+}
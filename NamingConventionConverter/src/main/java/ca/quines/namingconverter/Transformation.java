@@ -0,0 +1,32 @@
+package ca.quines.namingconverter;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * Something that can be applied to the text: a single {@link Operation} or a {@link Recipe} of them.
+ */
+public interface Transformation extends UnaryOperator<String> {
+
+    /**
+     * True when the transformation can't be applied to each line on its own: it turns a list of lines into a single
+     * result (e.g. an IN clause), or it reads a whole document, such as a SQL statement spread over several lines.
+     */
+    boolean joinsLines();
+
+    /**
+     * True when the transformation turns a list of values, one per line, into a single result.  Those that only
+     * {@link #joinsLines() join lines} because they read a whole document still work on a single value.
+     */
+    default boolean joinsValues() {
+        return joinsLines();
+    }
+
+    /**
+     * The name {@link TransformMetrics} records this under.  The GUI and the command line use the same one, so each
+     * operation is a single row however it was run.
+     */
+    default String metricName() {
+        return toString();
+    }
+
+}
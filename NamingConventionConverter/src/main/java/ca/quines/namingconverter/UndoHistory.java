@@ -0,0 +1,299 @@
+package ca.quines.namingconverter;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Undo and redo for the main text area that never copies the whole text.
+ * <p>
+ * A change is recorded as where it starts, the text it replaced and the text it put there, and only the part between
+ * their common prefix and suffix is kept.  Undo and redo read and replace just that range of the {@link Document}.
+ * The newest few steps are kept as plain strings so that undoing them is instant; older steps are deflated on a
+ * background thread once they are large enough to be worth it.  When the steps use more than the memory budget, the
+ * oldest ones are dropped, although the newest step is always kept.
+ * <p>
+ * Edits made by typing are passed to {@link #typed}, and everything typed between two other changes is one step.
+ * Not thread safe; use it from the UI thread.
+ */
+public class UndoHistory {
+
+    /** The text that undo and redo change.  {@link PieceTableContent} is one. */
+    public interface Document {
+
+        String getTextRange(int start, int length);
+
+        void replaceTextRange(int start, int replaceLength, String text);
+
+    }
+
+    /** Default budget, overridable with -Dncc.undo.budgetMb=... */
+    public static final long DEFAULT_BUDGET_BYTES = Long.getLong("ncc.undo.budgetMb", 128) * 1024 * 1024;
+
+    static final int UNCOMPRESSED_STEPS = 3;
+    static final int COMPRESSION_THRESHOLD = 64 * 1024;
+
+    private final long budgetBytes;
+    private final int uncompressedSteps;
+    private final int compressionThreshold;
+    private final Executor compressor;
+
+    private final Deque<Step> undoSteps = new ArrayDeque<>();
+    private final Deque<Step> redoSteps = new ArrayDeque<>();
+
+    /** Whether the newest undo step is still collecting typed edits. */
+    private boolean typing;
+
+    public UndoHistory() {
+        this(DEFAULT_BUDGET_BYTES);
+    }
+
+    public UndoHistory(long budgetBytes) {
+        this(budgetBytes, UNCOMPRESSED_STEPS, COMPRESSION_THRESHOLD, Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "undo-compressor");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        }));
+    }
+
+    UndoHistory(long budgetBytes, int uncompressedSteps, int compressionThreshold, Executor compressor) {
+        this.budgetBytes = budgetBytes;
+        this.uncompressedSteps = uncompressedSteps;
+        this.compressionThreshold = compressionThreshold;
+        this.compressor = compressor;
+    }
+
+    /** Records that {@code before}, at {@code start}, was replaced with {@code after}, e.g. by a transform. */
+    public void record(int start, String before, String after) {
+        Edit edit = Edit.between(start, before, after);
+        if (edit == null) return;
+        push(new Step(edit));
+        typing = false;
+    }
+
+    /** Records an edit typed or pasted into the text, which joins the other edits typed since the last change. */
+    public void typed(int start, String before, String after) {
+        Edit edit = Edit.between(start, before, after);
+        if (edit == null) return;
+        if (typing) {
+            redoSteps.clear();
+            undoSteps.peek().edits.add(edit);
+            trimToBudget();
+        } else {
+            push(new Step(edit));
+            typing = true;
+        }
+    }
+
+    public boolean canUndo() {
+        return !undoSteps.isEmpty();
+    }
+
+    public boolean canRedo() {
+        return !redoSteps.isEmpty();
+    }
+
+    /** Undoes the newest step in {@code document}.  Call only when {@link #canUndo()}. */
+    public void undo(Document document) {
+        redoSteps.push(undoSteps.pop().applyTo(document));
+        typing = false;
+    }
+
+    /** Applies the newest undone step to {@code document} again.  Call only when {@link #canRedo()}. */
+    public void redo(Document document) {
+        undoSteps.push(redoSteps.pop().applyTo(document));
+        typing = false;
+        compressOlderSteps();
+    }
+
+    public void clear() {
+        undoSteps.clear();
+        redoSteps.clear();
+        typing = false;
+    }
+
+    /** Roughly how many bytes the stored steps use. */
+    public long memoryUsed() {
+        long total = 0;
+        for (Step step : undoSteps) total += step.memoryUsed();
+        for (Step step : redoSteps) total += step.memoryUsed();
+        return total;
+    }
+
+    int undoSize() {
+        return undoSteps.size();
+    }
+
+    private void push(Step step) {
+        redoSteps.clear();
+        undoSteps.push(step);
+        compressOlderSteps();
+        trimToBudget();
+    }
+
+    private void trimToBudget() {
+        while (undoSteps.size() > 1 && memoryUsed() > budgetBytes) {
+            undoSteps.removeLast();
+        }
+    }
+
+    private void compressOlderSteps() {
+        Iterator<Step> it = undoSteps.iterator();
+        for (int i = 0; it.hasNext(); i++) {
+            Step step = it.next();
+            if (i < uncompressedSteps) continue;
+            for (Edit edit : step.edits) {
+                if (edit.startCompressing(compressionThreshold)) {
+                    compressor.execute(edit::compress);
+                }
+            }
+        }
+    }
+
+    /** One undoable change: edits that are undone from the last to the first. */
+    private static final class Step {
+
+        final ArrayList<Edit> edits = new ArrayList<>(1);
+
+        Step(Edit edit) {
+            edits.add(edit);
+        }
+
+        private Step() {
+        }
+
+        /** Applies the edits, newest first, and returns the step that puts them back. */
+        Step applyTo(Document document) {
+            Step inverse = new Step();
+            for (int i = edits.size() - 1; i >= 0; i--) {
+                inverse.edits.add(edits.get(i).applyTo(document));
+            }
+            return inverse;
+        }
+
+        long memoryUsed() {
+            long total = 0;
+            for (Edit edit : edits) total += edit.memoryUsed();
+            return total;
+        }
+
+    }
+
+    /**
+     * Replaces {@code replacedLength} characters at {@code start} with the stored text.  Applying an edit to the text it
+     * was made for gives the text it was made from.
+     */
+    private static final class Edit {
+
+        private final int start;
+        private final int replacedLength;
+        private final int textLength;
+
+        // Exactly one of these is set; the compressor thread swaps one for the other.
+        private String text;
+        private byte[] compressed;
+        private boolean compressing;
+
+        private Edit(int start, int replacedLength, String text) {
+            this.start = start;
+            this.replacedLength = replacedLength;
+            this.textLength = text.length();
+            this.text = text;
+        }
+
+        /**
+         * The edit that turns {@code after}, at {@code start}, back into {@code before}, or null if they are the same.
+         * The common prefix and suffix are left out, but never so as to split a \r\n.
+         */
+        static Edit between(int start, String before, String after) {
+            int limit = Math.min(before.length(), after.length());
+            int prefix = 0;
+            while (prefix < limit && before.charAt(prefix) == after.charAt(prefix)) prefix++;
+            if (prefix == before.length() && prefix == after.length()) return null;
+            if (prefix > 0 && before.charAt(prefix - 1) == '\r') prefix--;
+            int suffix = 0;
+            while (suffix < limit - prefix && before.charAt(before.length() - 1 - suffix)
+                    == after.charAt(after.length() - 1 - suffix)) suffix++;
+            if (suffix > 0 && before.charAt(before.length() - suffix) == '\n') suffix--;
+            return new Edit(start + prefix, after.length() - prefix - suffix,
+                    before.substring(prefix, before.length() - suffix));
+        }
+
+        /** Applies the edit to {@code document} and returns the edit that reverses it. */
+        Edit applyTo(Document document) {
+            String replaced = document.getTextRange(start, replacedLength);
+            document.replaceTextRange(start, replacedLength, text());
+            return new Edit(start, textLength, replaced);
+        }
+
+        /** True, once, if the edit is big enough to compress. */
+        synchronized boolean startCompressing(int threshold) {
+            if (text == null || compressing || textLength < threshold) return false;
+            compressing = true;
+            return true;
+        }
+
+        synchronized long memoryUsed() {
+            return 64 + (text != null ? 2L * textLength : compressed.length);
+        }
+
+        void compress() {
+            String plain;
+            synchronized (this) {
+                plain = text;
+            }
+            byte[] bytes = new byte[plain.length() * 2];
+            for (int i = 0; i < plain.length(); i++) {
+                char c = plain.charAt(i);
+                bytes[2 * i] = (byte) (c >> 8);
+                bytes[2 * i + 1] = (byte) c;
+            }
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+            deflater.setInput(bytes);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+            byte[] buffer = new byte[64 * 1024];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            deflater.end();
+            synchronized (this) {
+                compressed = out.toByteArray();
+                text = null;
+            }
+        }
+
+        synchronized String text() {
+            if (text != null) return text;
+
+            byte[] bytes = new byte[textLength * 2];
+            Inflater inflater = new Inflater();
+            inflater.setInput(compressed);
+            try {
+                int offset = 0;
+                while (offset < bytes.length && !inflater.finished()) {
+                    offset += inflater.inflate(bytes, offset, bytes.length - offset);
+                }
+            } catch (DataFormatException e) {
+                throw new IllegalStateException("Corrupt undo step", e);
+            } finally {
+                inflater.end();
+            }
+            char[] chars = new char[textLength];
+            for (int i = 0; i < textLength; i++) {
+                chars[i] = (char) (((bytes[2 * i] & 0xFF) << 8) | (bytes[2 * i + 1] & 0xFF));
+            }
+            return new String(chars);
+        }
+
+    }
+
+}
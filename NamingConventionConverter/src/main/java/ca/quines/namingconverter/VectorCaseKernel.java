@@ -0,0 +1,34 @@
+package ca.quines.namingconverter;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The ASCII pass of {@link CaseMapper}, a whole vector of bytes at a time.  Only {@link CaseMapper#loadKernel()}
+ * refers to this class, by name, so the rest of the program runs without the incubator module.
+ */
+final class VectorCaseKernel implements CaseMapper.Kernel {
+
+    // Touched when the class initializes, so a missing module fails in loadKernel() rather than on the first call.
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+
+    @Override
+    public int map(byte[] bytes, int from, int to, boolean upper) {
+        byte first = (byte) (upper ? 'a' : 'A');
+        byte last = (byte) (first + 25);
+        int i = from;
+        for (int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+            ByteVector v = ByteVector.fromArray(SPECIES, bytes, i);
+            if (v.compare(VectorOperators.LT, (byte) 0).or(v.compare(VectorOperators.EQ, (byte) '?')).anyTrue()) {
+                // The scalar loop finds exactly where.
+                break;
+            }
+            VectorMask<Byte> letters = v.compare(VectorOperators.GE, first).and(v.compare(VectorOperators.LE, last));
+            v.lanewise(VectorOperators.XOR, (byte) 0x20, letters).intoArray(bytes, i);
+        }
+        return CaseMapper.mapAscii(bytes, i, to, upper);
+    }
+
+}
@@ -0,0 +1,471 @@
+package ca.quines.namingconverter.cli;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import ca.quines.namingconverter.CasingDictionary;
+import ca.quines.namingconverter.InClauseBuilder;
+import ca.quines.namingconverter.Operation;
+import ca.quines.namingconverter.PercentCodec;
+import ca.quines.namingconverter.Recipe;
+import ca.quines.namingconverter.ReplacementRules;
+import ca.quines.namingconverter.TransformCache;
+import ca.quines.namingconverter.TransformMetrics;
+import ca.quines.namingconverter.Transformation;
+
+/**
+ * Headless entry point that applies one {@link Operation}, a saved {@link Recipe}, or a table of
+ * {@link ReplacementRules} to stdin or to files, e.g.
+ *
+ * <pre>
+ * java -cp naming-convention-converter.jar ca.quines.namingconverter.cli.BatchConverter snakeToCamel columns.txt
+ * </pre>
+ *
+ * The input is read one line at a time through buffered channels, so memory use doesn't depend on the input size.
+ * Each line is transformed on its own and written out followed by '\n'.  The list operations, such as the IN clauses,
+ * write their one line of output as they read through {@link InClauseBuilder}.  Other operations that
+ * {@link Transformation#joinsLines() join lines}, such as cleanUpSql, need to see every line and so read the whole
+ * input first.
+ * decodeUrl and encodeUrl skip the text altogether and go through {@link PercentCodec} from bytes to bytes.
+ * <p>
+ * This class must never touch SWT so it can run on build servers without a display.
+ */
+public class BatchConverter {
+
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String USAGE = String.join("\n",
+            "Usage: BatchConverter <operation> [-o <output file>] [<input file>...]",
+            "       BatchConverter --recipe <recipe file or name> [-o <output file>] [<input file>...]",
+            "       BatchConverter --rules <rules file> [-o <output file>] [<input file>...]",
+            "       BatchConverter <operation> --parallel [--threads <n>] -o <output file> <input file>",
+            "       BatchConverter <list operation> [--limit <n>] [--column <column> | --statement <text before IN>]",
+            "                      [-o <output file>] [<input file>...]",
+            "       BatchConverter <operation> --csv|--tsv <columns> [--header] [-o <output file>] [<input file>...]",
+            "       BatchConverter --list",
+            "",
+            "Reads stdin when no input files are given and writes stdout when no output file is given.",
+            "--parallel memory-maps the input and converts newline-aligned chunks on all cores.",
+            "--cache <entries> remembers recent results, which pays off when the same identifiers repeat.",
+            "--dictionary <file> gives the casing operations their acronyms, forced spellings and minor words;",
+            "without it, -Dncc.dictionary or ~/.naming-convention-converter/casing.dictionary is used if present.",
+            "The list operations (newlineToComma, toInClauseInt, ...) drop repeated values and stream their output;",
+            "For the IN clauses, --limit splits the values into (COL IN (...) OR COL IN (...)), or into one statement",
+            "per group.",
+            "--csv and --tsv convert only the given columns, by number from 1 or by header name, and copy the rest;",
+            "the first row is a header if a column is named or with --header.",
+            "decodeUrl and encodeUrl work on the bytes a line at a time; a '%' that isn't an escape is kept.",
+            "A rules file has one <find><tab><replacement>[<tab>regex] per line; all rules are applied in one scan.",
+            "With -Dncc.metrics=true, per-operation call counts, latencies and allocations are printed to stderr.");
+
+    public static void main(String[] args) {
+        int exitCode = run(args, System.in, System.out, System.err);
+        if (TransformMetrics.isEnabled()) System.err.print(TransformMetrics.report());
+        System.exit(exitCode);
+    }
+
+    /** Runs the command line and returns the process exit code. */
+    static int run(String[] args, InputStream stdin, PrintStream stdout, PrintStream err) {
+        String operationName = null;
+        String recipeName = null;
+        String rulesName = null;
+        Path output = null;
+        List<Path> inputs = new ArrayList<>();
+        boolean parallel = false;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int limit = 0;
+        String column = null;
+        String statement = null;
+        int cacheEntries = 0;
+        char delimiter = 0;
+        String columns = null;
+        boolean header = false;
+        String dictionaryName = null;
+
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.equals("--list")) {
+                for (Operation operation : Operation.values()) {
+                    stdout.println(operation.cliName() + "\t" + operation.label().replace('\n', ' '));
+                }
+                return 0;
+            } else if (arg.equals("-h") || arg.equals("--help")) {
+                stdout.println(USAGE);
+                return 0;
+            } else if (arg.equals("-o") || arg.equals("--output")) {
+                if (++i == args.length) {
+                    err.println(USAGE);
+                    return 2;
+                }
+                output = Path.of(args[i]);
+            } else if (arg.equals("--recipe")) {
+                if (++i == args.length) {
+                    err.println(USAGE);
+                    return 2;
+                }
+                recipeName = args[i];
+            } else if (arg.equals("--rules")) {
+                if (++i == args.length) {
+                    err.println(USAGE);
+                    return 2;
+                }
+                rulesName = args[i];
+            } else if (arg.equals("--dictionary")) {
+                if (++i == args.length) {
+                    err.println(USAGE);
+                    return 2;
+                }
+                dictionaryName = args[i];
+            } else if (arg.equals("--parallel")) {
+                parallel = true;
+            } else if (arg.equals("--threads")) {
+                if (++i == args.length) {
+                    err.println(USAGE);
+                    return 2;
+                }
+                try {
+                    threads = Integer.parseInt(args[i]);
+                } catch (NumberFormatException e) {
+                    err.println("--threads needs a number: " + args[i]);
+                    return 2;
+                }
+            } else if (arg.equals("--limit")) {
+                if (++i == args.length) {
+                    err.println(USAGE);
+                    return 2;
+                }
+                try {
+                    limit = Integer.parseInt(args[i]);
+                } catch (NumberFormatException e) {
+                    err.println("--limit needs a number: " + args[i]);
+                    return 2;
+                }
+            } else if (arg.equals("--cache")) {
+                if (++i == args.length) {
+                    err.println(USAGE);
+                    return 2;
+                }
+                try {
+                    cacheEntries = Integer.parseInt(args[i]);
+                } catch (NumberFormatException e) {
+                    cacheEntries = -1;
+                }
+                if (cacheEntries < 0) {
+                    err.println("--cache needs a number of entries, 0 or more: " + args[i]);
+                    return 2;
+                }
+            } else if (arg.equals("--column")) {
+                if (++i == args.length) {
+                    err.println(USAGE);
+                    return 2;
+                }
+                column = args[i];
+            } else if (arg.equals("--csv") || arg.equals("--tsv")) {
+                if (++i == args.length) {
+                    err.println(USAGE);
+                    return 2;
+                }
+                delimiter = arg.equals("--csv") ? ',' : '\t';
+                columns = args[i];
+            } else if (arg.equals("--header")) {
+                header = true;
+            } else if (arg.equals("--statement")) {
+                if (++i == args.length) {
+                    err.println(USAGE);
+                    return 2;
+                }
+                statement = args[i];
+            } else if (operationName == null && recipeName == null && rulesName == null) {
+                operationName = arg;
+            } else {
+                inputs.add(Path.of(arg));
+            }
+        }
+
+        if (operationName == null && recipeName == null && rulesName == null) {
+            err.println(USAGE);
+            return 2;
+        }
+
+        Transformation operation;
+        try {
+            // A one-shot process, so the dictionary can simply replace the one every operation uses.
+            if (dictionaryName != null) CasingDictionary.setCurrent(CasingDictionary.load(Path.of(dictionaryName)));
+            operation = recipeName != null ? loadRecipe(recipeName)
+                    : rulesName != null ? ReplacementRules.load(Path.of(rulesName))
+                    : Operation.forName(operationName);
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            return 2;
+        } catch (IOException e) {
+            err.println("Error: " + e.getMessage());
+            return 1;
+        }
+
+        InClauseBuilder.Values listValues = listValues(operation);
+        boolean percent = (operation == Operation.DECODE_URL || operation == Operation.ENCODE_URL)
+                && !TransformMetrics.isEnabled();
+        boolean decode = operation == Operation.DECODE_URL;
+        boolean plainList = operation == Operation.NEWLINE_TO_COMMA || operation == Operation.NEWLINE_TO_QUOTED_COMMA;
+        if (cacheEntries > 0 && !operation.joinsLines()) {
+            operation = new TransformCache(cacheEntries).wrap(operation);
+        }
+        operation = TransformMetrics.wrap(operation);
+
+        if (columns != null && (parallel || listValues != null)) {
+            err.println("--csv and --tsv can't be combined with --parallel or the list operations.");
+            return 2;
+        }
+        if (header && columns == null) {
+            err.println("--header only applies to --csv and --tsv.");
+            return 2;
+        }
+
+        try {
+            checkOutputIsNotAnInput(output, inputs);
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            return 2;
+        } catch (IOException e) {
+            err.println("Error: " + e.getMessage());
+            return 1;
+        }
+
+        if (parallel) {
+            if (output == null || inputs.size() != 1) {
+                err.println("--parallel needs exactly one input file and an output file.");
+                return 2;
+            }
+            try {
+                new ParallelFileConverter(operation, threads).convert(inputs.get(0), output);
+            } catch (IllegalArgumentException e) {
+                err.println(e.getMessage());
+                return 2;
+            } catch (IOException e) {
+                err.println("Error: " + e.getMessage());
+                return 1;
+            }
+            return 0;
+        }
+
+        if ((limit != 0 || column != null || statement != null) && listValues == null) {
+            err.println("--limit, --column and --statement only apply to the list operations.");
+            return 2;
+        }
+        if ((limit != 0 || column != null || statement != null) && plainList) {
+            err.println("--limit, --column and --statement only apply to the IN clause operations, "
+                    + "not to plain lists.");
+            return 2;
+        }
+
+        // Every input is opened before the output, so a mistyped input path can't truncate the output file.
+        List<ReadableByteChannel> channels = new ArrayList<>();
+        try {
+            if (inputs.isEmpty()) {
+                channels.add(Channels.newChannel(stdin));
+            }
+            for (Path input : inputs) {
+                channels.add(FileChannel.open(input, StandardOpenOption.READ));
+            }
+            try (WritableByteChannel out = openOutput(output, stdout)) {
+                if (columns != null) {
+                    convertDelimited(operation, delimiter, columns, header, channels, out);
+                } else if (percent) {
+                    for (ReadableByteChannel channel : channels) {
+                        convertPercent(decode, channel, out);
+                    }
+                } else {
+                    try (Writer writer = newWriter(out)) {
+                        if (listValues != null) {
+                            InClauseBuilder.Layout layout = plainList ? InClauseBuilder.Layout.LIST
+                                    : statement != null ? InClauseBuilder.Layout.STATEMENTS : InClauseBuilder.Layout.IN;
+                            InClauseBuilder builder = new InClauseBuilder(writer, listValues, layout,
+                                    statement != null ? statement : column, limit);
+                            convertList(builder, channels);
+                            writer.write('\n');
+                        } else {
+                            convert(operation, channels, writer);
+                        }
+                    }
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            // A bad option combination, a missing column, or a line that isn't a number.
+            err.println(e.getMessage());
+            return 2;
+        } catch (IOException e) {
+            err.println("Error: " + e.getMessage());
+            return 1;
+        } finally {
+            // stdin belongs to the caller.
+            for (ReadableByteChannel channel : inputs.isEmpty() ? List.<ReadableByteChannel>of() : channels) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    // Only read from, so nothing is lost.
+                }
+            }
+        }
+        return 0;
+    }
+
+    /** --csv and --tsv: each input is its own document, with its own header. */
+    private static void convertDelimited(Transformation operation, char delimiter, String columns, boolean header,
+            List<ReadableByteChannel> inputs, WritableByteChannel channel) throws IOException {
+        DelimitedConverter converter = new DelimitedConverter(operation, delimiter,
+                DelimitedConverter.parseColumns(columns), header);
+        OutputStream out = Channels.newOutputStream(channel);
+        for (ReadableByteChannel input : inputs) {
+            converter.convert(Channels.newInputStream(input), out);
+        }
+    }
+
+    /** decodeUrl and encodeUrl: straight from bytes to bytes, without decoding the text into lines first. */
+    private static void convertPercent(boolean decode, ReadableByteChannel in, WritableByteChannel out)
+            throws IOException {
+        int last = decode ? PercentCodec.decode(in, out) : PercentCodec.encode(in, out, true);
+        // Like the line by line conversion, each input ends with a line break.
+        if (last != -1 && last != '\n') {
+            out.write(ByteBuffer.wrap(new byte[] {'\n'}));
+        }
+    }
+
+    /** The output file, or stdout, which is only flushed when the channel is closed. */
+    private static WritableByteChannel openOutput(Path output, PrintStream stdout) throws IOException {
+        return output == null ? Channels.newChannel(new UnclosedOutputStream(stdout)) : FileChannel.open(output,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /** Keeps stdout open for the caller: closing it only flushes. */
+    private static final class UnclosedOutputStream extends FilterOutputStream {
+
+        UnclosedOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+
+    }
+
+    /** A recipe file, or the name of a recipe saved from the GUI. */
+    private static Recipe loadRecipe(String recipe) throws IOException {
+        Path file = Path.of(recipe);
+        if (!Files.isRegularFile(file)) {
+            file = Recipe.defaultDirectory().resolve(recipe + Recipe.FILE_EXTENSION);
+        }
+        return Recipe.load(file);
+    }
+
+    /**
+     * Rejects an output file that is also one of the inputs: opening it for writing would empty it before it was
+     * read.  Inputs that don't exist are left for opening them to report.
+     */
+    static void checkOutputIsNotAnInput(Path output, List<Path> inputs) throws IOException {
+        if (output == null || !Files.exists(output)) return;
+        for (Path input : inputs) {
+            if (Files.exists(input) && Files.isSameFile(input, output)) {
+                throw new IllegalArgumentException("The output file is also an input: " + input);
+            }
+        }
+    }
+
+    /** Applies {@code operation} to one file, one line at a time. */
+    public static void convert(Transformation operation, Path input, Path output) throws IOException {
+        checkOutputIsNotAnInput(output, List.of(input));
+        try (ReadableByteChannel in = FileChannel.open(input, StandardOpenOption.READ);
+             WritableByteChannel out = FileChannel.open(output,
+                     StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             Writer writer = newWriter(out)) {
+            convert(operation, List.of(in), writer);
+        }
+    }
+
+    /** Applies {@code operation} to the concatenation of {@code inputs}. */
+    static void convert(Transformation operation, List<ReadableByteChannel> inputs, Writer writer) throws IOException {
+        if (operation.joinsLines()) {
+            StringBuilder all = new StringBuilder();
+            for (ReadableByteChannel input : inputs) {
+                BufferedReader reader = newReader(input);
+                char[] buffer = new char[BUFFER_SIZE];
+                int read;
+                while ((read = reader.read(buffer)) != -1) {
+                    all.append(buffer, 0, read);
+                }
+                if (all.length() > 0 && all.charAt(all.length() - 1) != '\n') {
+                    all.append('\n');
+                }
+            }
+            writer.write(operation.apply(all.toString()));
+            writer.write('\n');
+            return;
+        }
+
+        for (ReadableByteChannel input : inputs) {
+            BufferedReader reader = newReader(input);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                writer.write(operation.apply(line));
+                writer.write('\n');
+            }
+        }
+    }
+
+    /** The values a list operation expects, or null if it isn't one of the list operations. */
+    private static InClauseBuilder.Values listValues(Transformation operation) {
+        if (operation == Operation.NEWLINE_TO_COMMA) return InClauseBuilder.Values.TEXT;
+        if (operation == Operation.IN_CLAUSE_INT) return InClauseBuilder.Values.NUMBERS;
+        if (operation == Operation.NEWLINE_TO_QUOTED_COMMA || operation == Operation.IN_CLAUSE_STRING) {
+            return InClauseBuilder.Values.STRINGS;
+        }
+        return null;
+    }
+
+    /** Feeds every line to {@code builder}, so the list is written while it is read. */
+    static void convertList(InClauseBuilder builder, List<ReadableByteChannel> inputs) throws IOException {
+        for (ReadableByteChannel input : inputs) {
+            BufferedReader reader = newReader(input);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                builder.add(line);
+            }
+        }
+        builder.finish();
+    }
+
+    static BufferedReader newReader(ReadableByteChannel channel) {
+        Reader reader = Channels.newReader(channel, StandardCharsets.UTF_8.newDecoder(), BUFFER_SIZE);
+        return new BufferedReader(reader, BUFFER_SIZE);
+    }
+
+    static Writer newWriter(WritableByteChannel channel) {
+        Writer writer = Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), BUFFER_SIZE);
+        return new BufferedWriter(writer, BUFFER_SIZE);
+    }
+
+}
@@ -0,0 +1,263 @@
+package ca.quines.namingconverter.cli;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import ca.quines.namingconverter.Transformation;
+
+/**
+ * Applies an operation to chosen columns of CSV or TSV input, such as COLUMN_NAME in an export of the data dictionary,
+ * and copies everything else through untouched:
+ *
+ * <pre>
+ * java -cp naming-convention-converter.jar ca.quines.namingconverter.cli.BatchConverter snakeToCamel \
+ *     --csv COLUMN_NAME columns.csv
+ * </pre>
+ *
+ * Fields may be quoted the RFC 4180 way, with doubled quotes inside, and a quoted field may hold delimiters and line
+ * breaks.  A quote anywhere but the start of a field is an ordinary character, as in spreadsheet exports.
+ * <p>
+ * The input is scanned as bytes, which works for UTF-8 because the delimiters and quotes are all ASCII.  Fields in other
+ * columns, the delimiters and the line endings are written out as the exact bytes that were read; only the chosen
+ * fields are decoded, converted, and quoted again if they were quoted before or now need to be.  Memory use is the
+ * buffer plus the longest converted field, whatever the size of the input.
+ */
+public class DelimitedConverter {
+
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Transformation operation;
+    private final byte delimiter;
+    private final boolean header;
+    private final int[] indexes;
+    private final List<String> names;
+    private final int bufferSize;
+
+    /**
+     * @param columns 1-based column numbers or header names; any name means the first row is a header
+     * @param header whether the first row is a header, which is copied through unchanged
+     */
+    public DelimitedConverter(Transformation operation, char delimiter, List<String> columns, boolean header) {
+        this(operation, delimiter, columns, header, BUFFER_SIZE);
+    }
+
+    DelimitedConverter(Transformation operation, char delimiter, List<String> columns, boolean header,
+            int bufferSize) {
+        if (operation.joinsValues()) {
+            throw new IllegalArgumentException(operation + " joins lines and can't convert single fields.");
+        }
+        if (delimiter == '"' || delimiter == '\n' || delimiter == '\r' || delimiter >= 0x80) {
+            throw new IllegalArgumentException("The delimiter must be an ASCII character other than a quote or a"
+                    + " line break.");
+        }
+        if (columns.isEmpty()) {
+            throw new IllegalArgumentException("No columns to convert.");
+        }
+        List<Integer> numbers = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        for (String column : columns) {
+            if (column.chars().allMatch(c -> c >= '0' && c <= '9')) {
+                int number = column.length() > 9 ? 0 : Integer.parseInt(column);
+                if (number < 1) throw new IllegalArgumentException("Column numbers start at 1: " + column);
+                numbers.add(number - 1);
+            } else {
+                names.add(column);
+            }
+        }
+        this.operation = operation;
+        this.delimiter = (byte) delimiter;
+        this.header = header || !names.isEmpty();
+        this.indexes = numbers.stream().mapToInt(Integer::intValue).toArray();
+        this.names = List.copyOf(names);
+        this.bufferSize = bufferSize;
+    }
+
+    /** A comma-separated list of columns, as given on the command line. */
+    public static List<String> parseColumns(String list) {
+        List<String> columns = new ArrayList<>();
+        for (String column : list.split(",")) {
+            if (!column.isBlank()) columns.add(column.trim());
+        }
+        return columns;
+    }
+
+    /**
+     * Converts one document from {@code in} to {@code out}.  Neither stream is closed; {@code out} is flushed.
+     *
+     * @throws IllegalArgumentException if a column name isn't in the header
+     */
+    public void convert(InputStream in, OutputStream out) throws IOException {
+        new Scan(new BufferedOutputStream(out, bufferSize)).run(in);
+    }
+
+    /** The state of one pass over a document. */
+    private final class Scan {
+
+        private final OutputStream out;
+        private boolean[] selected;
+        private final List<String> headerNames = new ArrayList<>();
+        private boolean inHeader = header;
+
+        private byte[] field = new byte[64];
+        private int fieldLength;
+        private int fieldIndex;
+        private boolean fieldStart = true;
+        private boolean quoted;
+        private boolean inQuotes;
+        private boolean recordEmpty = true;
+
+        Scan(OutputStream out) {
+            this.out = out;
+            if (!inHeader) selected = select(indexes);
+        }
+
+        void run(InputStream in) throws IOException {
+            byte[] buffer = new byte[bufferSize];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                int copyFrom = 0;
+                for (int i = 0; i < read; i++) {
+                    byte b = buffer[i];
+                    if (inQuotes) {
+                        if (b == '"') inQuotes = false;
+                    } else if (b == '"' && (fieldStart || quoted)) {
+                        // Opens a quoted field, or is the second of a doubled quote inside one.
+                        quoted = true;
+                        inQuotes = true;
+                    } else if (b == delimiter || b == '\n') {
+                        take(buffer, copyFrom, i);
+                        endField(b == '\n');
+                        out.write(b);
+                        copyFrom = i + 1;
+                        if (b == '\n') {
+                            endRecord();
+                        } else {
+                            fieldIndex++;
+                        }
+                        continue;
+                    }
+                    fieldStart = false;
+                    recordEmpty = false;
+                }
+                take(buffer, copyFrom, read);
+            }
+            if (!recordEmpty) {
+                endField(false);
+                endRecord();
+            }
+            out.flush();
+        }
+
+        private boolean isSelected() {
+            return selected != null && fieldIndex < selected.length && selected[fieldIndex];
+        }
+
+        /** Part of the current field: kept if it is to be converted or is a header name, and written out if not. */
+        private void take(byte[] buffer, int from, int to) throws IOException {
+            if (from == to) return;
+            boolean convert = isSelected();
+            if (convert || inHeader) {
+                if (fieldLength + to - from > field.length) {
+                    field = Arrays.copyOf(field, Math.max(field.length * 2, fieldLength + to - from));
+                }
+                System.arraycopy(buffer, from, field, fieldLength, to - from);
+                fieldLength += to - from;
+            }
+            if (!convert) out.write(buffer, from, to - from);
+        }
+
+        private void endField(boolean beforeNewline) throws IOException {
+            // A CRLF line ending leaves its CR on the last field.
+            int length = fieldLength;
+            boolean cr = beforeNewline && length > 0 && field[length - 1] == '\r';
+            if (cr) length--;
+            if (inHeader) {
+                headerNames.add(unquote(field, length).trim());
+            } else if (isSelected()) {
+                writeConverted(unquote(field, length), quoted);
+                if (cr) out.write('\r');
+            }
+            fieldLength = 0;
+            fieldStart = true;
+            quoted = false;
+        }
+
+        private void endRecord() {
+            if (inHeader) {
+                inHeader = false;
+                selected = select(resolveNames());
+            }
+            fieldIndex = 0;
+            recordEmpty = true;
+        }
+
+        private int[] resolveNames() {
+            int[] all = Arrays.copyOf(indexes, indexes.length + names.size());
+            int n = indexes.length;
+            for (String name : names) {
+                int index = headerNames.indexOf(name);
+                if (index < 0) {
+                    throw new IllegalArgumentException("No column named " + name + " in the header: "
+                            + String.join(", ", headerNames));
+                }
+                all[n++] = index;
+            }
+            return all;
+        }
+
+        private void writeConverted(String value, boolean wasQuoted) throws IOException {
+            String result = operation.apply(value);
+            if (wasQuoted || needsQuotes(result)) {
+                result = '"' + result.replace("\"", "\"\"") + '"';
+            }
+            out.write(result.getBytes(StandardCharsets.UTF_8));
+        }
+
+        private boolean needsQuotes(String value) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == delimiter || c == '"' || c == '\n' || c == '\r') return true;
+            }
+            return false;
+        }
+
+    }
+
+    private static boolean[] select(int[] indexes) {
+        boolean[] selected = new boolean[Arrays.stream(indexes).max().orElse(-1) + 1];
+        for (int index : indexes) {
+            selected[index] = true;
+        }
+        return selected;
+    }
+
+    /** The text of a raw field, without its quotes; strictly decoded, so text in another encoding is an error. */
+    static String unquote(byte[] raw, int length) throws IOException {
+        byte[] bytes = raw;
+        if (length > 0 && raw[0] == '"') {
+            bytes = new byte[length];
+            int n = 0;
+            boolean inQuotes = false;
+            for (int i = 0; i < length; i++) {
+                if (raw[i] != '"') {
+                    bytes[n++] = raw[i];
+                } else if (inQuotes && i + 1 < length && raw[i + 1] == '"') {
+                    bytes[n++] = '"';
+                    i++;
+                } else {
+                    inQuotes = !inQuotes;
+                }
+            }
+            length = n;
+        }
+        return StandardCharsets.UTF_8.newDecoder().decode(ByteBuffer.wrap(bytes, 0, length)).toString();
+    }
+
+}
@@ -0,0 +1,153 @@
+package ca.quines.namingconverter.cli;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads and writes JSON arrays of strings, which is all the JSON {@link TransformServer} needs, so the tool keeps
+ * having no dependencies besides SWT.
+ */
+final class JsonStrings {
+
+    private JsonStrings() {
+    }
+
+    /** Parses {@code ["a", "b", null]}; null elements stay null.  Throws IllegalArgumentException on anything else. */
+    static List<String> parseArray(CharSequence json) {
+        Parser parser = new Parser(json);
+        List<String> values = new ArrayList<>();
+        parser.skipWhitespace();
+        parser.expect('[');
+        parser.skipWhitespace();
+        if (parser.peek() == ']') {
+            parser.pos++;
+        } else {
+            while (true) {
+                parser.skipWhitespace();
+                values.add(parser.stringOrNull());
+                parser.skipWhitespace();
+                char c = parser.next();
+                if (c == ']') break;
+                if (c != ',') throw parser.error("Expected , or ]");
+            }
+        }
+        parser.skipWhitespace();
+        if (parser.pos != json.length()) throw parser.error("Unexpected text after the array");
+        return values;
+    }
+
+    /** Writes {@code values} as a JSON array. */
+    static void writeArray(List<String> values, StringBuilder out) {
+        out.append('[');
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) out.append(',');
+            String value = values.get(i);
+            if (value == null) {
+                out.append("null");
+            } else {
+                writeString(value, out);
+            }
+        }
+        out.append(']');
+    }
+
+    static void writeString(String value, StringBuilder out) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': out.append("\\\""); break;
+                case '\\': out.append("\\\\"); break;
+                case '\n': out.append("\\n"); break;
+                case '\r': out.append("\\r"); break;
+                case '\t': out.append("\\t"); break;
+                case '\b': out.append("\\b"); break;
+                case '\f': out.append("\\f"); break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        out.append('"');
+    }
+
+    private static final class Parser {
+
+        private final CharSequence json;
+        private int pos;
+
+        Parser(CharSequence json) {
+            this.json = json;
+        }
+
+        char peek() {
+            if (pos >= json.length()) throw error("Unexpected end of JSON");
+            return json.charAt(pos);
+        }
+
+        char next() {
+            char c = peek();
+            pos++;
+            return c;
+        }
+
+        void expect(char expected) {
+            if (next() != expected) throw error("Expected " + expected);
+        }
+
+        void skipWhitespace() {
+            while (pos < json.length()) {
+                char c = json.charAt(pos);
+                if (c != ' ' && c != '\t' && c != '\n' && c != '\r') break;
+                pos++;
+            }
+        }
+
+        String stringOrNull() {
+            if (peek() == 'n') {
+                for (char c : "null".toCharArray()) expect(c);
+                return null;
+            }
+            expect('"');
+            StringBuilder sb = new StringBuilder();
+            while (true) {
+                char c = next();
+                if (c == '"') return sb.toString();
+                if (c < 0x20) throw error("Control character in a string");
+                if (c != '\\') {
+                    sb.append(c);
+                    continue;
+                }
+                char escape = next();
+                switch (escape) {
+                    case '"': case '\\': case '/': sb.append(escape); break;
+                    case 'n': sb.append('\n'); break;
+                    case 'r': sb.append('\r'); break;
+                    case 't': sb.append('\t'); break;
+                    case 'b': sb.append('\b'); break;
+                    case 'f': sb.append('\f'); break;
+                    case 'u':
+                        if (pos + 4 > json.length()) throw error("Bad \\u escape");
+                        try {
+                            sb.append((char) Integer.parseInt(json.subSequence(pos, pos + 4).toString(), 16));
+                        } catch (NumberFormatException e) {
+                            throw error("Bad \\u escape");
+                        }
+                        pos += 4;
+                        break;
+                    default:
+                        throw error("Bad escape \\" + escape);
+                }
+            }
+        }
+
+        IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at offset " + pos + " of the JSON.");
+        }
+
+    }
+
+}
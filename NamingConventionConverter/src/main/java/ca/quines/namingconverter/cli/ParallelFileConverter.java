@@ -0,0 +1,143 @@
+package ca.quines.namingconverter.cli;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import ca.quines.namingconverter.Transformation;
+
+/**
+ * Converts one large file by memory-mapping it, cutting it into newline-aligned chunks and transforming the chunks in
+ * parallel on a fork-join pool.  The results are written out in the original order, with only a bounded number of
+ * chunks in flight at once.
+ * <p>
+ * The output is identical to {@link BatchConverter}: each line is transformed on its own and terminated by '\n'.
+ * That means operations that {@link Transformation#joinsLines() join lines} can't be used here.
+ */
+public class ParallelFileConverter {
+
+    static final int DEFAULT_CHUNK_SIZE = 8 * 1024 * 1024;
+
+    private final Transformation operation;
+    private final int parallelism;
+    private final int chunkSize;
+
+    public ParallelFileConverter(Transformation operation, int parallelism) {
+        this(operation, parallelism, DEFAULT_CHUNK_SIZE);
+    }
+
+    ParallelFileConverter(Transformation operation, int parallelism, int chunkSize) {
+        if (operation.joinsLines()) {
+            throw new IllegalArgumentException(operation + " works on whole texts and can't be run in parallel chunks.");
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1: " + parallelism);
+        }
+        this.operation = operation;
+        this.parallelism = parallelism;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Converts {@code input} into {@code output}.  They may not be the same file: the input would be truncated while
+     * mapped, and reading a mapped page that is gone crashes the JVM rather than throwing.
+     */
+    public void convert(Path input, Path output) throws IOException {
+        BatchConverter.checkOutputIsNotAnInput(output, List.of(input));
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(output,
+                     StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long size = in.size();
+            long start = 0;
+            Deque<ForkJoinTask<ByteBuffer>> inFlight = new ArrayDeque<>();
+            int maxInFlight = parallelism * 2;
+
+            while (start < size || !inFlight.isEmpty()) {
+                while (start < size && inFlight.size() < maxInFlight) {
+                    long end = nextBoundary(in, Math.min(start + chunkSize, size), size);
+                    if (end - start > Integer.MAX_VALUE) {
+                        throw new IOException("Line starting near byte " + start + " is too long to map.");
+                    }
+                    MappedByteBuffer chunk = in.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+                    inFlight.add(pool.submit(() -> convertChunk(chunk)));
+                    start = end;
+                }
+
+                ByteBuffer converted = join(inFlight.remove());
+                while (converted.hasRemaining()) {
+                    out.write(converted);
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /** The position just after the first '\n' at or after {@code from}, or {@code size} if there isn't one. */
+    private static long nextBoundary(FileChannel in, long from, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        long position = from;
+        while (position < size) {
+            buffer.clear();
+            int read = in.read(buffer, position);
+            if (read <= 0) break;
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private ByteBuffer convertChunk(ByteBuffer chunk) {
+        CharBuffer decoded;
+        try {
+            // Chunks end on '\n', which never occurs inside a multi-byte UTF-8 sequence.
+            decoded = StandardCharsets.UTF_8.newDecoder().decode(chunk);
+        } catch (CharacterCodingException e) {
+            throw new UncheckedIOException(e);
+        }
+        char[] chars = decoded.array();
+        int length = decoded.limit();
+
+        StringBuilder sb = new StringBuilder(length + (length >> 3));
+        int lineStart = 0;
+        // Line terminators are the same as BufferedReader.readLine: \n, \r or \r\n.
+        for (int i = 0; i < length; i++) {
+            char c = chars[i];
+            if (c == '\n' || c == '\r') {
+                sb.append(operation.apply(new String(chars, lineStart, i - lineStart))).append('\n');
+                if (c == '\r' && i + 1 < length && chars[i + 1] == '\n') i++;
+                lineStart = i + 1;
+            }
+        }
+        if (lineStart < length) {
+            sb.append(operation.apply(new String(chars, lineStart, length - lineStart))).append('\n');
+        }
+        return ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ByteBuffer join(ForkJoinTask<ByteBuffer> task) throws IOException {
+        try {
+            return task.join();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+}
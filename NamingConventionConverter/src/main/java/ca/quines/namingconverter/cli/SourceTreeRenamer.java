@@ -0,0 +1,317 @@
+package ca.quines.namingconverter.cli;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import java.util.stream.Stream;
+
+import ca.quines.namingconverter.Operation;
+import ca.quines.namingconverter.ReplacementRules;
+import ca.quines.namingconverter.SourceLexer;
+import ca.quines.namingconverter.TransformCache;
+import ca.quines.namingconverter.TransformMetrics;
+import ca.quines.namingconverter.Transformation;
+
+/**
+ * Renames identifiers across a whole source tree, e.g. after a schema moves from UPPER_SNAKE to snake_case:
+ *
+ * <pre>
+ * java -cp naming-convention-converter.jar ca.quines.namingconverter.cli.SourceTreeRenamer \
+ *     --map renames.rules --dry-run src/main
+ * </pre>
+ *
+ * Every .java and .sql file under the given directories is read and lexed by {@link SourceLexer}, so only identifiers
+ * are touched: never string literals, comments, quoted SQL names or keywords.  Each identifier goes through an
+ * {@link Operation}, optionally only when it matches a regex, or is looked up in a mapping table.  The table uses the
+ * {@link ReplacementRules} file format, one {@code old<tab>new} per line, and matches whole identifiers.
+ * <p>
+ * Files are processed in parallel on a fork-join pool.  A file is only written when something in it changed, and then
+ * through a temporary file in the same directory that is moved over the original, so a crash never leaves half a file.
+ * This class must never touch SWT.
+ */
+public class SourceTreeRenamer {
+
+    private static final String USAGE = String.join("\n",
+            "Usage: SourceTreeRenamer <operation> [--match <regex>] [options] <directory>...",
+            "       SourceTreeRenamer --map <rules file> [options] <directory>...",
+            "",
+            "Options: --dry-run      list the files that would change, without writing them",
+            "         --threads <n>  files converted at once, all cores by default",
+            "",
+            "Renames identifiers in every .java and .sql file; strings, comments and keywords are left alone.",
+            "With an operation, --match limits it to the identifiers that match the whole regex.",
+            "A map file has one <old identifier><tab><new identifier> per line.");
+
+    /** What happened to a tree. */
+    public record Summary(int filesScanned, int filesChanged, long identifiersRenamed, List<String> errors,
+            long elapsedNanos) {
+
+        public long elapsedMillis() {
+            return elapsedNanos / 1_000_000;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d of %d files changed, %d identifiers renamed, %d errors, %d ms",
+                    filesChanged, filesScanned, identifiersRenamed, errors.size(), elapsedMillis());
+        }
+
+    }
+
+    /** Called with each file that changed, possibly from several threads at once. */
+    @FunctionalInterface
+    public interface ChangeListener {
+        void changed(Path file);
+    }
+
+    private final UnaryOperator<String> renamer;
+    private final int parallelism;
+
+    /**
+     * @param renamer the new name for an identifier, or the identifier itself (or null) to leave it alone; called from
+     * several threads at once
+     */
+    public SourceTreeRenamer(UnaryOperator<String> renamer, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1: " + parallelism);
+        }
+        this.renamer = renamer;
+        this.parallelism = parallelism;
+    }
+
+    /** Renames with {@code operation}, only the identifiers that match {@code match} if it isn't null. */
+    public static SourceTreeRenamer of(Transformation operation, Pattern match, int parallelism) {
+        if (operation.joinsLines()) {
+            throw new IllegalArgumentException(operation + " works on whole texts and can't rename identifiers.");
+        }
+        // Every class and DAO repeats the same names, so the conversions are well worth remembering.
+        Transformation cached = TransformMetrics.wrap(new TransformCache(64 * 1024).wrap(operation));
+        return new SourceTreeRenamer(identifier -> match == null || match.matcher(identifier).matches()
+                ? cached.apply(identifier) : null, parallelism);
+    }
+
+    /** Renames exactly the identifiers in the table. */
+    public static SourceTreeRenamer of(Map<String, String> renames, int parallelism) {
+        Map<String, String> copy = Map.copyOf(renames);
+        return new SourceTreeRenamer(copy::get, parallelism);
+    }
+
+    /** The literal rules of a rules file, as a table of identifiers. */
+    public static Map<String, String> loadMap(Path file) throws IOException {
+        Map<String, String> renames = new HashMap<>();
+        for (ReplacementRules.Rule rule : ReplacementRules.load(file).rules()) {
+            if (rule.regex()) {
+                throw new IllegalArgumentException("A rename map can't use regular expressions: " + rule.find());
+            }
+            renames.put(rule.find(), rule.replacement());
+        }
+        return renames;
+    }
+
+    public static void main(String[] args) {
+        int exitCode = run(args, System.out, System.err);
+        if (TransformMetrics.isEnabled()) System.err.print(TransformMetrics.report());
+        System.exit(exitCode);
+    }
+
+    /** Runs the command line and returns the process exit code. */
+    static int run(String[] args, PrintStream stdout, PrintStream err) {
+        String operationName = null;
+        String mapName = null;
+        String match = null;
+        boolean dryRun = false;
+        int threads = Runtime.getRuntime().availableProcessors();
+        List<Path> roots = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.equals("-h") || arg.equals("--help")) {
+                stdout.println(USAGE);
+                return 0;
+            } else if (arg.equals("--map") || arg.equals("--match") || arg.equals("--threads")) {
+                if (++i == args.length) {
+                    err.println(USAGE);
+                    return 2;
+                }
+                if (arg.equals("--map")) {
+                    mapName = args[i];
+                } else if (arg.equals("--match")) {
+                    match = args[i];
+                } else {
+                    try {
+                        threads = Integer.parseInt(args[i]);
+                    } catch (NumberFormatException e) {
+                        err.println("--threads needs a number: " + args[i]);
+                        return 2;
+                    }
+                }
+            } else if (arg.equals("--dry-run")) {
+                dryRun = true;
+            } else if (operationName == null && mapName == null) {
+                operationName = arg;
+            } else {
+                roots.add(Path.of(arg));
+            }
+        }
+
+        if ((operationName == null) == (mapName == null) || roots.isEmpty() || (match != null && mapName != null)) {
+            err.println(USAGE);
+            return 2;
+        }
+
+        SourceTreeRenamer renamer;
+        try {
+            renamer = mapName != null ? of(loadMap(Path.of(mapName)), threads)
+                    : of(Operation.forName(operationName), match == null ? null : Pattern.compile(match), threads);
+        } catch (PatternSyntaxException e) {
+            err.println("--match isn't a valid regex: " + e.getDescription());
+            return 2;
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            return 2;
+        } catch (IOException e) {
+            err.println("Error: " + e.getMessage());
+            return 1;
+        }
+
+        String verb = dryRun ? "would change " : "changed ";
+        Summary summary;
+        try {
+            summary = renamer.renameTree(roots, dryRun, file -> stdout.println(verb + file));
+        } catch (IOException e) {
+            err.println("Error: " + e.getMessage());
+            return 1;
+        }
+        for (String error : summary.errors()) {
+            err.println("Error: " + error);
+        }
+        err.println(summary);
+        return summary.errors().isEmpty() ? 0 : 1;
+    }
+
+    /**
+     * Renames identifiers in every .java and .sql file under {@code roots}.  Files that can't be read or written are
+     * reported in the summary and skipped; the rest still get done.
+     */
+    public Summary renameTree(List<Path> roots, boolean dryRun, ChangeListener listener) throws IOException {
+        long start = System.nanoTime();
+        List<Path> files = new ArrayList<>();
+        for (Path root : roots) {
+            // Listing is quick next to lexing, so only the files themselves are spread over the threads.
+            try (Stream<Path> walk = Files.walk(root)) {
+                walk.filter(file -> SourceLexer.forFileName(file.getFileName().toString()) != null)
+                        .filter(Files::isRegularFile)
+                        .forEach(files::add);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+
+        LongAdder changed = new LongAdder();
+        LongAdder renamed = new LongAdder();
+        List<String> errors = Collections.synchronizedList(new ArrayList<>());
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.submit(() -> files.parallelStream().forEach(file -> {
+                try {
+                    int count = renameFile(file, dryRun);
+                    if (count > 0) {
+                        changed.increment();
+                        renamed.add(count);
+                        listener.changed(file);
+                    }
+                } catch (CharacterCodingException e) {
+                    errors.add(file + " is not UTF-8 text");
+                } catch (IOException e) {
+                    errors.add(file + ": " + e);
+                }
+            })).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        Collections.sort(errors);
+        return new Summary(files.size(), changed.intValue(), renamed.sum(), List.copyOf(errors),
+                System.nanoTime() - start);
+    }
+
+    /** Renames the identifiers in one file and returns how many changed; the file is only rewritten if any did. */
+    int renameFile(Path file, boolean dryRun) throws IOException {
+        SourceLexer lexer = SourceLexer.forFileName(file.getFileName().toString());
+        // Decoded strictly: guessing at a file in another encoding and writing it back as UTF-8 would corrupt it.
+        String text = StandardCharsets.UTF_8.newDecoder().decode(ByteBuffer.wrap(Files.readAllBytes(file))).toString();
+        StringBuilder sb = new StringBuilder();
+        int count = rename(text, lexer, sb);
+        if (count > 0 && !dryRun) {
+            writeAtomically(file, sb.toString());
+        }
+        return count;
+    }
+
+    /**
+     * Appends {@code text} with its identifiers renamed to {@code sb} and returns how many were renamed.  When none
+     * were, {@code sb} is left empty.
+     */
+    int rename(String text, SourceLexer lexer, StringBuilder sb) {
+        int[] state = new int[2]; // copied up to, renamed count
+        lexer.forEachIdentifier(text, (start, end) -> {
+            String identifier = text.substring(start, end);
+            if (lexer.isKeyword(identifier)) return;
+            String renamed = renamer.apply(identifier);
+            if (renamed == null || renamed.equals(identifier)) return;
+            if (state[1] == 0) sb.ensureCapacity(text.length() + (text.length() >> 4));
+            sb.append(text, state[0], start).append(renamed);
+            state[0] = end;
+            state[1]++;
+        });
+        if (state[1] > 0) sb.append(text, state[0], text.length());
+        return state[1];
+    }
+
+    /** Writes a temporary file beside {@code file}, with the same permissions, and moves it over {@code file}. */
+    static void writeAtomically(Path file, String text) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(directory, "." + file.getFileName(), ".tmp");
+        try {
+            Files.writeString(temp, text, StandardCharsets.UTF_8);
+            PosixFileAttributeView posix = Files.getFileAttributeView(file, PosixFileAttributeView.class);
+            if (posix != null) {
+                // Temporary files are created owner-only.
+                Files.setPosixFilePermissions(temp, posix.readAttributes().permissions());
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+}
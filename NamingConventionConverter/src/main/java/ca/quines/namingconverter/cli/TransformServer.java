@@ -0,0 +1,268 @@
+package ca.quines.namingconverter.cli;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import ca.quines.namingconverter.Operation;
+import ca.quines.namingconverter.TransformCache;
+import ca.quines.namingconverter.TransformMetrics;
+import ca.quines.namingconverter.Transformation;
+
+/**
+ * Long-running headless mode, so that code generators and IDE plugins pay for JVM startup once instead of once per
+ * identifier.  It only listens on the loopback address, e.g.
+ *
+ * <pre>
+ * java -cp naming-convention-converter.jar ca.quines.namingconverter.cli.TransformServer --port 7878
+ *
+ * curl --data-binary @columns.txt http://localhost:7878/transform/snakeToCamel
+ * curl -H 'Content-Type: application/json' -d '["CUSTOMER_ID","ORDER_ID"]' http://localhost:7878/transform/snakeToCamel
+ * </pre>
+ *
+ * <ul>
+ * <li>{@code GET /operations} lists the operations, one {@code cliName<tab>label} per line.</li>
+ * <li>{@code POST /transform/<operation>} with a JSON array of strings transforms each one and answers with a JSON
+ * array in the same order.</li>
+ * <li>{@code POST /transform/<operation>} with any other body treats it as lines and streams back the transformed
+ * lines exactly like {@link BatchConverter}.  Because the answer has already started, a line that can't be transformed
+ * cuts the answer short; send JSON to get a 400 with the reason instead.</li>
+ * </ul>
+ *
+ * Every request runs on its own virtual thread when the JVM has them (Java 21 and later), and otherwise on a cached
+ * thread pool.  This class must never touch SWT.
+ */
+public class TransformServer {
+
+    public static final int DEFAULT_PORT = 7878;
+    public static final int DEFAULT_CACHE_ENTRIES = 0;
+
+    private static final String USAGE = String.join("\n",
+            "Usage: TransformServer [--port <port>] [--cache <entries>]",
+            "",
+            "Listens on localhost only, port " + DEFAULT_PORT + " by default; port 0 picks a free one.",
+            "--cache <entries> remembers recent results, which pays off when identifiers repeat; off by default.",
+            "Per-operation metrics are on JMX as " + TransformMetrics.OBJECT_NAME + "; -Dncc.metrics=true starts them.",
+            "  GET  /operations",
+            "  GET  /stats",
+            "  POST /transform/<operation>   body: lines of text, or a JSON array of strings");
+
+    static {
+        // The JDK server writes headers and body separately; without this, Nagle's algorithm and delayed ACKs add
+        // about 40 ms to every answer.  Read once, when the server classes load.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final TransformCache cache;
+
+    /** Binds to {@code port} on the loopback address; 0 picks a free port.  Call {@link #start()} to serve. */
+    public TransformServer(int port) throws IOException {
+        this(port, null);
+    }
+
+    /** As {@link #TransformServer(int)}, with {@code cache}, which may be null, shared by all requests. */
+    public TransformServer(int port, TransformCache cache) throws IOException {
+        this.cache = cache;
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        executor = newRequestExecutor();
+        server.setExecutor(executor);
+        server.createContext("/operations", this::handleOperations);
+        server.createContext("/transform/", this::handleTransform);
+        server.createContext("/stats", this::handleStats);
+    }
+
+    public static void main(String[] args) {
+        int exitCode = run(args, System.out, System.err);
+        if (exitCode != 0) System.exit(exitCode);
+    }
+
+    /** Starts the server and returns 0, or returns the exit code if it can't start. */
+    static int run(String[] args, PrintStream stdout, PrintStream err) {
+        int port = DEFAULT_PORT;
+        int cacheEntries = DEFAULT_CACHE_ENTRIES;
+        for (int i = 0; i < args.length; i++) {
+            if ((args[i].equals("--port") || args[i].equals("-p")) && i + 1 < args.length) {
+                try {
+                    port = Integer.parseInt(args[++i]);
+                } catch (NumberFormatException e) {
+                    err.println("--port needs a number: " + args[i]);
+                    return 2;
+                }
+            } else if (args[i].equals("--cache") && i + 1 < args.length) {
+                try {
+                    cacheEntries = Integer.parseInt(args[++i]);
+                } catch (NumberFormatException e) {
+                    cacheEntries = -1;
+                }
+                if (cacheEntries < 0) {
+                    err.println("--cache needs a number of entries, 0 or more: " + args[i]);
+                    return 2;
+                }
+            } else if (args[i].equals("-h") || args[i].equals("--help")) {
+                stdout.println(USAGE);
+                return 0;
+            } else {
+                err.println(USAGE);
+                return 2;
+            }
+        }
+
+        TransformServer server;
+        try {
+            server = new TransformServer(port, cacheEntries > 0 ? new TransformCache(cacheEntries) : null);
+        } catch (IOException e) {
+            err.println("Error: " + e.getMessage());
+            return 1;
+        }
+        server.start();
+        // A long-running server is worth watching even when collection starts off.
+        TransformMetrics.registerMBean();
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop, "transform-server-shutdown"));
+        stdout.println("Listening on http://localhost:" + server.port() + "/");
+        return 0;
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /** Stops taking requests, gives running ones a second to finish, and stops the request threads. */
+    public void stop() {
+        server.stop(1);
+        executor.shutdownNow();
+    }
+
+    /** The port actually bound, which is useful after asking for port 0. */
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    /** A virtual thread per request when the JVM has them; looked up reflectively because this builds for Java 17. */
+    static ExecutorService newRequestExecutor() {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            // Java 17, or virtual threads still in preview.
+            return Executors.newCachedThreadPool(r -> {
+                Thread thread = new Thread(r, "transform-server");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    private void handleOperations(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("GET")) {
+                sendText(exchange, 405, "Use GET.");
+                return;
+            }
+            StringBuilder sb = new StringBuilder();
+            for (Operation operation : Operation.values()) {
+                sb.append(operation.cliName()).append('\t').append(operation.label().replace('\n', ' ')).append('\n');
+            }
+            sendText(exchange, 200, sb.toString());
+        }
+    }
+
+    private void handleStats(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String stats = cache == null ? "No cache." : "Cache: " + cache;
+            if (TransformMetrics.isEnabled()) stats += "\n\n" + TransformMetrics.report();
+            sendText(exchange, 200, stats);
+        }
+    }
+
+    private void handleTransform(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("POST")) {
+                sendText(exchange, 405, "Use POST.");
+                return;
+            }
+            String name = URLDecoder.decode(exchange.getRequestURI().getRawPath().substring("/transform/".length()),
+                    StandardCharsets.UTF_8);
+            Transformation operation;
+            try {
+                operation = Operation.forName(name);
+                if (cache != null && !operation.joinsLines()) operation = cache.wrap(operation);
+                operation = TransformMetrics.wrap(operation);
+            } catch (IllegalArgumentException e) {
+                sendText(exchange, 404, e.getMessage());
+                return;
+            }
+
+            String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+            if (contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith("application/json")) {
+                transformJson(exchange, operation);
+            } else {
+                transformLines(exchange, operation);
+            }
+        }
+    }
+
+    private static void transformJson(HttpExchange exchange, Transformation operation) throws IOException {
+        List<String> outputs;
+        try {
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            List<String> inputs = JsonStrings.parseArray(body);
+            outputs = new ArrayList<>(inputs.size());
+            for (String input : inputs) {
+                outputs.add(input == null ? null : operation.apply(input));
+            }
+        } catch (IllegalArgumentException e) {
+            sendText(exchange, 400, e.getMessage());
+            return;
+        }
+        StringBuilder sb = new StringBuilder();
+        JsonStrings.writeArray(outputs, sb);
+        send(exchange, 200, "application/json; charset=utf-8", sb.toString());
+    }
+
+    private static void transformLines(HttpExchange exchange, Transformation operation) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        // 0 means chunked: the lines go back as they are transformed.
+        exchange.sendResponseHeaders(200, 0);
+        InputStream in = exchange.getRequestBody();
+        try (OutputStream out = exchange.getResponseBody();
+             Writer writer = BatchConverter.newWriter(Channels.newChannel(out))) {
+            BatchConverter.convert(operation, List.of(Channels.newChannel(in)), writer);
+        }
+    }
+
+    private static void sendText(HttpExchange exchange, int status, String text) throws IOException {
+        send(exchange, status, "text/plain; charset=utf-8", text.endsWith("\n") ? text : text + "\n");
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        Headers headers = exchange.getResponseHeaders();
+        headers.set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+}
@@ -0,0 +1,99 @@
+package ca.quines.namingconverter;
+
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class CaseMapperTest {
+
+    private static final String ALPHABET = "aZz_09? \t\n.-'@[`{ßéÉİıΣσ́𐐀ǅ";
+
+    @Test
+    void testAscii() {
+        assertEquals("CUSTOMER_ORDER_ID @[`{", CaseMapper.toUpperCase("customer_Order_id @[`{"));
+        assertEquals("customer_order_id @[`{", CaseMapper.toLowerCase("CUSTOMER_order_ID @[`{"));
+        assertEquals("", CaseMapper.toUpperCase(""));
+        assertEquals("", CaseMapper.toLowerCase(null));
+    }
+
+    @Test
+    void testNonAscii() {
+        assertEquals("STRASSE ID ÉTÉ?", CaseMapper.toUpperCase("straße id été?"));
+        assertEquals("ΟΔΟΣ? WHY?", CaseMapper.toUpperCase("οδος? why?"));
+        // Final sigma depends on the characters around it.
+        assertEquals("οδος id οσa", CaseMapper.toLowerCase("ΟΔΟΣ ID ΟΣA"));
+    }
+
+    @Test
+    void testIgnoresTurkishDefaultLocale() {
+        Locale saved = Locale.getDefault();
+        try {
+            Locale.setDefault(new Locale("tr", "TR"));
+            assertEquals("İD", "id".toUpperCase());
+            assertEquals("ID", CaseMapper.toUpperCase("id"));
+            assertEquals("id", CaseMapper.toLowerCase("ID"));
+            assertEquals("CUSTOMER_ID", TextTransformers.toUpperCase("customer_id"));
+            assertEquals("customer_id", TextTransformers.toLowerCase("CUSTOMER_ID"));
+            assertEquals("customerId", TextTransformers.snakeToCamel("CUSTOMER_ID", false));
+            assertEquals("Invoice Id", TextTransformers.toTitleCase("INVOICE ID"));
+        } finally {
+            Locale.setDefault(saved);
+        }
+    }
+
+    @Test
+    void testMatchesRootLocale() {
+        Random random = new Random(42);
+        for (int n = 0; n < 20_000; n++) {
+            char[] chars = new char[random.nextInt(40)];
+            for (int i = 0; i < chars.length; i++) {
+                // Mostly ASCII, like real identifiers.
+                chars[i] = random.nextInt(4) > 0 ? (char) random.nextInt(0x80)
+                        : ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+            }
+            String input = new String(chars);
+            assertEquals(input.toUpperCase(Locale.ROOT), CaseMapper.toUpperCase(input), input);
+            assertEquals(input.toLowerCase(Locale.ROOT), CaseMapper.toLowerCase(input), input);
+        }
+    }
+
+    @Test
+    void testVectorKernelMatchesScalar() throws Exception {
+        // With -Pvector, surefire adds the incubator module, so the kernel loads even though the flag is off.
+        CaseMapper.Kernel vector;
+        try {
+            vector = (CaseMapper.Kernel) Class.forName("ca.quines.namingconverter.VectorCaseKernel")
+                    .getDeclaredConstructor().newInstance();
+        } catch (ClassNotFoundException | LinkageError e) {
+            vector = null;
+        }
+        assumeTrue(vector != null, "Built without -Pvector");
+        assertMatchesByteLoop(vector);
+    }
+
+    @Test
+    void testWordKernelMatchesByteLoop() {
+        assertMatchesByteLoop(CaseMapper::mapAsciiWords);
+    }
+
+    private static void assertMatchesByteLoop(CaseMapper.Kernel kernel) {
+        Random random = new Random(7);
+        for (int n = 0; n < 5_000; n++) {
+            byte[] bytes = new byte[random.nextInt(200)];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = (byte) (random.nextInt(100) > 0 ? random.nextInt(0x80) : random.nextInt(0x100));
+                if (bytes[i] == '?' && random.nextBoolean()) bytes[i] = 'q';
+            }
+            int from = bytes.length == 0 ? 0 : random.nextInt(bytes.length);
+            boolean upper = random.nextBoolean();
+            byte[] expected = bytes.clone();
+            int expectedStop = CaseMapper.mapAscii(expected, from, bytes.length, upper);
+            assertEquals(expectedStop, kernel.map(bytes, from, bytes.length, upper));
+            assertArrayEquals(expected, bytes);
+        }
+    }
+
+}
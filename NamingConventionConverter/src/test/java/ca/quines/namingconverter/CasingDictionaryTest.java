@@ -0,0 +1,112 @@
+package ca.quines.namingconverter;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CasingDictionaryTest {
+
+    private static final CasingDictionary DICTIONARY = CasingDictionary.parse(List.of(
+            "# product words",
+            "acronym URL",
+            "acronym id",
+            "ACRONYM HTTP",
+            "spelling iPhone",
+            "spelling JavaScript",
+            "",
+            "minor via"));
+
+    @Test
+    void testTitleCase() {
+        assertEquals("The URL of the iPhone via HTTP Is ID",
+                TextTransformers.toTitleCase("the url OF the IPHONE via http is id", DICTIONARY));
+        // Minor words are only lower case inside the title.
+        assertEquals("Via the Web To", TextTransformers.toTitleCase("via the web to", DICTIONARY));
+        assertEquals("Idle Identity", TextTransformers.toTitleCase("  idle\tidentity ", DICTIONARY));
+    }
+
+    @Test
+    void testAllInitialCapsAndCamelCase() {
+        assertEquals("Customer ID With JavaScript URL",
+                TextTransformers.allInitialCaps("customer id  with javascript url ", DICTIONARY));
+        assertEquals("customerIDAndURL", TextTransformers.toCamelCase("customer_id and-url", false, DICTIONARY));
+        assertEquals("urlPathID", TextTransformers.toCamelCase("URL PATH ID", false, DICTIONARY));
+        assertEquals("URLPath", TextTransformers.toCamelCase("url path", true, DICTIONARY));
+        // A forced spelling is kept as it is, except for a lower case start to camelCase.
+        assertEquals("javaScriptiPhone", TextTransformers.toCamelCase("javascript iphone", false, DICTIONARY));
+    }
+
+    @Test
+    void testDefaultsKeepOldResults() {
+        Random random = new Random(42);
+        String[] words = {"a", "the", "of", "up", "Order", "ID", "url", "İstanbul", "ΟΔΟΣ", "x", "yet", "TO"};
+        String[] separators = {" ", "  ", "\t", "_", "-", "\n", "_-"};
+        for (int n = 0; n < 2000; n++) {
+            StringBuilder sb = new StringBuilder(words[random.nextInt(words.length)]);
+            for (int i = random.nextInt(6); i > 0; i--) {
+                sb.append(separators[random.nextInt(separators.length)]).append(words[random.nextInt(words.length)]);
+            }
+            if (random.nextBoolean()) sb.append(separators[random.nextInt(separators.length)]);
+            String text = sb.toString();
+            assertEquals(oldTitleCase(text), TextTransformers.toTitleCase(text, CasingDictionary.DEFAULT), text);
+            assertEquals(oldCamelCase(text, false), TextTransformers.toCamelCase(text, false, CasingDictionary.DEFAULT),
+                    text);
+            assertEquals(oldCamelCase(text, true), TextTransformers.toCamelCase(text, true, CasingDictionary.DEFAULT),
+                    text);
+        }
+    }
+
+    @Test
+    void testTestsIgnoreTheHomeDictionary() {
+        // Surefire points -Dncc.dictionary at an empty file, so a dictionary in the home directory can't leak in.
+        assertTrue(CasingDictionary.current().entries().isEmpty());
+    }
+
+    @Test
+    void testParseErrors() {
+        assertThrows(IllegalArgumentException.class, () -> CasingDictionary.parse(List.of("acronym")));
+        assertThrows(IllegalArgumentException.class, () -> CasingDictionary.parse(List.of("capital URL")));
+        assertThrows(IllegalArgumentException.class, () -> CasingDictionary.parse(List.of("spelling two words")));
+        // A later entry replaces an earlier one.
+        CasingDictionary dictionary = CasingDictionary.parse(List.of("spelling Id", "acronym ID"));
+        assertEquals("Customer ID", TextTransformers.toTitleCase("customer id", dictionary));
+        assertEquals(2, dictionary.entries().size());
+    }
+
+    /** toTitleCase as it was with a fixed set of minor words. */
+    private static String oldTitleCase(String input) {
+        Set<String> minor = Set.of("a", "an", "and", "as", "at", "but", "by", "for", "in", "nor", "of", "on", "or",
+                "so", "the", "to", "up", "yet");
+        String[] words = CaseMapper.toLowerCase(input).split("\\s+");
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < words.length; i++) {
+            String word = words[i];
+            if (i > 0 && i < words.length - 1 && minor.contains(word)) {
+                sb.append(word);
+            } else {
+                sb.append(Character.toUpperCase(word.charAt(0))).append(word.substring(1));
+            }
+            if (i < words.length - 1) sb.append(" ");
+        }
+        return sb.toString();
+    }
+
+    /** toCamelCase as it was, splitting into Strings. */
+    private static String oldCamelCase(String input, boolean upperFirst) {
+        String[] parts = input.split("[\\s_-]+");
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < parts.length; i++) {
+            String word = CaseMapper.toLowerCase(parts[i]);
+            if (i == 0 && !upperFirst) {
+                sb.append(word);
+            } else {
+                sb.append(Character.toUpperCase(word.charAt(0))).append(word.substring(1));
+            }
+        }
+        return sb.toString();
+    }
+
+}
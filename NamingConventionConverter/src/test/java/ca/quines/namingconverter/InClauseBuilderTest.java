@@ -0,0 +1,91 @@
+package ca.quines.namingconverter;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class InClauseBuilderTest {
+
+    private static String build(String input, InClauseBuilder.Values values, InClauseBuilder.Layout layout,
+            String prefix, int limit) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        new InClauseBuilder(sb, values, layout, prefix, limit).addLines(input).finish();
+        return sb.toString();
+    }
+
+    @Test
+    void testDedupesAndNormalizesNumbers() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        InClauseBuilder builder = new InClauseBuilder(sb, InClauseBuilder.Values.NUMBERS, InClauseBuilder.Layout.IN);
+        builder.addLines(" 101\r\n102\n\n101\r+102 -0\n0\n9223372036854775807").finish();
+        assertEquals("IN (101, 102, 0, 9223372036854775807)", sb.toString());
+        assertEquals(4, builder.count());
+        assertEquals(3, builder.duplicates());
+    }
+
+    @Test
+    void testRejectsNonNumbers() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> build("1\n2\n3x", InClauseBuilder.Values.NUMBERS, InClauseBuilder.Layout.IN, "", 0));
+        assertEquals("Line 3 is not a whole number: 3x", e.getMessage());
+        assertThrows(IllegalArgumentException.class,
+                () -> build("9223372036854775808", InClauseBuilder.Values.NUMBERS, InClauseBuilder.Layout.IN, "", 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> build("-", InClauseBuilder.Values.NUMBERS, InClauseBuilder.Layout.IN, "", 0));
+    }
+
+    @Test
+    void testEscapesQuotes() throws IOException {
+        assertEquals("IN ('O''Brien', 'it''s ''quoted''')",
+                build("O'Brien\nit's 'quoted'\nO'Brien", InClauseBuilder.Values.STRINGS, InClauseBuilder.Layout.IN, "", 0));
+    }
+
+    @Test
+    void testGroupsJoinedWithOr() throws IOException {
+        assertEquals("(ID IN (1, 2) OR ID IN (3, 4) OR ID IN (5))",
+                build("1\n2\n3\n4\n5", InClauseBuilder.Values.NUMBERS, InClauseBuilder.Layout.IN, "ID", 2));
+        assertEquals("(ID IN (1, 2))",
+                build("1\n2\n2", InClauseBuilder.Values.NUMBERS, InClauseBuilder.Layout.IN, "ID", 2));
+    }
+
+    @Test
+    void testStatements() throws IOException {
+        assertEquals("DELETE FROM T WHERE C IN ('a', 'b');\nDELETE FROM T WHERE C IN ('c');",
+                build("a\nb\nc", InClauseBuilder.Values.STRINGS, InClauseBuilder.Layout.STATEMENTS,
+                        "DELETE FROM T WHERE C", 2));
+        assertEquals("", build("\n", InClauseBuilder.Values.STRINGS, InClauseBuilder.Layout.STATEMENTS, "X", 2));
+    }
+
+    @Test
+    void testListRejectsLimit() throws IOException {
+        assertEquals("a, b, c", build("a\nb\nc\nb", InClauseBuilder.Values.TEXT, InClauseBuilder.Layout.LIST, "", 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> new InClauseBuilder(new StringBuilder(), InClauseBuilder.Values.TEXT, InClauseBuilder.Layout.LIST, "", 2));
+        assertEquals("IN ()", build(" \n ", InClauseBuilder.Values.NUMBERS, InClauseBuilder.Layout.IN, "", 0));
+    }
+
+    @Test
+    void testSplittingNeedsAColumn() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new InClauseBuilder(new StringBuilder(), InClauseBuilder.Values.NUMBERS, InClauseBuilder.Layout.IN, "", 1000));
+        assertThrows(IllegalArgumentException.class,
+                () -> new InClauseBuilder(new StringBuilder(), InClauseBuilder.Values.NUMBERS, InClauseBuilder.Layout.STATEMENTS, " ", 0));
+    }
+
+    @Test
+    void testManyIds() throws IOException {
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 200_000; i++) {
+            input.append(1_000_000 + (i % 150_000)).append('\n');
+        }
+        StringBuilder sb = new StringBuilder();
+        InClauseBuilder builder = new InClauseBuilder(sb, InClauseBuilder.Values.NUMBERS, InClauseBuilder.Layout.IN,
+                "ID", InClauseBuilder.ORACLE_LIMIT);
+        builder.addLines(input).finish();
+        assertEquals(150_000, builder.count());
+        assertEquals(50_000, builder.duplicates());
+        assertEquals(150, sb.toString().split(" OR ").length);
+    }
+
+}
@@ -0,0 +1,114 @@
+package ca.quines.namingconverter;
+
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class JavaSqlConverterTest {
+
+    private static final Pattern LITERAL_OR_VARIABLE = Pattern.compile("\"((?:[^\"\\\\]|\\\\.)*)\"|\\+ (\\w+)");
+
+    /** The SQL that generated concatenation code builds at run time, with each variable as ?. */
+    private static String joined(String java) {
+        StringBuilder sql = new StringBuilder();
+        Matcher m = LITERAL_OR_VARIABLE.matcher(java);
+        while (m.find()) {
+            if (m.group(1) != null) {
+                sql.append(m.group(1).replace("\\n", "\n").replace("\\\"", "\""));
+            } else {
+                sql.append('?');
+            }
+        }
+        return sql.toString();
+    }
+
+    @Test
+    void testConcatenationToSql() {
+        assertEquals("SELECT ID, NAME\nFROM CUSTOMER\nWHERE ID = :customerId AND NAME = '?' AND X = 1",
+                JavaSqlConverter.javaToSql(String.join("\n",
+                        "String sql = \"SELECT ID, NAME \" + // the columns",
+                        "        \"FROM CUSTOMER \" +",
+                        "        \"WHERE ID = \" + customerId + \" AND NAME = '\" + name.trim() + \"' AND X = \" + 1;")));
+        // The variable being built is left out, and so are statements with no literals in them.
+        assertEquals("SELECT *\nFROM T\nWHERE A = :a",
+                JavaSqlConverter.javaToSql(String.join("\n",
+                        "String sql = \"SELECT * \";",
+                        "sql = sql + \"FROM T \";",
+                        "if (a != null) {",
+                        "    sql += \"WHERE A = \" + this.a;",
+                        "}",
+                        "return jdbc.query(sql, mapper);")));
+        // The literal inside a call.
+        assertEquals("DELETE FROM T WHERE ID = ?",
+                JavaSqlConverter.javaToSql("jdbc.update(\"DELETE FROM T WHERE ID = ?\", id);"));
+    }
+
+    @Test
+    void testAppendsToSql() {
+        assertEquals("SELECT A\nFROM T\nWHERE B = :b\n  AND C IN (?)",
+                JavaSqlConverter.javaToSql(String.join("\n",
+                        "StringBuffer sb = new StringBuffer(\"SELECT A \");",
+                        "sb.append(\"FROM T \");",
+                        "sb.append(\"WHERE B = \").append(b)",
+                        "  .append('\\n').append(\"  AND C IN (\" + join(list) + \")\");",
+                        "String sql = sb.toString();")));
+        assertEquals("X", JavaSqlConverter.javaToSql("StringBuilder sb = new StringBuilder(100); sb.append(\"X\");"));
+    }
+
+    @Test
+    void testEscapesAndTextBlocks() {
+        assertEquals("SELECT 'a\\b', \"Q\"\té \u0000",
+                JavaSqlConverter.javaToSql("\"SELECT 'a\\\\b', \\\"Q\\\"\\t\\u00e9 \\0\""));
+        assertEquals("SELECT A\n  FROM T\n WHERE B = 'x' AND C = 1\n",
+                JavaSqlConverter.javaToSql(String.join("\n",
+                        "String sql = \"\"\"",
+                        "        SELECT A",
+                        "          FROM T",
+                        "         WHERE B = 'x' \\",
+                        "        AND C = 1",
+                        "        \"\"\";")));
+        // Comments and char literals that look like strings don't confuse the lexer.
+        assertEquals("A\"B", JavaSqlConverter.javaToSql("/* \"no\" */ s = \"A\" + '\"' + \"B\"; // \"no\""));
+    }
+
+    @Test
+    void testSqlToJava() {
+        String sql = String.join("\n",
+                "SELECT ID, NAME  ",
+                "",
+                "  FROM CUSTOMER -- :notAParameter",
+                " WHERE ID = :id AND NOTE = 'say \"hi\" :x' AND T = X::text");
+        assertEquals(String.join("\n",
+                "String sql = \"SELECT ID, NAME \"",
+                "        + \"  FROM CUSTOMER -- :notAParameter\\n\"",
+                "        + \" WHERE ID = \" + id + \" AND NOTE = 'say \\\"hi\\\" :x' AND T = X::text\";"),
+                JavaSqlConverter.sqlToConcatenation(sql));
+        // The comment ends with its line, so it doesn't swallow the WHERE clause once the fragments are joined.
+        assertEquals(List.of("SELECT ID, NAME   FROM CUSTOMER -- :notAParameter",
+                " WHERE ID = ? AND NOTE = 'say \"hi\" :x' AND T = X::text"),
+                joined(JavaSqlConverter.sqlToConcatenation(sql)).lines().toList());
+        int capacity = "SELECT ID, NAME   FROM CUSTOMER -- :notAParameter\n WHERE ID = ".length()
+                + JavaSqlConverter.VARIABLE_LENGTH_ESTIMATE + " AND NOTE = 'say \"hi\" :x' AND T = X::text".length();
+        assertEquals(String.join("\n",
+                "StringBuilder sql = new StringBuilder(" + capacity + ");",
+                "sql.append(\"SELECT ID, NAME \");",
+                "sql.append(\"  FROM CUSTOMER -- :notAParameter\\n\");",
+                "sql.append(\" WHERE ID = \").append(id).append(\" AND NOTE = 'say \\\"hi\\\" :x' AND T = X::text\");"),
+                JavaSqlConverter.sqlToAppends(sql));
+        // A string literal across lines keeps its line break; a variable first isn't added as a number.
+        assertEquals("String sql = \"\" + a + \" = 'x\\n\\ny'\";", JavaSqlConverter.sqlToConcatenation(":a = 'x\n\ny'"));
+        assertEquals("", JavaSqlConverter.sqlToAppends(" \n"));
+        assertEquals("", JavaSqlConverter.javaToSql(null));
+    }
+
+    @Test
+    void testRoundTrip() {
+        String sql = "SELECT A\nFROM T\nWHERE B = :b\n  AND C = 'it''s \\ \"quoted\"'";
+        assertEquals(sql, JavaSqlConverter.javaToSql(JavaSqlConverter.sqlToConcatenation(sql)));
+        assertEquals(sql, JavaSqlConverter.javaToSql(JavaSqlConverter.sqlToAppends(sql)));
+    }
+
+}
@@ -0,0 +1,68 @@
+package ca.quines.namingconverter;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class NamingConventionTest {
+
+    private static String words(String input) {
+        int[] bounds = IdentifierTokenizer.tokenize(input);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < bounds.length; i += 2) {
+            if (i > 0) sb.append('|');
+            sb.append(input, bounds[i], bounds[i + 1]);
+        }
+        return sb.toString();
+    }
+
+    @Test
+    void testTokenizer() {
+        assertEquals("HTTP|Server|URL", words("HTTPServerURL"));
+        assertEquals("customer|Id", words("customerId"));
+        assertEquals("CUSTOMER|ORDER|ID", words("CUSTOMER_ORDER_ID"));
+        assertEquals("order|line|item", words("  order-line.item  "));
+        assertEquals("utf8|Encoding", words("utf8Encoding"));
+        assertEquals("ADDRESS|LINE2", words("ADDRESS_LINE2"));
+        assertEquals("parse|XML|2|Json", words("parseXML_2Json"));
+        assertEquals("", words("__--  "));
+        assertEquals(0, IdentifierTokenizer.wordCount(IdentifierTokenizer.tokenize("")));
+    }
+
+    @Test
+    void testEveryConvention() {
+        String input = "HTTPServerURL";
+        assertEquals("httpServerUrl", NamingConvention.CAMEL.convert(input));
+        assertEquals("HttpServerUrl", NamingConvention.PASCAL.convert(input));
+        assertEquals("http_server_url", NamingConvention.SNAKE.convert(input));
+        assertEquals("HTTP_SERVER_URL", NamingConvention.UPPER_SNAKE.convert(input));
+        assertEquals("http-server-url", NamingConvention.KEBAB.convert(input));
+        assertEquals("http.server.url", NamingConvention.DOT.convert(input));
+        assertEquals("Http Server Url", NamingConvention.TITLE.convert(input));
+    }
+
+    @Test
+    void testRoundTrips() {
+        for (NamingConvention from : NamingConvention.values()) {
+            String identifier = from.convert("customer order line item");
+            for (NamingConvention to : NamingConvention.values()) {
+                assertEquals(to.convert("customer order line item"), to.convert(identifier), from + " to " + to);
+            }
+        }
+    }
+
+    @Test
+    void testLinesAreConvertedSeparately() {
+        assertEquals("customerId\r\norderLineItem\n\nhttpUrl",
+                NamingConvention.CAMEL.convert("CUSTOMER_ID\r\norder-line-item\n\nHTTP URL"));
+        // A recipe hands over one line at a time, keeping a '\r' from a "\r\n" at the end.
+        assertEquals("customerId\r", NamingConvention.CAMEL.convert("CUSTOMER_ID\r"));
+    }
+
+    @Test
+    void testExamplesRenderThemselves() {
+        for (NamingConvention convention : NamingConvention.values()) {
+            assertEquals(convention.example(), convention.convert(convention.example()));
+        }
+    }
+
+}
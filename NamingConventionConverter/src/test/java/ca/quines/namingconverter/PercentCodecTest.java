@@ -0,0 +1,87 @@
+package ca.quines.namingconverter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PercentCodecTest {
+
+    @Test
+    void testSameAsJdk() {
+        Random random = new Random(42);
+        String alphabet = "aZ09.-*_ +%&=/?#é€\n\"";
+        for (int n = 0; n < 1000; n++) {
+            StringBuilder sb = new StringBuilder();
+            for (int i = random.nextInt(20); i > 0; i--) {
+                sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            sb.appendCodePoint(0x1F600);
+            String text = sb.toString();
+            String encoded = URLEncoder.encode(text, StandardCharsets.UTF_8);
+            assertEquals(encoded, PercentCodec.encode(text));
+            assertEquals(text, PercentCodec.decode(encoded));
+            assertEquals(URLDecoder.decode(encoded, StandardCharsets.UTF_8), PercentCodec.decode(encoded));
+        }
+        assertEquals("", PercentCodec.decode(null));
+        assertEquals("", PercentCodec.encode(null));
+    }
+
+    @Test
+    void testMalformedEscapesKept() {
+        assertEquals("100% sure %G1 %4 %", PercentCodec.decode("100%+sure+%G1+%4+%"));
+        assertEquals("a�b", PercentCodec.decode("a%FFb"));
+        assertEquals("%%41", PercentCodec.decode("%%%341"));
+    }
+
+    @Test
+    void testEscapeSplitAcrossBuffers() {
+        ByteBuffer in = ByteBuffer.wrap("ab%4".getBytes(StandardCharsets.US_ASCII));
+        ByteBuffer out = ByteBuffer.allocate(16);
+        PercentCodec.decode(in, out, false);
+        // The "%4" waits for the next buffer.
+        assertEquals(2, in.remaining());
+        assertEquals(2, out.position());
+        PercentCodec.decode(in, out, true);
+        assertEquals("ab%4", new String(out.array(), 0, out.position(), StandardCharsets.US_ASCII));
+
+        // An encoded byte only goes in whole.
+        in = ByteBuffer.wrap(new byte[] {'a', '/'});
+        out = ByteBuffer.allocate(3);
+        PercentCodec.encode(in, out, false);
+        assertEquals(1, in.position());
+        assertEquals(1, out.position());
+    }
+
+    @Test
+    void testChannels() throws Exception {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; sb.length() < PercentCodec.BUFFER_SIZE * 3; i++) {
+            sb.append("GET /search?q=caf%C3%A9+").append(i).append("%2").append(i % 10).append('\n');
+        }
+        String log = sb.toString();
+        ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+        int last = PercentCodec.decode(Channels.newChannel(new ByteArrayInputStream(
+                log.getBytes(StandardCharsets.UTF_8))), Channels.newChannel(decoded));
+        assertEquals('\n', last);
+        assertEquals(PercentCodec.decode(log), decoded.toString(StandardCharsets.UTF_8));
+
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        PercentCodec.encode(Channels.newChannel(new ByteArrayInputStream(decoded.toByteArray())),
+                Channels.newChannel(encoded), true);
+        String[] lines = decoded.toString(StandardCharsets.UTF_8).split("\n");
+        String[] encodedLines = encoded.toString(StandardCharsets.US_ASCII).split("\n");
+        assertEquals(lines.length, encodedLines.length);
+        for (int i = 0; i < lines.length; i++) {
+            assertEquals(PercentCodec.encode(lines[i]), encodedLines[i]);
+        }
+    }
+
+}
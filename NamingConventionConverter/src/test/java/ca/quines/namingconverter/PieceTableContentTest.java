@@ -0,0 +1,179 @@
+package ca.quines.namingconverter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.swt.custom.TextChangeListener;
+import org.eclipse.swt.custom.TextChangedEvent;
+import org.eclipse.swt.custom.TextChangingEvent;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PieceTableContentTest {
+
+    /** The lines of {@code text} the way StyledText sees them: split at \r\n, \n or \r, keeping empty ones. */
+    private static List<String> lines(String text) {
+        List<String> lines = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\n' || c == '\r') {
+                lines.add(text.substring(start, i));
+                if (c == '\r' && i + 1 < text.length() && text.charAt(i + 1) == '\n') i++;
+                start = i + 1;
+            }
+        }
+        lines.add(text.substring(start));
+        return lines;
+    }
+
+    private static void assertSameAs(String expected, PieceTableContent content) {
+        assertEquals(expected.length(), content.getCharCount());
+        assertEquals(expected, content.getTextRange(0, content.getCharCount()));
+        List<String> lines = lines(expected);
+        assertEquals(lines.size(), content.getLineCount());
+        int offset = 0;
+        for (int line = 0; line < lines.size(); line++) {
+            assertEquals(lines.get(line), content.getLine(line), "line " + line);
+            assertEquals(offset, content.getOffsetAtLine(line), "offset of line " + line);
+            assertEquals(line, content.getLineAtOffset(offset));
+            offset += lines.get(line).length();
+            if (offset < expected.length()) {
+                assertEquals(line, content.getLineAtOffset(offset));
+                offset += expected.startsWith("\r\n", offset) ? 2 : 1;
+            }
+        }
+    }
+
+    @Test
+    void testRandomEditsMatchAString() {
+        Random random = new Random(17);
+        String[] snippets = { "a", "CUSTOMER_ID", "\n", "\r\n", "\r", "x\ny", "line one\r\nline two\n", "" };
+        PieceTableContent content = new PieceTableContent();
+        String expected = "first\r\nsecond\nthird\rfourth";
+        content.setText(expected);
+        assertSameAs(expected, content);
+
+        for (int step = 0; step < 2000; step++) {
+            int start = random.nextInt(expected.length() + 1);
+            int length = random.nextInt(Math.min(8, expected.length() - start) + 1);
+            String text = snippets[random.nextInt(snippets.length)];
+            // Like StyledText, never split a \r\n.
+            boolean splits = (start > 0 && expected.startsWith("\r\n", start - 1))
+                    || (start + length > 0 && expected.startsWith("\r\n", start + length - 1));
+            if (splits) continue;
+            content.replaceTextRange(start, length, text);
+            expected = expected.substring(0, start) + text + expected.substring(start + length);
+            if (step % 50 == 0) assertSameAs(expected, content);
+        }
+        assertSameAs(expected, content);
+    }
+
+    @Test
+    void testTypingReusesOnePiece() {
+        PieceTableContent content = new PieceTableContent();
+        content.setText("0123456789");
+        for (int i = 0; i < 100; i++) {
+            content.replaceTextRange(5 + i, 0, "x");
+        }
+        assertEquals(3, content.pieceCount());
+        assertEquals("01234" + "x".repeat(100) + "56789", content.getTextRange(0, content.getCharCount()));
+    }
+
+    @Test
+    void testWholeTextReplacementsKeepTheBuffersBounded() {
+        String lower = "customer_id\r\n".repeat(1000);
+        String upper = lower.toUpperCase();
+        PieceTableContent content = new PieceTableContent();
+        content.setText(lower);
+        for (int i = 0; i < 50; i++) {
+            String text = i % 2 == 0 ? upper : lower;
+            content.replaceTextRange(0, content.getCharCount(), text);
+            assertTrue(content.bufferLength() <= 3 * lower.length(), "held " + content.bufferLength());
+        }
+        assertSameAs(lower, content);
+        assertEquals(1, content.pieceCount());
+    }
+
+    @Test
+    void testEvents() {
+        PieceTableContent content = new PieceTableContent();
+        List<String> events = new ArrayList<>();
+        content.addTextChangeListener(new TextChangeListener() {
+            @Override
+            public void textChanging(TextChangingEvent event) {
+                events.add("changing " + event.start + " " + event.replaceCharCount + " " + event.newCharCount + " "
+                        + event.replaceLineCount + " " + event.newLineCount + " " + content.getCharCount());
+            }
+
+            @Override
+            public void textChanged(TextChangedEvent event) {
+                events.add("changed " + content.getCharCount());
+            }
+
+            @Override
+            public void textSet(TextChangedEvent event) {
+                events.add("set " + content.getCharCount());
+            }
+        });
+        content.setText("a\nb\nc");
+        content.replaceTextRange(1, 3, "\r\n\r\n\n");
+        assertEquals(List.of("set 5", "changing 1 3 5 2 3 5", "changed 7"), events);
+        assertEquals("\n", content.getLineDelimiter());
+    }
+
+    @Test
+    void testRejectsSplittingCrLfAndBadRanges() {
+        PieceTableContent content = new PieceTableContent();
+        content.setText("a\r\nb");
+        assertEquals("\r\n", content.getLineDelimiter());
+        assertThrows(IllegalArgumentException.class, () -> content.replaceTextRange(2, 0, "x"));
+        assertThrows(IllegalArgumentException.class, () -> content.replaceTextRange(0, 2, ""));
+        assertThrows(IllegalArgumentException.class, () -> content.getTextRange(3, 2));
+        assertThrows(IllegalArgumentException.class, () -> content.getOffsetAtLine(2));
+    }
+
+    @Test
+    void testReplaceChangedOnlyTouchesTheDifference() {
+        PieceTableContent content = new PieceTableContent();
+        content.setText("SELECT CUSTOMER_ID\r\nFROM ORDERS\r\nWHERE X = 1");
+        List<String> changes = new ArrayList<>();
+        content.addTextChangeListener(new TextChangeListener() {
+            @Override
+            public void textChanging(TextChangingEvent event) {
+                changes.add(event.start + "+" + event.replaceCharCount + "=" + event.newText);
+            }
+
+            @Override
+            public void textChanged(TextChangedEvent event) {
+            }
+
+            @Override
+            public void textSet(TextChangedEvent event) {
+                fail("No need to set all the text.");
+            }
+        });
+
+        content.replaceChanged(0, "SELECT CUSTOMER_ID", "SELECT customerId");
+        // A line break inserted between \r and \n widens to the whole \r\n.
+        content.replaceChanged(17, "\r\n", "\r\r\n");
+        content.replaceChanged(0, "x", "x");
+        assertEquals(List.of("7+11=customerId", "17+2=\r\r\n"), changes);
+        assertSameAs("SELECT customerId\r\r\nFROM ORDERS\r\nWHERE X = 1", content);
+    }
+
+    @Test
+    void testEmpty() {
+        PieceTableContent content = new PieceTableContent();
+        assertSameAs("", content);
+        content.setText("abc");
+        content.replaceTextRange(0, 3, "");
+        assertSameAs("", content);
+        content.replaceTextRange(0, 0, "\r");
+        assertSameAs("\r", content);
+        content.replaceTextRange(1, 0, "\n");
+        assertSameAs("\r\n", content);
+    }
+
+}
@@ -0,0 +1,90 @@
+package ca.quines.namingconverter;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecipeTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static final String[] INPUTS = {
+        "", "customer_order-id", "CUSTOMER_ORDER_ID\nLINE_ITEM\r\n\nhttp%3A%2F%2Fx_y",
+        "  mixed-Case_words here  \nAnotherLine", "\n\n_leading_\n"
+    };
+
+    /** Applies each step to the whole text, the way clicking the buttons one at a time would. */
+    private static String stepByStep(List<Operation> steps, String input) {
+        String text = input;
+        for (Operation step : steps) {
+            text = step.apply(text);
+        }
+        return text;
+    }
+
+    private static void assertSameAsStepByStep(List<Operation> steps) {
+        Recipe recipe = new Recipe("test", steps);
+        for (String input : INPUTS) {
+            assertEquals(stepByStep(steps, input), recipe.apply(input), () -> steps + " on " + input);
+        }
+    }
+
+    @Test
+    void testFusedResultsMatchStepByStep() {
+        assertSameAsStepByStep(List.of(Operation.UNDERSCORES_TO_SPACES, Operation.REPLACE_DASHES_WITH_SPACES));
+        assertSameAsStepByStep(List.of(Operation.DECODE_URL, Operation.SNAKE_TO_CAMEL, Operation.CAMEL_CASE_TO_SPACES,
+                Operation.UPPERCASE, Operation.UNDERSCORES_TO_SPACES));
+        assertSameAsStepByStep(List.of(Operation.UNDERSCORES_TO_SPACES, Operation.SPACES_TO_CAMEL_CASE,
+                Operation.LOWERCASE_FIRST));
+        assertSameAsStepByStep(List.of(Operation.TO_UPPER_SNAKE, Operation.LOWERCASE, Operation.COLLAPSE_WHITESPACE,
+                Operation.REPLACE_DASHES_WITH_SPACES, Operation.SNAKE_TO_CAMEL));
+        assertSameAsStepByStep(List.of(Operation.DECODE_URL, Operation.SNAKE_TO_PASCAL, Operation.CAMEL_CASE_TO_SPACES));
+    }
+
+    @Test
+    void testAdjacentStepsAreFused() {
+        assertEquals(1, new Recipe("chars", List.of(Operation.UNDERSCORES_TO_SPACES,
+                Operation.REPLACE_DASHES_WITH_SPACES)).passes());
+        assertEquals(1, new Recipe("lines", List.of(Operation.SNAKE_TO_CAMEL, Operation.CAMEL_CASE_TO_SPACES,
+                Operation.UPPERCASE)).passes());
+        assertEquals(1, new Recipe("pascal", List.of(Operation.DECODE_URL, Operation.SNAKE_TO_PASCAL,
+                Operation.CAMEL_CASE_TO_SPACES)).passes());
+        assertEquals(3, new Recipe("mixed", List.of(Operation.UNDERSCORES_TO_SPACES, Operation.SPACES_TO_CAMEL_CASE,
+                Operation.LOWERCASE_FIRST)).passes());
+    }
+
+    @Test
+    void testSaveAndLoad() throws Exception {
+        Recipe recipe = new Recipe("Columns to fields", List.of(Operation.UNDERSCORES_TO_SPACES,
+                Operation.SPACES_TO_CAMEL_CASE, Operation.LOWERCASE_FIRST));
+        Path file = recipe.save(tempDir);
+        assertEquals("Columns to fields.recipe", file.getFileName().toString());
+
+        Recipe loaded = Recipe.load(file);
+        assertEquals(recipe.name(), loaded.name());
+        assertEquals(recipe.steps(), loaded.steps());
+        assertEquals(List.of("Columns to fields"), Recipe.loadAll(tempDir).stream().map(Recipe::name).toList());
+        assertEquals("customerOrderId", loaded.apply("CUSTOMER_ORDER_ID"));
+    }
+
+    @Test
+    void testJoinsLines() {
+        assertFalse(new Recipe("a", List.of(Operation.UPPERCASE)).joinsLines());
+        assertTrue(new Recipe("b", List.of(Operation.UPPERCASE, Operation.IN_CLAUSE_STRING)).joinsLines());
+        assertTrue(new Recipe("b", List.of(Operation.UPPERCASE, Operation.IN_CLAUSE_STRING)).joinsValues());
+        // A whole document can't go line by line, but is still one value.
+        Recipe sql = new Recipe("c", List.of(Operation.CLEAN_UP_SQL, Operation.UPPERCASE));
+        assertTrue(sql.joinsLines());
+        assertFalse(sql.joinsValues());
+    }
+
+    @Test
+    void testInvalidName() {
+        assertThrows(IllegalArgumentException.class, () -> new Recipe("../escape", List.of()));
+    }
+
+}
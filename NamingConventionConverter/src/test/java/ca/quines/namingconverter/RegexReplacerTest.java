@@ -0,0 +1,67 @@
+package ca.quines.namingconverter;
+
+import java.util.concurrent.CancellationException;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RegexReplacerTest {
+
+    @Test
+    void testReplaceAllCountsMatches() {
+        RegexReplacer.Result result = new RegexReplacer().replaceAll("a1b22c333", "\\d+", 0, "#");
+        assertEquals("a#b#c#", result.text());
+        assertEquals(3, result.matches());
+    }
+
+    @Test
+    void testGroupReferencesAndFlags() {
+        RegexReplacer replacer = new RegexReplacer();
+        assertEquals("ID AS c_ID, NAME AS c_NAME", replacer.replaceAll("ID, NAME", "(\\w+)", 0, "$1 AS c_$1").text());
+        assertEquals("x x", replacer.replaceAll("A a", "a", Pattern.CASE_INSENSITIVE, "x").text());
+        assertEquals("[one]\n[two]", replacer.replaceAll("one\ntwo", "^(.*)$", Pattern.MULTILINE, "[$1]").text());
+    }
+
+    @Test
+    void testNoMatchReturnsInput() {
+        String input = "nothing here";
+        RegexReplacer.Result result = new RegexReplacer().replaceAll(input, "\\d", 0, "");
+        assertSame(input, result.text());
+        assertEquals(0, result.matches());
+    }
+
+    @Test
+    void testCatastrophicBacktrackingTimesOut() {
+        // The backreference stops the JDK from memoizing the nested loop, so this would run for hours.
+        RegexReplacer replacer = new RegexReplacer(200);
+        String input = "a".repeat(40) + "!";
+        assertThrows(GuardedCharSequence.RegexTimeoutException.class,
+                () -> replacer.replaceAll(input, "((a+)+)\\2?b", 0, ""));
+    }
+
+    @Test
+    void testInterruptCancels() {
+        RegexReplacer replacer = new RegexReplacer(60_000);
+        Thread.currentThread().interrupt();
+        try {
+            assertThrows(CancellationException.class, () -> replacer.replaceAll("a".repeat(40) + "!", "((a+)+)\\2?b", 0, ""));
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    @Test
+    void testPatternCacheReusesAndEvicts() {
+        PatternCache cache = new PatternCache(2);
+        Pattern first = cache.get("a+", 0);
+        assertSame(first, cache.get("a+", 0));
+        assertNotSame(first, cache.get("a+", Pattern.CASE_INSENSITIVE));
+
+        cache.get("b+", 0);
+        assertEquals(2, cache.size());
+        // "a+" with no flags was the least recently used, so it was evicted.
+        assertNotSame(first, cache.get("a+", 0));
+    }
+
+}
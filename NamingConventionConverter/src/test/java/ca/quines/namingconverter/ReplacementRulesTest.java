@@ -0,0 +1,86 @@
+package ca.quines.namingconverter;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplacementRulesTest {
+
+    private static ReplacementRules rules(String... lines) {
+        return ReplacementRules.parse(List.of(lines));
+    }
+
+    @Test
+    void testLiteralRules() {
+        ReplacementRules rules = rules("# legacy columns", "CUST_NO\tcustomer_id", "", "ORD_NO\torder_id");
+        RegexReplacer.Result result = rules.replaceAll("SELECT CUST_NO, ORD_NO FROM ORDERS WHERE CUST_NO = ?");
+        assertEquals("SELECT customer_id, order_id FROM ORDERS WHERE customer_id = ?", result.text());
+        assertEquals(3, result.matches());
+    }
+
+    @Test
+    void testLeftmostThenLongestWins() {
+        ReplacementRules rules = rules("CUST\tX", "CUST_NO\tcustomer_id", "NO_NAME\tY");
+        // CUST_NO starts first and is longer than CUST; NO_NAME overlaps it and starts later.
+        assertEquals("customer_id_NAME", rules.apply("CUST_NO_NAME"));
+        assertEquals("X_ID", rules.apply("CUST_ID"));
+    }
+
+    @Test
+    void testRuleOrderBreaksTies() {
+        ReplacementRules rules = rules("ID\tfirst", "I[D]\tsecond\tregex", "ID\tthird");
+        assertEquals("first", rules.apply("ID"));
+    }
+
+    @Test
+    void testRegexRulesWithGroups() {
+        ReplacementRules rules = rules(
+                "(\\w+)_FLAG\tis_$1\tregex",
+                "(?<word>[a-z]+)-\\k<word>\t${word}\tregex",
+                "(\\d)(\\d)\\2\t$1\\$$2\tregex",
+                "OLD\tNEW");
+        assertEquals("is_ACTIVE, again, 1$2, NEW", rules.apply("ACTIVE_FLAG, again-again, 122, OLD"));
+    }
+
+    @Test
+    void testReplacedTextIsNotScannedAgain() {
+        ReplacementRules rules = rules("a\tb", "b\tc");
+        assertEquals("bc", rules.apply("ab"));
+    }
+
+    @Test
+    void testSameAsSequentialReplaceForDistinctNames() {
+        StringBuilder text = new StringBuilder();
+        String[] lines = new String[200];
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = String.format("COL_%03d\tcolumn%d", i, i);
+            text.append(String.format("COL_%03d, ", (i * 7) % lines.length));
+        }
+        String expected = text.toString();
+        for (int i = 0; i < lines.length; i++) {
+            expected = expected.replace(String.format("COL_%03d", i), "column" + i);
+        }
+        assertEquals(expected, rules(lines).apply(text.toString()));
+    }
+
+    @Test
+    void testEmptyRegexMatches() {
+        assertEquals("-a-b-", rules("x*\t-\tregex").apply("ab"));
+    }
+
+    @Test
+    void testShiftBackReferences() {
+        assertEquals("(a)(?:\\4)[\\1]\\Q\\1\\E", ReplacementRules.shiftBackReferences("(a)\\1[\\1]\\Q\\1\\E", 3, 1));
+        assertEquals("(a)(?:\\4)0", ReplacementRules.shiftBackReferences("(a)\\10", 3, 1));
+    }
+
+    @Test
+    void testBadLines() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> rules("ok\tfine", "no tab"));
+        assertTrue(e.getMessage().startsWith("Line 2"));
+        assertThrows(IllegalArgumentException.class, () -> rules("a(\tb\tregex"));
+        assertThrows(IllegalArgumentException.class, () -> rules("\tb"));
+    }
+
+}
@@ -0,0 +1,110 @@
+package ca.quines.namingconverter;
+
+import java.io.StringWriter;
+import java.util.concurrent.CancellationException;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlFormatterTest {
+
+    @Test
+    void testHibernateSelect() {
+        assertEquals(String.join("\n",
+                "SELECT",
+                "    ID,",
+                "    NAME",
+                "FROM",
+                "    CUSTOMER",
+                "    LEFT OUTER JOIN ORDERS ON ID = CUSTOMER_ID",
+                "WHERE",
+                "    ID = ?",
+                "    AND CREATED BETWEEN ? AND ?",
+                "    AND (STATUS = 'A' OR STATUS = -1)",
+                "ORDER BY",
+                "    NAME DESC"),
+                SqlFormatter.format("select this_.ID as ID1_0_0_, this_.NAME as NAME2_0_0_\n from CUSTOMER this_ "
+                        + "left outer join ORDERS orders1_ on this_.ID=orders1_.CUSTOMER_ID where this_.ID=? and "
+                        + "this_.CREATED between ? and ? and (this_.STATUS='A' or this_.STATUS=-1) order by "
+                        + "this_.NAME desc"));
+    }
+
+    @Test
+    void testSubqueryAndStatements() {
+        assertEquals(String.join("\n",
+                "SELECT",
+                "    id,",
+                "    count(*) AS total",
+                "FROM",
+                "    customer",
+                "WHERE",
+                "    id IN (",
+                "        SELECT",
+                "            o.cust_id",
+                "        FROM",
+                "            orders o)",
+                "GROUP BY",
+                "    id;",
+                "",
+                "INSERT INTO",
+                "    T (A, B)",
+                "VALUES",
+                "    (:a, upper(?))"),
+                SqlFormatter.format("select c1_0.id, count(*) as total from customer c1_0 where c1_0.id in "
+                        + "(select o.cust_id from orders o) group by c1_0.id; insert into T (A,B) values (:a,upper(?))"));
+    }
+
+    @Test
+    void testLiteralsAndCommentsUntouched() {
+        assertEquals(String.join("\n",
+                "/* load  Customer */",
+                "SELECT",
+                "    \"this_\".\"from\",",
+                "    'select  this_.x from  y' -- a  comment",
+                "    ,",
+                "    N'x'"),
+                SqlFormatter.format("/* load  Customer */ select \"this_\".\"from\", 'select  this_.x from  y'"
+                        + " -- a  comment\n, N'x'"));
+    }
+
+    @Test
+    void testLogPrefixes() {
+        assertEquals("Hibernate:\nSELECT\n    1\n\nHibernate:\nDELETE FROM\n    T",
+                SqlFormatter.format("Hibernate: select 1\nHibernate: delete from T"));
+    }
+
+    @Test
+    void testGeneratedAliases() {
+        assertTrue(SqlFormatter.isGeneratedAlias("this_"));
+        assertTrue(SqlFormatter.isGeneratedAlias("this_1_"));
+        assertTrue(SqlFormatter.isGeneratedAlias("customer0_"));
+        assertTrue(SqlFormatter.isGeneratedAlias("ID1_0_0_"));
+        assertTrue(SqlFormatter.isGeneratedAlias("c1_0"));
+        assertFalse(SqlFormatter.isGeneratedAlias("CUSTOMER_ID"));
+        assertFalse(SqlFormatter.isGeneratedAlias("ADDRESS_LINE2"));
+        assertFalse(SqlFormatter.isGeneratedAlias("this_name"));
+        assertFalse(SqlFormatter.isGeneratedAlias("V2"));
+    }
+
+    @Test
+    void testStreamingMatches() throws Exception {
+        String sql = "select a.x, (select max(y) from b where b.id = a.id) from a where a.z like 'q%'";
+        StringWriter out = new StringWriter();
+        SqlFormatter.format(sql, out);
+        assertEquals(SqlFormatter.format(sql), out.toString());
+        assertEquals("", SqlFormatter.format(null));
+    }
+
+    @Test
+    void testInterruptedThreadStops() {
+        // The GUI's Cancel interrupts the worker; the scan must notice rather than run to the end.
+        Thread.currentThread().interrupt();
+        try {
+            assertThrows(CancellationException.class, () -> SqlFormatter.format("select a from b"));
+            assertThrows(CancellationException.class, () -> TextTransformers.toTitleCase("a title"));
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+}
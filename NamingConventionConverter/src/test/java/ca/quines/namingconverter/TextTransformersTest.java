@@ -31,6 +31,11 @@ class TextTransformersTest {
         assertEquals("", TextTransformers.collapseWhitespace(null));
     }
 
+    @Test
+    void testCollapseWhitespaceMixedRuns() {
+        assertEquals("a b c", TextTransformers.collapseWhitespace("\t a \r\n\n b\u000Bc \f"));
+    }
+
     @Test
     void testToCamelCase() {
         // Lower Camel Case
@@ -41,6 +46,10 @@ class TextTransformersTest {
         assertEquals("HelloWorld", TextTransformers.toCamelCase("hello-world", true));
         assertEquals("TestCase", TextTransformers.toCamelCase("test_case", true));
 
+        // Words are split the way IdentifierTokenizer splits them, humps included.
+        assertEquals("customerIdHttpServer", TextTransformers.toCamelCase("customerId HTTPServer", false));
+        assertEquals("OrderLine", TextTransformers.toCamelCase(" order.line", true));
+
         assertNull(TextTransformers.toCamelCase(null, true));
         assertNull(TextTransformers.toCamelCase(null, false));
     }
@@ -67,6 +76,8 @@ class TextTransformersTest {
     void testCamelCaseToSpaces() {
         assertEquals("Camel Case", TextTransformers.camelCaseToSpaces("CamelCase"));
         assertEquals("this Is A Test", TextTransformers.camelCaseToSpaces("thisIsATest"));
+        assertEquals("HTTP Server, Already Spaced\r\nget URL()", TextTransformers.camelCaseToSpaces(
+                "HTTPServer, Already Spaced\r\ngetURL()"));
         assertEquals("", TextTransformers.camelCaseToSpaces(null));
     }
 
@@ -79,12 +90,44 @@ class TextTransformersTest {
     @Test
     void testCamelCaseToUpperSnake() {
         assertEquals("CAMEL_CASE_TEST", TextTransformers.camelCaseToUpperSnake("CamelCaseTest"));
+        // Acronyms stay whole, the same as going through spaces.
+        assertEquals("HTTP_SERVER_URL", TextTransformers.camelCaseToUpperSnake("HTTPServerURL"));
+        assertEquals(TextTransformers.spacesToUpperSnake(TextTransformers.camelCaseToSpaces("parseXMLFile2 getID")),
+                TextTransformers.camelCaseToUpperSnake("parseXMLFile2 getID"));
+    }
+
+    @Test
+    void testCamelCaseToUpperSnakeWithSpaces() {
+        // Humps next to existing whitespace collapse into a single underscore.
+        assertEquals("CAMEL_CASE_TEST", TextTransformers.camelCaseToUpperSnake("  Camel Case\tTest  "));
+        assertEquals("LINE_ONE_LINE_TWO", TextTransformers.camelCaseToUpperSnake("lineOne\nLineTwo"));
+        assertEquals("", TextTransformers.camelCaseToUpperSnake(null));
+    }
+
+    @Test
+    void testStreamingOverloads() throws Exception {
+        StringBuilder out = new StringBuilder();
+        TextTransformers.camelCaseToUpperSnake(new StringBuilder("camelCaseTest"), out);
+        out.append('|');
+        TextTransformers.camelCaseToSpaces("thisIsATest", out);
+        out.append('|');
+        TextTransformers.collapseWhitespace(" a   b ", out);
+        out.append('|');
+        TextTransformers.spacesToUpperSnake("hello world", out);
+        out.append('|');
+        TextTransformers.toUpperSnake("helloWorld", out);
+        out.append('|');
+        TextTransformers.allInitialCaps("HELLO  WORLD", out);
+        TextTransformers.allInitialCaps(null, out);
+        assertEquals("CAMEL_CASE_TEST|this Is A Test|a b|HELLO_WORLD|HELLO_WORLD|Hello World", out.toString());
     }
 
     @Test
     void testSnakeToCamelAndPascal() {
         assertEquals("snakeCase", TextTransformers.snakeToCamel("SNAKE_CASE", false));
         assertEquals("SnakeCase", TextTransformers.snakeToCamel("snake_case", true));
+        assertEquals("customerId\norderLineItem", TextTransformers.snakeToCamel("CUSTOMER_ID\norder-line-item", false));
+        assertEquals("", TextTransformers.snakeToCamel(null, false));
     }
 
     @Test
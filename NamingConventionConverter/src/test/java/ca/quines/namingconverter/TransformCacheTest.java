@@ -0,0 +1,92 @@
+package ca.quines.namingconverter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransformCacheTest {
+
+    @Test
+    void testHitsAndMisses() {
+        TransformCache cache = new TransformCache(100);
+        assertEquals("customerId", cache.apply(Operation.SNAKE_TO_CAMEL, "CUSTOMER_ID"));
+        assertEquals("customerId", cache.apply(Operation.SNAKE_TO_CAMEL, "CUSTOMER_ID"));
+        // Same input, different operation: a separate entry.
+        assertEquals("CUSTOMER_ID", cache.apply(Operation.UPPERCASE, "CUSTOMER_ID"));
+        assertEquals(1, cache.hits());
+        assertEquals(2, cache.misses());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsed() {
+        TransformCache cache = new TransformCache(3);
+        AtomicInteger calls = new AtomicInteger();
+        Transformation operation = new Transformation() {
+            @Override
+            public String apply(String s) {
+                calls.incrementAndGet();
+                return s.toUpperCase();
+            }
+
+            @Override
+            public boolean joinsLines() {
+                return false;
+            }
+        };
+
+        for (String s : new String[] { "a", "b", "c", "a", "d", "a", "b" }) {
+            cache.apply(operation, s);
+        }
+        // "b" was the least recently used when "d" came in.
+        assertEquals(5, calls.get());
+        assertEquals(3, cache.size());
+        assertEquals(2, cache.evictions());
+    }
+
+    @Test
+    void testLongInputsAreNotCached() {
+        TransformCache cache = new TransformCache(100);
+        String text = "x".repeat(TransformCache.MAX_CACHED_LENGTH + 1);
+        cache.apply(Operation.UPPERCASE, text);
+        cache.apply(Operation.UPPERCASE, text);
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.hits() + cache.misses());
+    }
+
+    @Test
+    void testWrapKeepsJoinsLines() {
+        TransformCache cache = new TransformCache(10);
+        assertTrue(cache.wrap(Operation.IN_CLAUSE_INT).joinsLines());
+        assertEquals("helloWorld", cache.wrap(Operation.SPACES_TO_CAMEL_CASE).apply("hello world"));
+    }
+
+    @Test
+    void testSharedBetweenThreads() throws Exception {
+        TransformCache cache = new TransformCache(1_000);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 20_000; i++) {
+                        String input = "COLUMN_" + (i % 2_000);
+                        assertEquals(TextTransformers.snakeToCamel(input, false), cache.apply(Operation.SNAKE_TO_CAMEL, input));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) future.get();
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(80_000, cache.hits() + cache.misses());
+        assertTrue(cache.size() <= 1_000);
+    }
+
+}
@@ -0,0 +1,127 @@
+package ca.quines.namingconverter;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.List;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransformMetricsTest {
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void tearDown() {
+        TransformMetrics.setEnabled(false);
+        TransformMetrics.reset();
+    }
+
+    @Test
+    void testDisabledRecordsNothing() {
+        TransformMetrics.setEnabled(false);
+        assertNull(TransformMetrics.begin("anything"));
+        assertEquals("fooBar", TransformMetrics.wrap(Operation.SNAKE_TO_CAMEL).apply("FOO_BAR"));
+        assertTrue(TransformMetrics.statistics().isEmpty());
+    }
+
+    @Test
+    void testCountsSizesAndFailures() {
+        TransformMetrics.setEnabled(true);
+        Transformation camel = TransformMetrics.wrap(Operation.SNAKE_TO_CAMEL);
+        for (int i = 0; i < 10; i++) {
+            assertEquals("customerId", camel.apply("CUSTOMER_ID"));
+        }
+        Transformation failing = TransformMetrics.wrap(new Transformation() {
+            @Override
+            public String apply(String input) {
+                throw new IllegalArgumentException("no");
+            }
+
+            @Override
+            public boolean joinsLines() {
+                return false;
+            }
+
+            @Override
+            public String toString() {
+                return "failing";
+            }
+        });
+        assertThrows(IllegalArgumentException.class, () -> failing.apply("abc"));
+
+        List<TransformMetrics.Statistics> statistics = TransformMetrics.statistics();
+        assertEquals(2, statistics.size());
+        TransformMetrics.Statistics s = statistics.get(0);
+        assertEquals("snakeToCamel", s.getName());
+        assertEquals(10, s.getCalls());
+        assertEquals(0, s.getFailures());
+        assertEquals(110, s.getInputChars());
+        assertEquals(100, s.getOutputChars());
+        assertTrue(s.getP50Micros() <= s.getP99Micros());
+        assertTrue(s.getMaxMicros() > 0);
+        assertEquals(1, statistics.get(1).getFailures());
+        assertTrue(TransformMetrics.report().contains("failing"));
+    }
+
+    @Test
+    void testGuiAndCommandLineShareARow() {
+        TransformMetrics.setEnabled(true);
+        // The GUI times the call itself; the command line wraps the operation, after the cache.
+        TransformMetrics.begin(Operation.UPPERCASE.metricName()).end(3, 3);
+        TransformMetrics.wrap(new TransformCache(16).wrap(Operation.UPPERCASE)).apply("abc");
+
+        List<TransformMetrics.Statistics> statistics = TransformMetrics.statistics();
+        assertEquals(1, statistics.size());
+        assertEquals("toUpperCase", statistics.get(0).getName());
+        assertEquals(2, statistics.get(0).getCalls());
+    }
+
+    @Test
+    void testMXBean() throws Exception {
+        TransformMetrics.setEnabled(true);
+        TransformMetrics.wrap(Operation.UPPERCASE).apply("abc");
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(TransformMetrics.OBJECT_NAME);
+        assertEquals(Boolean.TRUE, server.getAttribute(name, "Enabled"));
+        CompositeData[] operations = (CompositeData[]) server.getAttribute(name, "Operations");
+        assertEquals(1, operations.length);
+        assertEquals(1L, operations[0].get("calls"));
+
+        server.invoke(name, "reset", null, null);
+        assertTrue(TransformMetrics.statistics().isEmpty());
+    }
+
+    @Test
+    void testFlightRecorderEvents() throws Exception {
+        Path file = tempDir.resolve("transform.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(TransformEvent.class);
+            recording.start();
+            // Events are recorded even with collection off.
+            TransformMetrics.wrap(Operation.UPPERCASE).apply("abc");
+            recording.stop();
+            recording.dump(file);
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(e -> e.getEventType().getName().equals("ca.quines.namingconverter.Transform"))
+                .toList();
+        assertEquals(1, events.size());
+        assertEquals("toUpperCase", events.get(0).getString("operation"));
+        assertEquals(3, events.get(0).getLong("outputLength"));
+        assertTrue(TransformMetrics.statistics().isEmpty());
+    }
+
+}
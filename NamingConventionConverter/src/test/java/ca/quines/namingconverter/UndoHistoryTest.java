@@ -0,0 +1,172 @@
+package ca.quines.namingconverter;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class UndoHistoryTest {
+
+    /** A document that counts how many characters undo and redo read and write. */
+    private static final class TextDocument implements UndoHistory.Document {
+
+        final StringBuilder text;
+        long charsTouched;
+
+        TextDocument(String text) {
+            this.text = new StringBuilder(text);
+        }
+
+        @Override
+        public String getTextRange(int start, int length) {
+            charsTouched += length;
+            return text.substring(start, start + length);
+        }
+
+        @Override
+        public void replaceTextRange(int start, int replaceLength, String newText) {
+            charsTouched += newText.length();
+            text.replace(start, start + replaceLength, newText);
+        }
+
+        /** Replaces all of the text, recording it in {@code history}. */
+        void transform(UndoHistory history, String newText) {
+            history.record(0, text.toString(), newText);
+            text.replace(0, text.length(), newText);
+        }
+
+        @Override
+        public String toString() {
+            return text.toString();
+        }
+
+    }
+
+    /** Compresses everything but the newest step, on the calling thread. */
+    private static UndoHistory compressingHistory(long budget) {
+        return new UndoHistory(budget, 1, 1, Runnable::run);
+    }
+
+    @Test
+    void testUndoAndRedo() {
+        UndoHistory history = new UndoHistory();
+        assertFalse(history.canUndo());
+        TextDocument document = new TextDocument("hello world");
+
+        document.transform(history, "helloWorld");
+        document.transform(history, "HELLO_WORLD");
+
+        history.undo(document);
+        assertEquals("helloWorld", document.toString());
+        history.undo(document);
+        assertEquals("hello world", document.toString());
+        assertFalse(history.canUndo());
+
+        history.redo(document);
+        assertEquals("helloWorld", document.toString());
+        history.redo(document);
+        assertEquals("HELLO_WORLD", document.toString());
+        assertFalse(history.canRedo());
+    }
+
+    @Test
+    void testNewChangeClearsRedo() {
+        UndoHistory history = new UndoHistory();
+        TextDocument document = new TextDocument("a");
+        document.transform(history, "b");
+        history.undo(document);
+        assertTrue(history.canRedo());
+        document.transform(history, "c");
+        assertFalse(history.canRedo());
+        history.undo(document);
+        assertEquals("a", document.toString());
+    }
+
+    @Test
+    void testTypedEditsBecomeTheirOwnStep() {
+        UndoHistory history = new UndoHistory();
+        TextDocument document = new TextDocument("snake_case");
+        document.transform(history, "SNAKE_CASE");
+
+        // The user typed " TEXT" at the end after the transform, one key at a time.
+        for (char c : " TEXT".toCharArray()) {
+            int end = document.text.length();
+            history.typed(end, "", String.valueOf(c));
+            document.text.append(c);
+        }
+        history.undo(document);
+        assertEquals("SNAKE_CASE", document.toString());
+        history.undo(document);
+        assertEquals("snake_case", document.toString());
+
+        // Typing after an undo makes the redo steps meaningless.
+        history.typed(0, "s", "S");
+        document.text.setCharAt(0, 'S');
+        assertFalse(history.canRedo());
+    }
+
+    @Test
+    void testStoresAndTouchesOnlyTheChangedRange() {
+        String prefix = "x".repeat(100_000);
+        String suffix = "y".repeat(100_000);
+        UndoHistory history = new UndoHistory(Long.MAX_VALUE, 10, Integer.MAX_VALUE, Runnable::run);
+        TextDocument document = new TextDocument(prefix + "abc" + suffix);
+        // A transform of a selection in the middle of the text.
+        history.record(prefix.length() - 2, "xxabcy", "xxABCy");
+        document.text.replace(prefix.length(), prefix.length() + 3, "ABC");
+
+        assertTrue(history.memoryUsed() < 1_000, "used " + history.memoryUsed());
+        history.undo(document);
+        assertEquals(prefix + "abc" + suffix, document.toString());
+        history.redo(document);
+        assertEquals(prefix + "ABC" + suffix, document.toString());
+        assertEquals(12, document.charsTouched);
+    }
+
+    @Test
+    void testKeepsCrLfTogether() {
+        UndoHistory history = new UndoHistory();
+        TextDocument document = new TextDocument("a\r\nb");
+        document.transform(history, "a\r\r\nb");
+        history.undo(document);
+        assertEquals("a\r\nb", document.toString());
+        // Neither edit started between a \r and a \n.
+        history.redo(document);
+        assertEquals("a\r\r\nb", document.toString());
+    }
+
+    @Test
+    void testCompressedStepsRoundTrip() {
+        UndoHistory history = compressingHistory(Long.MAX_VALUE);
+        String[] texts = { "first 😀 text", "SECOND TEXT", "third_text", "Fourth Text" };
+        TextDocument document = new TextDocument(texts[0]);
+        for (int i = 1; i < texts.length; i++) {
+            document.transform(history, texts[i]);
+        }
+        for (int i = texts.length - 1; i > 0; i--) {
+            history.undo(document);
+            assertEquals(texts[i - 1], document.toString());
+        }
+    }
+
+    @Test
+    void testBudgetEvictsOldestSteps() {
+        String big = "a".repeat(10_000);
+        UndoHistory history = new UndoHistory(50_000, 10, Integer.MAX_VALUE, Runnable::run);
+        TextDocument document = new TextDocument(big);
+        for (int i = 0; i < 10; i++) {
+            document.transform(history, i % 2 == 0 ? big.toUpperCase() : big);
+        }
+
+        assertTrue(history.memoryUsed() <= 50_000);
+        assertTrue(history.undoSize() > 0 && history.undoSize() < 10);
+    }
+
+    @Test
+    void testNewestStepKeptEvenOverBudget() {
+        UndoHistory history = new UndoHistory(10, 10, Integer.MAX_VALUE, Runnable::run);
+        TextDocument document = new TextDocument("before");
+        document.transform(history, "after");
+        history.undo(document);
+        assertEquals("before", document.toString());
+    }
+
+}
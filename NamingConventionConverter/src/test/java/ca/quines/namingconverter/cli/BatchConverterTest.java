@@ -0,0 +1,208 @@
+package ca.quines.namingconverter.cli;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import ca.quines.namingconverter.CasingDictionary;
+
+class BatchConverterTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+    private int run(String stdin, String... args) {
+        return BatchConverter.run(args, new ByteArrayInputStream(stdin.getBytes(StandardCharsets.UTF_8)),
+                new PrintStream(out, true, StandardCharsets.UTF_8), new PrintStream(err, true, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testStdinLineByLine() {
+        assertEquals(0, run("CUSTOMER_ID\r\nORDER_LINE_ITEM\n", "snakeToCamel"));
+        assertEquals("customerId\norderLineItem\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testSqlStatementAcrossLines() {
+        // Hibernate logs one statement over several lines; it is formatted as one, not line by line.
+        assertEquals(0, run("select this_.ID as ID1_0_, this_.NAME as NAME2_0_\nfrom CUSTOMER this_\n"
+                + "where this_.ID=?\n", "cleanUpSql"));
+        assertEquals("SELECT\n    ID,\n    NAME\nFROM\n    CUSTOMER\nWHERE\n    ID = ?\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testJavaSqlAcrossLines() throws Exception {
+        assertEquals(0, run("SELECT ID\nFROM CUSTOMER\nWHERE ID = :id\n", "sqlToAppends"));
+        String appends = out.toString(StandardCharsets.UTF_8);
+        assertEquals(String.join("\n",
+                "StringBuilder sql = new StringBuilder(51);",
+                "sql.append(\"SELECT ID \");",
+                "sql.append(\"FROM CUSTOMER \");",
+                "sql.append(\"WHERE ID = \").append(id);",
+                ""), appends);
+
+        // And back again, through a file this time.
+        Path java = Files.writeString(tempDir.resolve("Dao.java"), appends);
+        out.reset();
+        assertEquals(0, run("", "javaToSql", java.toString()));
+        assertEquals("SELECT ID\nFROM CUSTOMER\nWHERE ID = :id\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testStdoutLeftOpen() {
+        boolean[] closed = new boolean[1];
+        PrintStream stdout = new PrintStream(out, false, StandardCharsets.UTF_8) {
+            @Override
+            public void close() {
+                closed[0] = true;
+                super.close();
+            }
+        };
+        assertEquals(0, BatchConverter.run(new String[] {"toUpperCase"}, new ByteArrayInputStream(new byte[] {'a'}),
+                stdout, new PrintStream(err, true, StandardCharsets.UTF_8)));
+        assertFalse(closed[0]);
+        assertEquals("A\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testMissingInputKeepsOutput() throws Exception {
+        Path output = Files.writeString(tempDir.resolve("out.txt"), "keep me");
+        assertEquals(1, run("", "toUpperCase", "-o", output.toString(), tempDir.resolve("typo.txt").toString()));
+        assertEquals(1, run("", "decodeUrl", "-o", output.toString(), tempDir.resolve("typo.txt").toString()));
+        assertEquals(1, run("", "toUpperCase", "--csv", "1", "-o", output.toString(),
+                tempDir.resolve("typo.csv").toString()));
+        assertEquals("keep me", Files.readString(output));
+    }
+
+    @Test
+    void testOutputIsAnInput() throws Exception {
+        Path file = Files.writeString(tempDir.resolve("f.txt"), "keep me\n");
+        Path other = Files.writeString(tempDir.resolve("other.txt"), "other\n");
+        String sameFile = tempDir.resolve(".").resolve("f.txt").toString();
+        assertEquals(2, run("", "toUpperCase", other.toString(), file.toString(), "-o", sameFile));
+        assertEquals(2, run("", "decodeUrl", file.toString(), "-o", file.toString()));
+        assertTrue(err.toString(StandardCharsets.UTF_8).contains("The output file is also an input"));
+        assertEquals("keep me\n", Files.readString(file));
+    }
+
+    @Test
+    void testFilesToOutputFile() throws Exception {
+        Path first = Files.writeString(tempDir.resolve("first.txt"), "helloWorld\n");
+        Path second = Files.writeString(tempDir.resolve("second.txt"), "myTestString");
+        Path output = tempDir.resolve("out.txt");
+
+        assertEquals(0, run("", "camelCaseToUpperSnake", "-o", output.toString(), first.toString(), second.toString()));
+        assertEquals("HELLO_WORLD\nMY_TEST_STRING\n", Files.readString(output));
+    }
+
+    @Test
+    void testJoinedLines() {
+        assertEquals(0, run("101\n102\n\n103", "toInClauseInt"));
+        assertEquals("IN (101, 102, 103)\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testRecipeFile() throws Exception {
+        Path recipe = Files.writeString(tempDir.resolve("fields.recipe"),
+                "# fields\nunderscoresToSpaces\ntoCamelCase\n");
+        assertEquals(0, run("CUSTOMER_ID\nORDER_LINE\n", "--recipe", recipe.toString()));
+        assertEquals("customerId\norderLine\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testInClauseGroups() {
+        assertEquals(0, run("1\n2\n2\n3\n", "toInClauseInt", "--column", "ORDER_ID", "--limit", "2"));
+        assertEquals("(ORDER_ID IN (1, 2) OR ORDER_ID IN (3))\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testPlainListRejectsInClauseOptions() {
+        assertEquals(2, run("a\nb\n", "newlineToComma", "--limit", "1"));
+        assertEquals(2, run("a\nb\n", "newlineToQuotedComma", "--column", "C"));
+        assertEquals("", out.toString(StandardCharsets.UTF_8));
+        assertTrue(err.toString(StandardCharsets.UTF_8).contains("not to plain lists"));
+    }
+
+    @Test
+    void testInClauseStatements() {
+        assertEquals(0, run("a\nb\n", "toInClauseString", "--statement", "DELETE FROM T WHERE C", "--limit", "1"));
+        assertEquals("DELETE FROM T WHERE C IN ('a');\nDELETE FROM T WHERE C IN ('b');\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testBadNumber() {
+        assertEquals(2, run("1\nx\n", "toInClauseInt"));
+        assertTrue(err.toString(StandardCharsets.UTF_8).contains("Line 2"));
+    }
+
+    @Test
+    void testRulesFile() throws Exception {
+        Path rules = Files.writeString(tempDir.resolve("columns.rules"), "CUST_NO\tcustomer_id\n(\\w+)_FLG\tis_$1\tregex\n");
+        assertEquals(0, run("CUST_NO\nACTIVE_FLG\n", "--rules", rules.toString()));
+        assertEquals("customer_id\nis_ACTIVE\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testCache() {
+        assertEquals(0, run("CUSTOMER_ID\nCUSTOMER_ID\nORDER_ID\n", "snakeToCamel", "--cache", "10"));
+        assertEquals("customerId\ncustomerId\norderId\n", out.toString(StandardCharsets.UTF_8));
+        assertEquals(2, run("", "snakeToCamel", "--cache", "-1"));
+    }
+
+    @Test
+    void testCsvColumn() throws Exception {
+        Path first = Files.writeString(tempDir.resolve("first.csv"), "TABLE_NAME,COLUMN_NAME\nORDERS,ORDER_ID\n");
+        Path second = Files.writeString(tempDir.resolve("second.csv"), "COLUMN_NAME,TABLE_NAME\nLINE_NO,ORDERS\n");
+        assertEquals(0, run("", "snakeToCamel", "--csv", "COLUMN_NAME", first.toString(), second.toString()));
+        assertEquals("TABLE_NAME,COLUMN_NAME\nORDERS,orderId\nCOLUMN_NAME,TABLE_NAME\nlineNo,ORDERS\n",
+                out.toString(StandardCharsets.UTF_8));
+        assertEquals(2, run("", "toInClauseInt", "--tsv", "1"));
+    }
+
+    @Test
+    void testUrlCodecStreamsBytes() throws Exception {
+        Path log = Files.writeString(tempDir.resolve("access.log"), "GET /a%20b?q=caf%C3%A9+x%ZZ&p=100%\nGET /%");
+        assertEquals(0, run("", "decodeUrl", log.toString()));
+        assertEquals("GET /a b?q=café x%ZZ&p=100%\nGET /%\n", out.toString(StandardCharsets.UTF_8));
+        out.reset();
+        assertEquals(0, run("a b/é\nc&d\n", "encodeUrl"));
+        assertEquals("a+b%2F%C3%A9\nc%26d\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testDictionary() throws Exception {
+        Path dictionary = Files.writeString(tempDir.resolve("casing.dictionary"), "acronym URL\nspelling iPhone\n");
+        CasingDictionary saved = CasingDictionary.current();
+        try {
+            assertEquals(0, run("image url\niphone case\n", "toPascalCase", "--dictionary", dictionary.toString()));
+            assertEquals("ImageURL\niPhoneCase\n", out.toString(StandardCharsets.UTF_8));
+            assertEquals(1, run("", "toPascalCase", "--dictionary", tempDir.resolve("missing").toString()));
+        } finally {
+            CasingDictionary.setCurrent(saved);
+        }
+    }
+
+    @Test
+    void testUnknownOperation() {
+        assertEquals(2, run("", "noSuchThing"));
+        assertTrue(err.toString(StandardCharsets.UTF_8).contains("snakeToCamel"));
+    }
+
+    @Test
+    void testMissingInputFile() {
+        assertEquals(1, run("", "toUpperCase", tempDir.resolve("missing.txt").toString()));
+    }
+
+}
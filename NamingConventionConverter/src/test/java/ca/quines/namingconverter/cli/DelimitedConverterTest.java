@@ -0,0 +1,77 @@
+package ca.quines.namingconverter.cli;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import ca.quines.namingconverter.Operation;
+
+class DelimitedConverterTest {
+
+    private static byte[] convert(DelimitedConverter converter, byte[] input) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        converter.convert(new ByteArrayInputStream(input), out);
+        return out.toByteArray();
+    }
+
+    private static String convert(DelimitedConverter converter, String input) throws IOException {
+        return new String(convert(converter, input.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testHeaderName() throws Exception {
+        DelimitedConverter converter = new DelimitedConverter(Operation.SNAKE_TO_CAMEL, ',',
+                DelimitedConverter.parseColumns("COLUMN_NAME"), false);
+        assertEquals("TABLE_NAME,COLUMN_NAME,DATA_TYPE\r\nCUSTOMER,customerId,NUMBER\r\nORDER_LINE,itemCode,\r\n",
+                convert(converter, "TABLE_NAME,COLUMN_NAME,DATA_TYPE\r\nCUSTOMER,CUSTOMER_ID,NUMBER\r\n"
+                        + "ORDER_LINE,ITEM_CODE,\r\n"));
+    }
+
+    @Test
+    void testQuotedFields() throws Exception {
+        DelimitedConverter converter = new DelimitedConverter(Operation.CAMEL_CASE_TO_SPACES, ',', List.of("2"),
+                false);
+        // Delimiters and line breaks inside quotes, doubled quotes, and a quote in the middle of a plain field.
+        assertEquals("\"a,b\",\"Customer\"\"Id\"\"\",x\"y\n\"1\n2\",\"New Id\",3\nq,Last Field",
+                convert(converter, "\"a,b\",\"Customer\"\"Id\"\"\",x\"y\n\"1\n2\",\"NewId\",3\nq,LastField"));
+        // A result with a comma in it gets quoted.
+        converter = new DelimitedConverter(Operation.DECODE_URL, ',', List.of("1"), false);
+        assertEquals("\"a, b\",c\n", convert(converter, "a%2C+b,c\n"));
+    }
+
+    @Test
+    void testTsvColumnNumbers() throws Exception {
+        DelimitedConverter converter = new DelimitedConverter(Operation.UPPERCASE, '\t', List.of("1", "3"), true);
+        assertEquals("name\tkeep\tname\nA\tb\tC\n\t\t\n", convert(converter, "name\tkeep\tname\na\tb\tc\n\t\t\n"));
+    }
+
+    @Test
+    void testOtherColumnsCopiedAsBytes() throws Exception {
+        DelimitedConverter converter = new DelimitedConverter(Operation.UPPERCASE, ',', List.of("2"), false, 3);
+        // Latin-1 in a column that isn't converted comes through byte for byte, even across buffer boundaries.
+        byte[] input = "café,\"id, \"\"x\"\"\",café\n".getBytes(StandardCharsets.ISO_8859_1);
+        byte[] expected = "café,\"ID, \"\"X\"\"\",café\n".getBytes(StandardCharsets.ISO_8859_1);
+        assertArrayEquals(expected, convert(converter, input));
+        assertThrows(CharacterCodingException.class, () -> convert(converter, "a,café".getBytes(
+                StandardCharsets.ISO_8859_1)));
+    }
+
+    @Test
+    void testErrors() {
+        assertThrows(IllegalArgumentException.class, () -> convert(new DelimitedConverter(Operation.UPPERCASE, ',',
+                List.of("MISSING"), false), "A,B\n1,2\n"));
+        assertThrows(IllegalArgumentException.class,
+                () -> new DelimitedConverter(Operation.IN_CLAUSE_INT, ',', List.of("1"), false));
+        assertThrows(IllegalArgumentException.class,
+                () -> new DelimitedConverter(Operation.UPPERCASE, '"', List.of("1"), false));
+        assertThrows(IllegalArgumentException.class,
+                () -> new DelimitedConverter(Operation.UPPERCASE, ',', List.of("0"), false));
+    }
+
+}
@@ -0,0 +1,59 @@
+package ca.quines.namingconverter.cli;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import ca.quines.namingconverter.Operation;
+
+class ParallelFileConverterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testMatchesSequentialOutput() throws Exception {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            sb.append("CUSTOMER_ORDER_").append(i).append(i % 3 == 0 ? "\r\n" : "\n");
+            if (i % 50 == 0) sb.append("\n");
+            if (i % 70 == 0) sb.append("ÉTÉ_ÜBER_NAÏVE\n");
+        }
+        sb.append("LAST_LINE_NO_NEWLINE");
+        Path input = Files.writeString(tempDir.resolve("in.txt"), sb);
+        Path expected = tempDir.resolve("expected.txt");
+        Path actual = tempDir.resolve("actual.txt");
+
+        BatchConverter.convert(Operation.SNAKE_TO_CAMEL, input, expected);
+        // Tiny chunks so that nearly every line lands in its own chunk.
+        new ParallelFileConverter(Operation.SNAKE_TO_CAMEL, 4, 16).convert(input, actual);
+
+        assertEquals(Files.readString(expected), Files.readString(actual));
+    }
+
+    @Test
+    void testEmptyFile() throws Exception {
+        Path input = Files.writeString(tempDir.resolve("in.txt"), "");
+        Path output = tempDir.resolve("out.txt");
+        new ParallelFileConverter(Operation.UPPERCASE, 2).convert(input, output);
+        assertEquals("", Files.readString(output));
+    }
+
+    @Test
+    void testRejectsOutputThatIsTheInput() throws Exception {
+        Path file = Files.writeString(tempDir.resolve("f.txt"), "keep me\n");
+        ParallelFileConverter converter = new ParallelFileConverter(Operation.UPPERCASE, 2);
+        assertThrows(IllegalArgumentException.class,
+                () -> converter.convert(file, tempDir.resolve(".").resolve("f.txt")));
+        assertEquals("keep me\n", Files.readString(file));
+    }
+
+    @Test
+    void testRejectsJoiningOperations() {
+        assertThrows(IllegalArgumentException.class, () -> new ParallelFileConverter(Operation.IN_CLAUSE_INT, 2));
+    }
+
+}
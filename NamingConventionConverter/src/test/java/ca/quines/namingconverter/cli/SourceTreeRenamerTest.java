@@ -0,0 +1,135 @@
+package ca.quines.namingconverter.cli;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import ca.quines.namingconverter.Operation;
+import ca.quines.namingconverter.SourceLexer;
+
+class SourceTreeRenamerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static String rename(SourceTreeRenamer renamer, String text, SourceLexer lexer) {
+        StringBuilder sb = new StringBuilder();
+        return renamer.rename(text, lexer, sb) == 0 ? text : sb.toString();
+    }
+
+    @Test
+    void testJavaSkipsStringsCommentsAndKeywords() {
+        SourceTreeRenamer renamer = SourceTreeRenamer.of(Map.of("CUSTOMER_ID", "customerId", "int", "long"), 1);
+        String java = String.join("\n",
+                "int CUSTOMER_ID = 0; // CUSTOMER_ID",
+                "/* CUSTOMER_ID */ String s = \"CUSTOMER_ID \\\" CUSTOMER_ID\";",
+                "char c = '\"'; call(CUSTOMER_ID);",
+                "String block = \"\"\"",
+                "    CUSTOMER_ID \"\" CUSTOMER_ID",
+                "    \"\"\"; return CUSTOMER_ID;",
+                "long n = 0x1CUSTOMER_ID;");
+        String expected = String.join("\n",
+                "int customerId = 0; // CUSTOMER_ID",
+                "/* CUSTOMER_ID */ String s = \"CUSTOMER_ID \\\" CUSTOMER_ID\";",
+                "char c = '\"'; call(customerId);",
+                "String block = \"\"\"",
+                "    CUSTOMER_ID \"\" CUSTOMER_ID",
+                "    \"\"\"; return customerId;",
+                "long n = 0x1CUSTOMER_ID;");
+        assertEquals(expected, rename(renamer, java, SourceLexer.JAVA));
+    }
+
+    @Test
+    void testSqlSkipsStringsCommentsQuotedNamesAndKeywords() {
+        SourceTreeRenamer renamer = SourceTreeRenamer.of(Operation.SNAKE_TO_CAMEL, null, 1);
+        String sql = "SELECT ORDER_ID, \"ORDER_ID\" FROM ORDER_LINES -- ORDER_ID\n"
+                + "WHERE NOTE = 'it''s ORDER_ID' /* ORDER_ID */ AND TOTAL_2 > 1e10;";
+        String expected = "SELECT orderId, \"ORDER_ID\" FROM orderLines -- ORDER_ID\n"
+                + "WHERE note = 'it''s ORDER_ID' /* ORDER_ID */ AND total2 > 1e10;";
+        assertEquals(expected, rename(renamer, sql, SourceLexer.SQL));
+    }
+
+    @Test
+    void testSqlSkipsFunctionsAndBuiltIns() {
+        SourceTreeRenamer renamer = SourceTreeRenamer.of(Operation.SNAKE_TO_CAMEL, null, 1);
+        String sql = "SELECT TO_CHAR(ORDER_DATE, 'YYYY'), ROW_NUMBER () OVER (ORDER BY ORDER_ID), current_timestamp\n"
+                + "FROM ORDER_LINES WHERE SHIP_DATE < SYSDATE;\n"
+                + "INSERT INTO APP.ORDER_LINES(ORDER_ID) VALUES (NEXT_ID());\n"
+                + "CREATE TABLE IF NOT EXISTS ORDER_NOTES (ORDER_ID INT REFERENCES ORDER_LINES (ORDER_ID));";
+        String expected = "SELECT TO_CHAR(orderDate, 'YYYY'), ROW_NUMBER () OVER (ORDER BY orderId), current_timestamp\n"
+                + "FROM orderLines WHERE shipDate < SYSDATE;\n"
+                + "INSERT INTO app.orderLines(orderId) VALUES (NEXT_ID());\n"
+                + "CREATE TABLE IF NOT EXISTS orderNotes (orderId INT REFERENCES orderLines (orderId));";
+        assertEquals(expected, rename(renamer, sql, SourceLexer.SQL));
+    }
+
+    @Test
+    void testMatchLimitsTheOperation() {
+        SourceTreeRenamer renamer = SourceTreeRenamer.of(Operation.SNAKE_TO_CAMEL,
+                Pattern.compile("[A-Z][A-Z0-9]*(_[A-Z0-9]+)+"), 1);
+        assertEquals("String orderId = MAX;", rename(renamer, "String ORDER_ID = MAX;", SourceLexer.JAVA));
+    }
+
+    @Test
+    void testRenameTreeRewritesOnlyChangedFiles() throws Exception {
+        Path sub = Files.createDirectories(tempDir.resolve("src/dao"));
+        Path changed = Files.writeString(sub.resolve("Dao.java"), "class Dao { int ORDER_ID; }\r\n");
+        Path unchanged = Files.writeString(sub.resolve("Other.java"), "class Other { String s = \"ORDER_ID\"; }");
+        Path sql = Files.writeString(tempDir.resolve("schema.sql"), "CREATE TABLE T (ORDER_ID INT);");
+        Path ignored = Files.writeString(tempDir.resolve("notes.txt"), "ORDER_ID");
+        FileTime before = FileTime.fromMillis(1_000_000_000_000L);
+        Files.setLastModifiedTime(unchanged, before);
+
+        SourceTreeRenamer renamer = SourceTreeRenamer.of(Map.of("ORDER_ID", "order_id"), 4);
+        SourceTreeRenamer.Summary summary = renamer.renameTree(List.of(tempDir), false, file -> {});
+
+        assertEquals(3, summary.filesScanned());
+        assertEquals(2, summary.filesChanged());
+        assertEquals(2, summary.identifiersRenamed());
+        assertTrue(summary.errors().isEmpty());
+        assertEquals("class Dao { int order_id; }\r\n", Files.readString(changed));
+        assertEquals("CREATE TABLE T (order_id INT);", Files.readString(sql));
+        assertEquals("ORDER_ID", Files.readString(ignored));
+        assertEquals(before, Files.getLastModifiedTime(unchanged));
+        try (var files = Files.list(sub)) {
+            assertEquals(2, files.count(), "no temporary files left behind");
+        }
+    }
+
+    @Test
+    void testDryRunAndBadEncoding() throws Exception {
+        Path java = Files.writeString(tempDir.resolve("A.java"), "int ORDER_ID;");
+        Path latin1 = Files.write(tempDir.resolve("B.sql"), "SELECT ORDER_ID -- café".getBytes(StandardCharsets.ISO_8859_1));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        int exitCode = SourceTreeRenamer.run(new String[] {"snakeToCamel", "--dry-run", tempDir.toString()},
+                new PrintStream(out, true, StandardCharsets.UTF_8), new PrintStream(err, true, StandardCharsets.UTF_8));
+
+        assertEquals(1, exitCode);
+        assertEquals("would change " + java, out.toString(StandardCharsets.UTF_8).trim());
+        assertTrue(err.toString(StandardCharsets.UTF_8).contains(latin1 + " is not UTF-8 text"));
+        assertEquals("int ORDER_ID;", Files.readString(java));
+    }
+
+    @Test
+    void testBadArguments() {
+        PrintStream sink = new PrintStream(new ByteArrayOutputStream());
+        assertEquals(2, SourceTreeRenamer.run(new String[] {"snakeToCamel"}, sink, sink));
+        assertEquals(2, SourceTreeRenamer.run(new String[] {"noSuchOperation", tempDir.toString()}, sink, sink));
+        assertEquals(2, SourceTreeRenamer.run(new String[] {"toInClauseInt", tempDir.toString()}, sink, sink));
+        assertEquals(2, SourceTreeRenamer.run(new String[] {"snakeToCamel", "--match", "(", tempDir.toString()},
+                sink, sink));
+    }
+
+}
@@ -0,0 +1,99 @@
+package ca.quines.namingconverter.cli;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import ca.quines.namingconverter.TransformCache;
+
+class TransformServerTest {
+
+    private TransformServer server;
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeEach
+    void startServer() throws Exception {
+        server = new TransformServer(0, new TransformCache(100));
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop();
+    }
+
+    private HttpResponse<String> post(String path, String contentType, String body) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.port() + path))
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (contentType != null) request.header("Content-Type", contentType);
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    void testLines() throws Exception {
+        HttpResponse<String> response = post("/transform/snakeToCamel", null, "CUSTOMER_ID\r\nORDER_LINE_ITEM\n");
+        assertEquals(200, response.statusCode());
+        assertEquals("customerId\norderLineItem\n", response.body());
+    }
+
+    @Test
+    void testStats() throws Exception {
+        post("/transform/snakeToCamel", "application/json", "[\"A_B\", \"A_B\"]");
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(
+                URI.create("http://localhost:" + server.port() + "/stats")).build(), HttpResponse.BodyHandlers.ofString());
+        assertTrue(response.body().contains("1 hits, 1 misses"), response.body());
+    }
+
+    @Test
+    void testJsonBatch() throws Exception {
+        HttpResponse<String> response = post("/transform/camelCaseToUpperSnake", "application/json",
+                "[\"helloWorld\", \"a\\\"quote\\\"\", null, \"\"]");
+        assertEquals(200, response.statusCode());
+        assertEquals("[\"HELLO_WORLD\",\"A\\\"QUOTE\\\"\",null,\"\"]", response.body());
+    }
+
+    @Test
+    void testJoinedLines() throws Exception {
+        assertEquals("IN (1, 2, 3)\n", post("/transform/toInClauseInt", null, "1\n2\n3\n").body());
+    }
+
+    @Test
+    void testErrors() throws Exception {
+        assertEquals(404, post("/transform/noSuchThing", null, "x").statusCode());
+        assertEquals(400, post("/transform/toUpperCase", "application/json", "[\"unterminated").statusCode());
+        assertEquals(400, post("/transform/toInClauseInt", "application/json", "[\"12x\"]").statusCode());
+    }
+
+    @Test
+    void testOperations() throws Exception {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(
+                URI.create("http://localhost:" + server.port() + "/operations")).build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body().contains("snakeToCamel\tUPPER_SNAKE_CASE to camelCase\n"));
+    }
+
+    @Test
+    void testJsonStrings() {
+        assertEquals(Arrays.asList("a\tb", "é", null), JsonStrings.parseArray(" [\"a\\tb\", \"\\u00e9\", null] "));
+        assertThrows(IllegalArgumentException.class, () -> JsonStrings.parseArray("[\"a\" \"b\"]"));
+        assertThrows(IllegalArgumentException.class, () -> JsonStrings.parseArray("[1]"));
+    }
+
+    @Test
+    void testCacheArgument() {
+        PrintStream sink = new PrintStream(new ByteArrayOutputStream());
+        assertEquals(0, TransformServer.DEFAULT_CACHE_ENTRIES);
+        assertEquals(2, TransformServer.run(new String[] {"--cache", "-1"}, sink, sink));
+        assertEquals(2, TransformServer.run(new String[] {"--cache", "many"}, sink, sink));
+    }
+
+}
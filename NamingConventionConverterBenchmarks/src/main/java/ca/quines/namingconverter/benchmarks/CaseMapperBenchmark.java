@@ -0,0 +1,78 @@
+package ca.quines.namingconverter.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ca.quines.namingconverter.CaseMapper;
+
+/**
+ * {@link CaseMapper} against the default-locale {@link String#toUpperCase()} and {@link String#toLowerCase()} it
+ * replaced, on pure-ASCII identifier dumps.  The caseMapper methods measure the default kernel, which flips eight
+ * bytes at a time in a {@code long}.  The vector methods fork a JVM with the incubator module and the flag; they only
+ * measure the vector kernel when the converter was installed with {@code mvn -Pvector install}, and otherwise measure
+ * the same default kernel.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class CaseMapperBenchmark {
+
+    @Param
+    public Corpus corpus;
+
+    private String spaced;
+    private String upperSnake;
+
+    @Setup
+    public void setUp() {
+        spaced = corpus.spaced();
+        upperSnake = corpus.upperSnake();
+    }
+
+    @Benchmark
+    public String stringUpper() {
+        return spaced.toUpperCase();
+    }
+
+    @Benchmark
+    public String stringLower() {
+        return upperSnake.toLowerCase();
+    }
+
+    @Benchmark
+    public String caseMapperUpper() {
+        return CaseMapper.toUpperCase(spaced);
+    }
+
+    @Benchmark
+    public String caseMapperLower() {
+        return CaseMapper.toLowerCase(upperSnake);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = { "-Xmx4g", "--add-modules", "jdk.incubator.vector", "-Dncc.vectorCase=true" })
+    public String vectorUpper() {
+        return CaseMapper.toUpperCase(spaced);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = { "-Xmx4g", "--add-modules", "jdk.incubator.vector", "-Dncc.vectorCase=true" })
+    public String vectorLower() {
+        return CaseMapper.toLowerCase(upperSnake);
+    }
+
+}
@@ -0,0 +1,116 @@
+package ca.quines.namingconverter.benchmarks;
+
+import java.util.Random;
+
+/**
+ * Deterministic, realistic-looking inputs for the benchmarks.  Every corpus is built from the same made-up
+ * column names so that the results for different sizes can be compared with each other.
+ */
+public enum Corpus {
+
+    /** One identifier, the way a developer pastes a single column name. */
+    IDENTIFIER(1),
+
+    /** A column list such as the output of a SELECT against the data dictionary. */
+    COLUMN_LIST(10_000),
+
+    /** A schema dump of roughly 50 MB. */
+    SCHEMA_DUMP(50 * 1024 * 1024);
+
+    private static final String[] WORDS = {
+        "customer", "order", "line", "item", "id", "account", "status", "code", "created", "updated",
+        "date", "time", "amount", "total", "tax", "rate", "address", "postal", "city", "country",
+        "invoice", "payment", "method", "type", "name", "first", "last", "email", "phone", "number",
+        "product", "category", "price", "discount", "quantity", "warehouse", "shipment", "tracking", "url", "http",
+        "version", "flag", "active", "deleted", "reference", "external", "source", "system", "batch", "sequence"
+    };
+
+    private static final String[] SQL_TYPES = {
+        "NUMBER(19)", "VARCHAR2(255)", "DATE", "TIMESTAMP", "NUMBER(10,2)", "CHAR(1)", "CLOB"
+    };
+
+    private final int size;
+
+    Corpus(int size) {
+        this.size = size;
+    }
+
+    /** Identifier words separated by a single space, e.g. "customer order id". */
+    public String spaced() {
+        return build(Style.SPACED);
+    }
+
+    /** UPPER_SNAKE_CASE identifiers, e.g. "CUSTOMER_ORDER_ID". */
+    public String upperSnake() {
+        return build(Style.UPPER_SNAKE);
+    }
+
+    /** camelCase identifiers, e.g. "customerOrderId". */
+    public String camel() {
+        return build(Style.CAMEL);
+    }
+
+    /** Numeric IDs, one per line, for the IN clause builders. */
+    public String numbers() {
+        return build(Style.NUMBER);
+    }
+
+    private enum Style { SPACED, UPPER_SNAKE, CAMEL, NUMBER }
+
+    private String build(Style style) {
+        Random random = new Random(42);
+        if (this == IDENTIFIER) {
+            return identifier(random, style);
+        }
+
+        StringBuilder sb = new StringBuilder(this == SCHEMA_DUMP ? size + 256 : size * 24);
+        if (this == COLUMN_LIST) {
+            for (int i = 0; i < size; i++) {
+                sb.append(identifier(random, style)).append('\n');
+            }
+        } else {
+            // Lines such as "    CUSTOMER_ORDER_ID NUMBER(19) NOT NULL," until the dump reaches its size.
+            while (sb.length() < size) {
+                if (style == Style.NUMBER) {
+                    sb.append(identifier(random, style)).append('\n');
+                    continue;
+                }
+                sb.append("    ").append(identifier(random, style)).append(' ')
+                  .append(SQL_TYPES[random.nextInt(SQL_TYPES.length)]);
+                if (random.nextBoolean()) {
+                    sb.append(" NOT NULL");
+                }
+                sb.append(",\n");
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String identifier(Random random, Style style) {
+        if (style == Style.NUMBER) {
+            return Long.toString(1_000_000L + random.nextInt(9_000_000));
+        }
+
+        int wordCount = 2 + random.nextInt(3);
+        StringBuilder sb = new StringBuilder(32);
+        for (int i = 0; i < wordCount; i++) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            switch (style) {
+                case SPACED:
+                    if (i > 0) sb.append(' ');
+                    sb.append(word);
+                    break;
+                case UPPER_SNAKE:
+                    if (i > 0) sb.append('_');
+                    sb.append(word.toUpperCase());
+                    break;
+                default:
+                    sb.append(i == 0 ? Character.toLowerCase(word.charAt(0)) : Character.toUpperCase(word.charAt(0)))
+                      .append(word, 1, word.length());
+                    break;
+            }
+        }
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,74 @@
+package ca.quines.namingconverter.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ca.quines.namingconverter.JavaSqlConverter;
+
+/**
+ * {@link JavaSqlConverter} both ways on a query as a legacy DAO builds it, with a bind variable every few lines, from
+ * 100 lines to 100,000.  The time per line should be the same at every size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class JavaSqlConverterBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    public int lines;
+
+    private String sql;
+    private String concatenation;
+    private String appends;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        StringBuilder sb = new StringBuilder("SELECT C.ID, C.NAME, O.TOTAL\n")
+                .append("FROM CUSTOMER C JOIN ORDERS O ON O.CUSTOMER_ID = C.ID\n")
+                .append("WHERE 1 = 1");
+        for (int i = 3; i < lines; i++) {
+            sb.append("\n  OR (C.STATUS = '").append((char) ('A' + random.nextInt(26)))
+              .append(i % 4 == 0 ? "' AND O.TOTAL > :minimumTotal" : "' AND O.TOTAL > 100").append(')');
+        }
+        sql = sb.toString();
+        concatenation = JavaSqlConverter.sqlToConcatenation(sql);
+        appends = JavaSqlConverter.sqlToAppends(sql);
+    }
+
+    @Benchmark
+    public String sqlToConcatenation() {
+        return JavaSqlConverter.sqlToConcatenation(sql);
+    }
+
+    @Benchmark
+    public String sqlToAppends() {
+        return JavaSqlConverter.sqlToAppends(sql);
+    }
+
+    @Benchmark
+    public String concatenationToSql() {
+        return JavaSqlConverter.javaToSql(concatenation);
+    }
+
+    @Benchmark
+    public String appendsToSql() {
+        return JavaSqlConverter.javaToSql(appends);
+    }
+
+}
@@ -0,0 +1,81 @@
+package ca.quines.namingconverter.benchmarks;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ca.quines.namingconverter.Operation;
+import ca.quines.namingconverter.cli.BatchConverter;
+import ca.quines.namingconverter.cli.ParallelFileConverter;
+
+/**
+ * Sequential {@link BatchConverter} against the memory-mapped {@link ParallelFileConverter} on a generated file of
+ * UPPER_SNAKE_CASE column names, 1 GB by default.  Run with {@code -p threads=1,8,32} to check the scaling.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ParallelFileConverterBenchmark {
+
+    @Param("1024")
+    public int sizeMb;
+
+    @Param("SNAKE_TO_CAMEL")
+    public Operation operation;
+
+    @Param("0")
+    public int threads;
+
+    private Path input;
+    private Path output;
+
+    @Setup
+    public void setUp() throws IOException {
+        input = Files.createTempFile("ncc-bench-in", ".txt");
+        output = Files.createTempFile("ncc-bench-out", ".txt");
+        String block = Corpus.COLUMN_LIST.upperSnake();
+        long target = sizeMb * 1024L * 1024L;
+        try (BufferedWriter writer = Files.newBufferedWriter(input, StandardCharsets.UTF_8)) {
+            for (long written = 0; written < target; written += block.length()) {
+                writer.write(block);
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(input);
+        Files.deleteIfExists(output);
+    }
+
+    @Benchmark
+    public void sequential() throws IOException {
+        BatchConverter.convert(operation, input, output);
+    }
+
+    @Benchmark
+    public void parallel() throws IOException {
+        int parallelism = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        new ParallelFileConverter(operation, parallelism).convert(input, output);
+    }
+
+}
@@ -0,0 +1,95 @@
+package ca.quines.namingconverter.benchmarks;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ca.quines.namingconverter.PercentCodec;
+
+/**
+ * {@link PercentCodec} against {@link URLDecoder} and {@link URLEncoder} on 8 MB of access log request lines, as
+ * Strings the way the GUI buttons use them and as buffers the way BatchConverter streams a file.  The log has no
+ * malformed escapes, since those would make the JDK classes throw.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class PercentCodecBenchmark {
+
+    private static final String[] TERMS = {
+        "customer id", "caf%C3%A9", "order%2Fline", "na%C3%AFve", "a%26b", "100%25", "x", "%E2%82%AC5"
+    };
+
+    private String encoded;
+    private String decoded;
+    private ByteBuffer encodedBytes;
+    private ByteBuffer decodedBytes;
+    private ByteBuffer output;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        StringBuilder sb = new StringBuilder();
+        while (sb.length() < 8 * 1024 * 1024) {
+            sb.append("GET /search?q=").append(TERMS[random.nextInt(TERMS.length)].replace(' ', '+'))
+              .append("&page=").append(random.nextInt(100)).append("&sort=name+asc HTTP/1.1\n");
+        }
+        encoded = sb.toString();
+        decoded = URLDecoder.decode(encoded, StandardCharsets.UTF_8);
+        encodedBytes = ByteBuffer.wrap(encoded.getBytes(StandardCharsets.UTF_8));
+        decodedBytes = ByteBuffer.wrap(decoded.getBytes(StandardCharsets.UTF_8));
+        output = ByteBuffer.allocate(decodedBytes.capacity() * 3);
+    }
+
+    @Benchmark
+    public String jdkDecode() {
+        return URLDecoder.decode(encoded, StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public String codecDecode() {
+        return PercentCodec.decode(encoded);
+    }
+
+    @Benchmark
+    public String jdkEncode() {
+        return URLEncoder.encode(decoded, StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public String codecEncode() {
+        return PercentCodec.encode(decoded);
+    }
+
+    @Benchmark
+    public ByteBuffer codecDecodeBuffer() {
+        output.clear();
+        PercentCodec.decode(encodedBytes.duplicate(), output, true);
+        return output;
+    }
+
+    @Benchmark
+    public ByteBuffer codecEncodeBuffer() {
+        output.clear();
+        PercentCodec.encode(decodedBytes.duplicate(), output, true);
+        return output;
+    }
+
+}
@@ -0,0 +1,85 @@
+package ca.quines.namingconverter.benchmarks;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ca.quines.namingconverter.ReplacementRules;
+
+/**
+ * {@link ReplacementRules} against what the Regex tab used to need: one {@code replaceAll} pass per rule.  The rules
+ * map the UPPER_SNAKE_CASE column names of the corpus to snake_case names, the way a legacy column map does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ReplacementRulesBenchmark {
+
+    @Param({ "COLUMN_LIST", "SCHEMA_DUMP" })
+    public Corpus corpus;
+
+    @Param({ "50", "500" })
+    public int ruleCount;
+
+    private String text;
+    private ReplacementRules rules;
+    private String[] finds;
+    private String[] replacements;
+
+    @Setup
+    public void setUp() {
+        text = corpus.upperSnake();
+
+        // The most common distinct column names, so every rule has work to do.
+        Map<String, String> columns = new LinkedHashMap<>();
+        for (String line : text.split("\n")) {
+            String column = line.trim().split(" ")[0];
+            if (!column.isEmpty()) columns.putIfAbsent(column, column.toLowerCase() + "_new");
+            if (columns.size() == ruleCount) break;
+        }
+
+        List<String> lines = new ArrayList<>();
+        finds = new String[columns.size()];
+        replacements = new String[columns.size()];
+        int i = 0;
+        for (Map.Entry<String, String> column : columns.entrySet()) {
+            lines.add(column.getKey() + "\t" + column.getValue());
+            finds[i] = column.getKey();
+            replacements[i] = column.getValue();
+            i++;
+        }
+        rules = ReplacementRules.parse(lines);
+    }
+
+    @Benchmark
+    public String singleScan() {
+        return rules.apply(text);
+    }
+
+    @Benchmark
+    public String sequentialReplaceAll() {
+        String result = text;
+        for (int i = 0; i < finds.length; i++) {
+            result = result.replaceAll(finds[i], replacements[i]);
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,91 @@
+package ca.quines.namingconverter.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ca.quines.namingconverter.SqlFormatter;
+
+/**
+ * {@link SqlFormatter} on Hibernate query logs: one statement, a log of about 1 MB, and one single 16 MB statement
+ * such as an IN list that a batch job built.  The time per byte should be the same for all three.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SqlFormatterBenchmark {
+
+    public enum Log { STATEMENT, LOG_1MB, STATEMENT_16MB }
+
+    private static final String[] COLUMNS = {
+        "ID", "CUSTOMER_ID", "ORDER_DATE", "STATUS", "TOTAL", "CREATED_BY", "UPDATED_AT", "VERSION", "NAME", "CODE"
+    };
+
+    @Param
+    public Log log;
+
+    private String sql;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        StringBuilder sb = new StringBuilder();
+        switch (log) {
+            case STATEMENT:
+                appendSelect(sb, random);
+                break;
+            case LOG_1MB:
+                while (sb.length() < 1024 * 1024) {
+                    sb.append("Hibernate: ");
+                    appendSelect(sb, random);
+                    sb.append('\n');
+                }
+                break;
+            default:
+                appendSelect(sb, random);
+                sb.append(" and this_.ID in (");
+                for (int i = 0; sb.length() < 16 * 1024 * 1024; i++) {
+                    if (i > 0) sb.append(", ");
+                    sb.append(1_000_000 + random.nextInt(9_000_000));
+                }
+                sb.append(')');
+                break;
+        }
+        sql = sb.toString();
+    }
+
+    /** A typical Hibernate 5 select with a join, generated aliases and bind parameters. */
+    private static void appendSelect(StringBuilder sb, Random random) {
+        sb.append("select ");
+        int columns = 5 + random.nextInt(COLUMNS.length - 5);
+        for (int i = 0; i < columns; i++) {
+            if (i > 0) sb.append(", ");
+            String alias = i % 3 == 0 ? "orders1_" : "this_";
+            sb.append(alias).append('.').append(COLUMNS[i]).append(" as ").append(COLUMNS[i]).append(i + 1)
+              .append("_0_0_");
+        }
+        sb.append(" from CUSTOMER this_ left outer join ORDERS orders1_ on this_.ID=orders1_.CUSTOMER_ID")
+          .append(" where this_.STATUS=? and orders1_.TOTAL>").append(random.nextInt(1000))
+          .append(" and this_.NAME like 'A%' order by this_.NAME asc");
+    }
+
+    @Benchmark
+    public String format() {
+        return SqlFormatter.format(sql);
+    }
+
+}
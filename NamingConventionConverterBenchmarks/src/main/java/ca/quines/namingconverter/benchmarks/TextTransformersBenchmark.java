@@ -0,0 +1,193 @@
+package ca.quines.namingconverter.benchmarks;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ca.quines.namingconverter.TextTransformers;
+
+/**
+ * One benchmark per public {@link TextTransformers} method, each run against every {@link Corpus}.  Every method
+ * gets the input style it is meant for, e.g. UPPER_SNAKE_CASE for {@code snakeToCamel}.  decodeUrl and encodeUrl
+ * also run {@link URLDecoder} and {@link URLEncoder} on the same text, as a JDK baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TextTransformersBenchmark {
+
+    @Param
+    public Corpus corpus;
+
+    private String spaced;
+    private String upperSnake;
+    private String camel;
+    private String numbers;
+    private String urlEncoded;
+
+    @Setup
+    public void setUp() {
+        spaced = corpus.spaced();
+        upperSnake = corpus.upperSnake();
+        camel = corpus.camel();
+        numbers = corpus.numbers();
+        urlEncoded = URLEncoder.encode(spaced, StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public String removeDashesAndTrim() {
+        return TextTransformers.removeDashesAndTrim(spaced);
+    }
+
+    @Benchmark
+    public String replaceDashesWithSpaces() {
+        return TextTransformers.replaceDashesWithSpaces(spaced);
+    }
+
+    @Benchmark
+    public String underscoresToSpaces() {
+        return TextTransformers.underscoresToSpaces(upperSnake);
+    }
+
+    @Benchmark
+    public String collapseWhitespace() {
+        return TextTransformers.collapseWhitespace(spaced);
+    }
+
+    @Benchmark
+    public String toCamelCase() {
+        return TextTransformers.toCamelCase(spaced, false);
+    }
+
+    @Benchmark
+    public String toPascalCase() {
+        return TextTransformers.toCamelCase(spaced, true);
+    }
+
+    @Benchmark
+    public String toUpperSnake() {
+        return TextTransformers.toUpperSnake(camel);
+    }
+
+    @Benchmark
+    public String toSqlInClauseNumbers() {
+        return TextTransformers.toSqlInClause(numbers, false);
+    }
+
+    @Benchmark
+    public String toSqlInClauseStrings() {
+        return TextTransformers.toSqlInClause(upperSnake, true);
+    }
+
+    @Benchmark
+    public String camelCaseToSpaces() {
+        return TextTransformers.camelCaseToSpaces(camel);
+    }
+
+    @Benchmark
+    public String spacesToUpperSnake() {
+        return TextTransformers.spacesToUpperSnake(spaced);
+    }
+
+    @Benchmark
+    public String camelCaseToUpperSnake() {
+        return TextTransformers.camelCaseToUpperSnake(camel);
+    }
+
+    @Benchmark
+    public String snakeToCamel() {
+        return TextTransformers.snakeToCamel(upperSnake, false);
+    }
+
+    @Benchmark
+    public String snakeToPascal() {
+        return TextTransformers.snakeToCamel(upperSnake, true);
+    }
+
+    @Benchmark
+    public String decodeUrl() {
+        return TextTransformers.decodeUrl(urlEncoded);
+    }
+
+    @Benchmark
+    public String urlDecoderBaseline() {
+        return URLDecoder.decode(urlEncoded, StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public String encodeUrl() {
+        return TextTransformers.encodeUrl(spaced);
+    }
+
+    @Benchmark
+    public String urlEncoderBaseline() {
+        return URLEncoder.encode(spaced, StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public String toUpperCase() {
+        return TextTransformers.toUpperCase(spaced);
+    }
+
+    @Benchmark
+    public String toLowerCase() {
+        return TextTransformers.toLowerCase(upperSnake);
+    }
+
+    @Benchmark
+    public String allInitialCaps() {
+        return TextTransformers.allInitialCaps(spaced);
+    }
+
+    @Benchmark
+    public String toTitleCase() {
+        return TextTransformers.toTitleCase(spaced);
+    }
+
+    @Benchmark
+    public String lowercaseFirst() {
+        return TextTransformers.lowercaseFirst(upperSnake);
+    }
+
+    @Benchmark
+    public String uppercaseFirst() {
+        return TextTransformers.uppercaseFirst(camel);
+    }
+
+    @Benchmark
+    public String newlineToComma() {
+        return TextTransformers.newlineToComma(numbers);
+    }
+
+    @Benchmark
+    public String newlineToQuotedComma() {
+        return TextTransformers.newlineToQuotedComma(upperSnake);
+    }
+
+    @Benchmark
+    public String toInClauseInt() {
+        return TextTransformers.toInClauseInt(numbers);
+    }
+
+    @Benchmark
+    public String toInClauseString() {
+        return TextTransformers.toInClauseString(upperSnake);
+    }
+
+}
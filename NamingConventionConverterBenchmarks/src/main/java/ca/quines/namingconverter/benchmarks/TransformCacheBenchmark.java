@@ -0,0 +1,92 @@
+package ca.quines.namingconverter.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ca.quines.namingconverter.Operation;
+import ca.quines.namingconverter.TransformCache;
+
+/**
+ * Where {@link TransformCache} starts to pay for itself.  Each call converts one identifier; {@code hitPercent} of them
+ * come from a vocabulary that is already cached and the rest are new identifiers that have never been seen, so the
+ * cached and uncached numbers at each hit rate can be compared directly.  Both variants build the new identifiers the
+ * same way, so that cost cancels out.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransformCacheBenchmark {
+
+    private static final int VOCABULARY = 20_000;
+    private static final int PATTERN = 1 << 16;
+
+    @Param({ "0", "25", "50", "75", "90", "99" })
+    public int hitPercent;
+
+    @Param({ "SNAKE_TO_CAMEL", "ANY_TO_CAMEL", "CAMEL_CASE_TO_UPPER_SNAKE" })
+    public Operation operation;
+
+    private String[] vocabulary;
+    private boolean[] hit;
+    private int[] word;
+    private TransformCache cache;
+    private int next;
+    private long unique;
+
+    @Setup
+    public void setUp() {
+        String source = operation == Operation.CAMEL_CASE_TO_UPPER_SNAKE ? Corpus.COLUMN_LIST.camel() : Corpus.COLUMN_LIST.upperSnake();
+        String[] words = source.split("\n");
+        vocabulary = new String[VOCABULARY];
+        for (int i = 0; i < VOCABULARY; i++) {
+            // Keeps the vocabulary distinct even though the corpus repeats itself.
+            vocabulary[i] = words[i % words.length] + (i / words.length == 0 ? "" : operation == Operation.CAMEL_CASE_TO_UPPER_SNAKE ? "V" + i / words.length : "_V" + i / words.length);
+        }
+
+        Random random = new Random(42);
+        hit = new boolean[PATTERN];
+        word = new int[PATTERN];
+        for (int i = 0; i < PATTERN; i++) {
+            hit[i] = random.nextInt(100) < hitPercent;
+            word[i] = random.nextInt(VOCABULARY);
+        }
+
+        // Room for the vocabulary plus some misses, which then push each other out.
+        cache = new TransformCache(VOCABULARY * 2);
+        for (String w : vocabulary) {
+            cache.apply(operation, w);
+        }
+    }
+
+    private String nextInput() {
+        int i = next++ & (PATTERN - 1);
+        if (hit[i]) return vocabulary[word[i]];
+        return vocabulary[word[i]] + (operation == Operation.CAMEL_CASE_TO_UPPER_SNAKE ? "X" : "_X") + unique++;
+    }
+
+    @Benchmark
+    public String uncached() {
+        return operation.apply(nextInput());
+    }
+
+    @Benchmark
+    public String cached() {
+        return cache.apply(operation, nextInput());
+    }
+
+}
@@ -0,0 +1,71 @@
+package ca.quines.namingconverter.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ca.quines.namingconverter.Operation;
+import ca.quines.namingconverter.TransformMetrics;
+import ca.quines.namingconverter.Transformation;
+
+/**
+ * The cost of {@link TransformMetrics} on the smallest unit of work, one identifier: the bare operation, the wrapped
+ * operation with collection off, and with it on.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransformMetricsBenchmark {
+
+    @Param({ "false", "true" })
+    public boolean enabled;
+
+    private String[] identifiers;
+    private Transformation wrapped;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        identifiers = Corpus.COLUMN_LIST.upperSnake().split("\n");
+        wrapped = TransformMetrics.wrap(Operation.SNAKE_TO_CAMEL);
+        TransformMetrics.setEnabled(enabled);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        TransformMetrics.setEnabled(false);
+        TransformMetrics.reset();
+    }
+
+    private String nextIdentifier() {
+        String identifier = identifiers[next];
+        next = next + 1 == identifiers.length ? 0 : next + 1;
+        return identifier;
+    }
+
+    @Benchmark
+    public String bare() {
+        return Operation.SNAKE_TO_CAMEL.apply(nextIdentifier());
+    }
+
+    @Benchmark
+    public String measured() {
+        return wrapped.apply(nextIdentifier());
+    }
+
+}
@@ -0,0 +1,162 @@
+package ca.quines.namingconverter.benchmarks;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import ca.quines.namingconverter.cli.TransformServer;
+
+/**
+ * Closed-loop load test for {@link TransformServer}: every client sends a request, waits for the answer, and sends
+ * the next one.  Prints requests per second and the latency percentiles.  Not a JMH benchmark, because latency under
+ * concurrent load is what matters here; run it with
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar ca.quines.namingconverter.benchmarks.TransformServerLoadTest --clients 32 --batch 100
+ * </pre>
+ *
+ * Without {@code --url} it starts a server in the same JVM on a free port.
+ */
+public class TransformServerLoadTest {
+
+    private static final String USAGE = String.join("\n",
+            "Usage: TransformServerLoadTest [--url <http://localhost:port>] [--operation <name>] [--clients <n>]",
+            "                              [--batch <identifiers per request>] [--warmup <s>] [--seconds <s>] [--lines]",
+            "",
+            "Sends JSON arrays by default; --lines sends newline-separated text instead.");
+
+    public static void main(String[] args) throws Exception {
+        String url = null;
+        String operation = "snakeToCamel";
+        int clients = 16;
+        int batch = 1;
+        int warmupSeconds = 5;
+        int seconds = 15;
+        boolean lines = false;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--url": url = args[++i]; break;
+                case "--operation": operation = args[++i]; break;
+                case "--clients": clients = Integer.parseInt(args[++i]); break;
+                case "--batch": batch = Integer.parseInt(args[++i]); break;
+                case "--warmup": warmupSeconds = Integer.parseInt(args[++i]); break;
+                case "--seconds": seconds = Integer.parseInt(args[++i]); break;
+                case "--lines": lines = true; break;
+                default:
+                    System.err.println(USAGE);
+                    System.exit(2);
+            }
+        }
+
+        TransformServer server = null;
+        if (url == null) {
+            server = new TransformServer(0);
+            server.start();
+            url = "http://localhost:" + server.port();
+        }
+        try {
+            HttpRequest request = request(URI.create(url + "/transform/" + operation), batch, lines);
+            HttpClient client = HttpClient.newHttpClient();
+
+            System.out.printf("%s, %d clients, %d identifiers per request, %s bodies%n",
+                    url, clients, batch, lines ? "text" : "JSON");
+            run(client, request, clients, warmupSeconds);
+            Result result = run(client, request, clients, seconds);
+            result.print(batch);
+        } finally {
+            if (server != null) server.stop();
+        }
+        // The HTTP client's threads would keep the JVM running.
+        System.exit(0);
+    }
+
+    private static HttpRequest request(URI uri, int batch, boolean lines) {
+        String[] identifiers = Corpus.COLUMN_LIST.upperSnake().split("\n");
+        StringBuilder body = new StringBuilder();
+        if (!lines) body.append('[');
+        for (int i = 0; i < batch; i++) {
+            String identifier = identifiers[i % identifiers.length];
+            if (lines) {
+                body.append(identifier).append('\n');
+            } else {
+                if (i > 0) body.append(',');
+                body.append('"').append(identifier).append('"');
+            }
+        }
+        if (!lines) body.append(']');
+        return HttpRequest.newBuilder(uri)
+                .header("Content-Type", lines ? "text/plain; charset=utf-8" : "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+    }
+
+    private static Result run(HttpClient client, HttpRequest request, int clients, int seconds) throws Exception {
+        long endNanos = System.nanoTime() + seconds * 1_000_000_000L;
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        List<Future<long[]>> futures = new ArrayList<>();
+        for (int c = 0; c < clients; c++) {
+            Callable<long[]> task = () -> {
+                long[] latencies = new long[1024];
+                int count = 0;
+                while (System.nanoTime() < endNanos) {
+                    long start = System.nanoTime();
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() != 200) {
+                        throw new IllegalStateException("HTTP " + response.statusCode());
+                    }
+                    if (count == latencies.length) latencies = Arrays.copyOf(latencies, count * 2);
+                    latencies[count++] = System.nanoTime() - start;
+                }
+                return Arrays.copyOf(latencies, count);
+            };
+            futures.add(pool.submit(task));
+        }
+
+        long[] all = new long[0];
+        for (Future<long[]> future : futures) {
+            long[] latencies = future.get();
+            int offset = all.length;
+            all = Arrays.copyOf(all, offset + latencies.length);
+            System.arraycopy(latencies, 0, all, offset, latencies.length);
+        }
+        pool.shutdown();
+        Arrays.sort(all);
+        return new Result(all, seconds);
+    }
+
+    private static final class Result {
+
+        private final long[] sortedLatencies;
+        private final int seconds;
+
+        Result(long[] sortedLatencies, int seconds) {
+            this.sortedLatencies = sortedLatencies;
+            this.seconds = seconds;
+        }
+
+        double percentileMillis(double percentile) {
+            if (sortedLatencies.length == 0) return Double.NaN;
+            int index = (int) Math.ceil(percentile / 100 * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(0, index)] / 1_000_000.0;
+        }
+
+        void print(int batch) {
+            double rps = (double) sortedLatencies.length / seconds;
+            System.out.printf("requests:    %d in %d s%n", sortedLatencies.length, seconds);
+            System.out.printf("throughput:  %.0f requests/s, %.0f identifiers/s%n", rps, rps * batch);
+            System.out.printf("latency ms:  p50 %.3f  p90 %.3f  p99 %.3f  p99.9 %.3f  max %.3f%n",
+                    percentileMillis(50), percentileMillis(90), percentileMillis(99), percentileMillis(99.9),
+                    percentileMillis(100));
+        }
+
+    }
+
+}